@@ -0,0 +1,67 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arbitrary-precision functions at increasing digit counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BigDecimalBenchmark {
+
+    @Param({"34", "100", "1000"})
+    private int digits;
+
+    private final BigDecimal x = new BigDecimal("2.718281828459045");
+    private BigDecimalCalculator calculator;
+    private MathContext mathContext;
+
+    @Setup
+    public void setUp() {
+        mathContext = new MathContext(digits);
+        calculator = new BigDecimalCalculator(mathContext);
+    }
+
+    @Benchmark
+    public BigDecimal sqrt() {
+        return calculator.sqrt(x);
+    }
+
+    @Benchmark
+    public BigDecimal jdkSqrt() {
+        return x.sqrt(mathContext);
+    }
+
+    @Benchmark
+    public BigDecimal ln() {
+        return calculator.ln(x);
+    }
+
+    @Benchmark
+    public BigDecimal exp() {
+        return calculator.exp(x);
+    }
+
+    @Benchmark
+    public BigDecimal fractionalPower() {
+        return calculator.power(x, new BigDecimal("0.37"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain versus memoized evaluation when a small set of arguments repeats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CachingBenchmark {
+
+    private final Calculator plain = new Calculator();
+    private final CachingCalculator caching = new CachingCalculator();
+    private final double[] arguments = {1.5, 2.25, 3.125, 7.75, 10.5, 42.0, 99.9, 123.456};
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public double plainPower(Cursor cursor) {
+        double x = arguments[cursor.next++ & 7];
+        return plain.power(x, 2.5);
+    }
+
+    @Benchmark
+    public double cachedPower(Cursor cursor) {
+        double x = arguments[cursor.next++ & 7];
+        return caching.power(x, 2.5);
+    }
+
+    @Benchmark
+    public double plainLn(Cursor cursor) {
+        return plain.ln(arguments[cursor.next++ & 7]);
+    }
+
+    @Benchmark
+    public double cachedLn(Cursor cursor) {
+        return caching.ln(arguments[cursor.next++ & 7]);
+    }
+}
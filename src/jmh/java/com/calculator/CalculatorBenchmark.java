@@ -0,0 +1,137 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and average time of every {@link Calculator} operation, including the
+ * exception-throwing guard branches. Operands are read from fields so the JIT cannot
+ * constant-fold the calls away.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    private final Calculator calculator = new Calculator();
+
+    private double a = 1234.5678;
+    private double b = 3.75;
+    private double zero = 0;
+    private double negative = -4;
+    private double smallExponent = 3;
+    private int factorialArgument = 20;
+    private int negativeFactorialArgument = -1;
+
+    @Benchmark
+    public double add() {
+        return calculator.add(a, b);
+    }
+
+    @Benchmark
+    public double subtract() {
+        return calculator.subtract(a, b);
+    }
+
+    @Benchmark
+    public double multiply() {
+        return calculator.multiply(a, b);
+    }
+
+    @Benchmark
+    public double divide() {
+        return calculator.divide(a, b);
+    }
+
+    @Benchmark
+    public double sqrt() {
+        return calculator.sqrt(a);
+    }
+
+    @Benchmark
+    public double power() {
+        return calculator.power(a, b);
+    }
+
+    @Benchmark
+    public double powerIntegerExponent() {
+        return calculator.power(b, smallExponent);
+    }
+
+    @Benchmark
+    public long factorial() {
+        return calculator.factorial(factorialArgument);
+    }
+
+    @Benchmark
+    public double ln() {
+        return calculator.ln(a);
+    }
+
+    @Benchmark
+    public double log() {
+        return calculator.log(a);
+    }
+
+    @Benchmark
+    public double exp() {
+        return calculator.exp(b);
+    }
+
+    @Benchmark
+    public Object divideByZero() {
+        try {
+            return calculator.divide(a, zero);
+        } catch (ArithmeticException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object sqrtNegative() {
+        try {
+            return calculator.sqrt(negative);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object lnNonPositive() {
+        try {
+            return calculator.ln(zero);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object logNonPositive() {
+        try {
+            return calculator.log(negative);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object factorialNegative() {
+        try {
+            return calculator.factorial(negativeFactorialArgument);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mixed batch spread over worker JVMs started on this machine, against the same batch on
+ * one local {@link ParallelBatchExecutor} thread (ParallelBatchBenchmark with parallelism 1).
+ * Workers on one machine share its cores, so this measures the cost of framing and the
+ * loopback round trips per partition size rather than cluster scaling.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistributedBatchBenchmark {
+
+    @Param({"1", "2"})
+    private int workers;
+
+    @Param({"1024", "8192", "65536"})
+    private int partitionSize;
+
+    private static final int SIZE = 1 << 20;
+
+    private BatchWorker.LocalWorkers local;
+    private BatchCoordinator coordinator;
+    private Operation[] operations;
+    private double[] a;
+    private double[] b;
+    private double[] results;
+    private String[] errors;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        local = BatchWorker.launchLocal(workers);
+        coordinator = new BatchCoordinator(local.getAddresses(), partitionSize,
+                BatchCoordinator.DEFAULT_TIMEOUT_MILLIS);
+        Random random = new Random(1);
+        Operation[] mix = {Operation.ADD, Operation.MULTIPLY, Operation.DIVIDE, Operation.SQRT,
+            Operation.POWER, Operation.LN, Operation.LOG, Operation.EXP};
+        operations = new Operation[SIZE];
+        a = new double[SIZE];
+        b = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            operations[i] = mix[random.nextInt(mix.length)];
+            a[i] = 1 + random.nextDouble() * 100;
+            b[i] = 1 + random.nextDouble() * 3;
+        }
+        results = new double[SIZE];
+        errors = new String[SIZE];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        local.close();
+    }
+
+    @Benchmark
+    public int mixedBatch() throws IOException {
+        return coordinator.execute(operations, a, b, results, errors);
+    }
+}
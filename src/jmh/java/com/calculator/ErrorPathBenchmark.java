@@ -0,0 +1,100 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwing versus status-returning evaluation over inputs where a given fraction of
+ * elements hits a domain error.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    private static final int SIZE = 4096;
+
+    @Param({"0", "0.01", "0.1", "0.5"})
+    private double errorRate;
+
+    private final Calculator calculator = new Calculator();
+    private final CalculationResult result = new CalculationResult();
+    private final double[] numerators = new double[SIZE];
+    private final double[] divisors = new double[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            numerators[i] = random.nextDouble() * 1000;
+            divisors[i] = random.nextDouble() < errorRate ? 0 : 1 + random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double throwing() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            try {
+                sum += calculator.divide(numerators[i], divisors[i]);
+            } catch (ArithmeticException e) {
+                sum -= 1;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double statusCode() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (calculator.tryDivide(numerators[i], divisors[i], result) == CalculationStatus.OK) {
+                sum += result.value();
+            } else {
+                sum -= 1;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double throwingSqrt() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            try {
+                sum += Operation.SQRT.apply(calculator, divisors[i] == 0 ? -1 : numerators[i], 0);
+            } catch (IllegalArgumentException e) {
+                sum -= 1;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double statusCodeSqrt() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (Operation.SQRT.tryApply(calculator, divisors[i] == 0 ? -1 : numerators[i], 0, result).isOk()) {
+                sum += result.value();
+            } else {
+                sum -= 1;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,57 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning results into display text, which at batch volumes can outweigh the math.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormattingBenchmark {
+
+    private double integral = 1024;
+    private double fractional = Math.PI * 1000;
+    private final StringBuilder line = new StringBuilder();
+
+    @Benchmark
+    public String guiFormatIntegral() {
+        return CalculatorGUI.formatResult(integral);
+    }
+
+    @Benchmark
+    public String guiFormatFractional() {
+        return CalculatorGUI.formatResult(fractional);
+    }
+
+    @Benchmark
+    public StringBuilder formatterIntoBuilder() {
+        line.setLength(0);
+        return ResultFormatter.DISPLAY.format(fractional, line);
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        // the String.format + regex approach CalculatorGUI.formatResult used to take
+        return String.format("%.10f", fractional).replaceAll("0*$", "").replaceAll("\\.$", "");
+    }
+
+    @Benchmark
+    public String cliResultLine() {
+        // the string concatenation CalculatorCLI used to build each result line
+        return "\n✓ Result: √" + integral + " = " + fractional;
+    }
+}
@@ -0,0 +1,66 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk exp, ln and power under each function kernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FunctionKernelBenchmark {
+
+    private static final int SIZE = 4096;
+
+    @Param({"STRICT", "DEFAULT", "FAST"})
+    private FunctionKernel kernel;
+
+    private Calculator calculator;
+    private final double[] exponents = new double[SIZE];
+    private final double[] positives = new double[SIZE];
+    private final double[] out = new double[SIZE];
+
+    @Setup
+    public void setUp() {
+        calculator = new Calculator(kernel);
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            exponents[i] = random.nextDouble() * 100 - 50;
+            positives[i] = random.nextDouble() * 1e6;
+        }
+    }
+
+    @Benchmark
+    public double[] exp() {
+        calculator.exp(exponents, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] ln() {
+        calculator.ln(positives, out, null);
+        return out;
+    }
+
+    @Benchmark
+    public double[] power() {
+        calculator.power(positives, exponents, out);
+        return out;
+    }
+}
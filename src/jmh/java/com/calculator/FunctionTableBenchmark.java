@@ -0,0 +1,87 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table lookups versus the calculator's own {@code exp} and {@code ln} over 1024 arguments
+ * inside the tables' domains, with tables of 4096 intervals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FunctionTableBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int INTERVALS = 4096;
+
+    @Param({"exp", "ln"})
+    private String function;
+
+    private final Calculator calculator = new Calculator();
+    private final double[] arguments = new double[SIZE];
+    private Operation operation;
+    private FunctionTable linear;
+    private FunctionTable cubic;
+
+    @Setup
+    public void setUp() {
+        operation = Operation.fromToken(function);
+        double lower = operation == Operation.EXP ? -5 : 0.5;
+        double upper = operation == Operation.EXP ? 5 : 2;
+        linear = FunctionTable.build(operation, lower, upper, INTERVALS, FunctionTable.Interpolation.LINEAR);
+        cubic = FunctionTable.build(operation, lower, upper, INTERVALS, FunctionTable.Interpolation.CUBIC);
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            arguments[i] = lower + random.nextDouble() * (upper - lower);
+        }
+    }
+
+    @Benchmark
+    public double calculator() {
+        double sum = 0;
+        if (operation == Operation.EXP) {
+            for (double x : arguments) {
+                sum += calculator.exp(x);
+            }
+        } else {
+            for (double x : arguments) {
+                sum += calculator.ln(x);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double linear() {
+        double sum = 0;
+        for (double x : arguments) {
+            sum += linear.evaluate(x);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double cubic() {
+        double sum = 0;
+        for (double x : arguments) {
+            sum += cubic.evaluate(x);
+        }
+        return sum;
+    }
+}
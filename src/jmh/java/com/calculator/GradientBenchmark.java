@@ -0,0 +1,96 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full gradient of the extended Rosenbrock function in {@code n} variables: one reverse-mode
+ * tape sweep versus compiled symbolic partial derivatives (one expression per variable) and
+ * central finite differences (two evaluations per variable).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradientBenchmark {
+
+    private static final double H = 0.000001;
+
+    @Param({"4", "32"})
+    private int n;
+
+    private CompiledExpression function;
+    private CompiledExpression[] partials;
+    private GradientTape tape;
+    private double[] point;
+    private double[] gradient;
+
+    @Setup
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = "x" + i;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (i > 0) {
+                text.append(" + ");
+            }
+            text.append("100*(").append(names[i + 1]).append(" - ").append(names[i]).append("^2)^2 + (1 - ")
+                    .append(names[i]).append(")^2");
+        }
+        Expression expression = Expression.parse(text.toString());
+        function = expression.compile(names);
+        partials = new CompiledExpression[n];
+        for (int i = 0; i < n; i++) {
+            partials[i] = expression.derivative(names[i]).compile(names);
+        }
+        tape = expression.gradient(names);
+        point = new double[n];
+        for (int i = 0; i < n; i++) {
+            point[i] = 0.5 + i * 0.01;
+        }
+        gradient = new double[n];
+    }
+
+    @Benchmark
+    public double[] tape() {
+        tape.evaluate(point, gradient);
+        return gradient;
+    }
+
+    @Benchmark
+    public double[] symbolic() {
+        for (int i = 0; i < n; i++) {
+            gradient[i] = partials[i].evaluate(point);
+        }
+        return gradient;
+    }
+
+    @Benchmark
+    public double[] finiteDifferences() {
+        for (int i = 0; i < n; i++) {
+            double x = point[i];
+            point[i] = x + H;
+            double above = function.evaluate(point);
+            point[i] = x - H;
+            double below = function.evaluate(point);
+            point[i] = x;
+            gradient[i] = (above - below) / (2 * H);
+        }
+        return gradient;
+    }
+}
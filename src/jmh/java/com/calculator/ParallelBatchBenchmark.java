@@ -0,0 +1,95 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ParallelBatchExecutor with the number of worker threads. On a machine with
+ * N cores the time per batch should drop close to 1/parallelism up to N. The list form
+ * runs the same mix as {@code mixedBatch}, split by spliterator instead of by index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBatchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"4096"})
+    private int grainSize;
+
+    private static final int SIZE = 1 << 20;
+
+    private ForkJoinPool pool;
+    private ParallelBatchExecutor executor;
+    private Operation[] operations;
+    private double[] a;
+    private double[] b;
+    private List<ParallelBatchExecutor.Request> requests;
+    private double[] results;
+    private String[] errors;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        executor = new ParallelBatchExecutor(new Calculator(), pool, grainSize);
+        Random random = new Random(1);
+        Operation[] mix = {Operation.ADD, Operation.MULTIPLY, Operation.DIVIDE, Operation.SQRT,
+            Operation.POWER, Operation.LN, Operation.LOG, Operation.EXP};
+        operations = new Operation[SIZE];
+        a = new double[SIZE];
+        b = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            operations[i] = mix[random.nextInt(mix.length)];
+            a[i] = 1 + random.nextDouble() * 100;
+            b[i] = 1 + random.nextDouble() * 3;
+        }
+        requests = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            requests.add(new ParallelBatchExecutor.Request(operations[i], a[i], b[i]));
+        }
+        results = new double[SIZE];
+        errors = new String[SIZE];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int mixedBatch() {
+        return executor.execute(operations, a, b, results, errors);
+    }
+
+    @Benchmark
+    public int listBatch() {
+        return executor.execute(requests, results, errors);
+    }
+
+    @Benchmark
+    public int sqrtColumn() {
+        return executor.execute(Operation.SQRT, a, null, results, errors);
+    }
+}
@@ -0,0 +1,55 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NumberParser against the JDK parsers on typical calculator input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParsingBenchmark {
+
+    @Param({"16", "2.718281828", "-1234.5678e-3", "0.30000000000000004", "1.7976931348623157e308"})
+    private String text;
+
+    private StringBuilder input;
+
+    @Setup
+    public void setUp() {
+        input = new StringBuilder(text);
+    }
+
+    @Benchmark
+    public double numberParser() {
+        return NumberParser.parseDouble(input);
+    }
+
+    @Benchmark
+    public double jdkParseDouble() {
+        // what CalculatorGUI.getCurrentValue used to do
+        return Double.parseDouble(input.toString());
+    }
+
+    @Benchmark
+    public double scannerNextDouble() {
+        // what CalculatorCLI.getNumber used to do, minus reading from System.in
+        return new Scanner(text).nextDouble();
+    }
+}
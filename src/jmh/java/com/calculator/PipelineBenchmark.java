@@ -0,0 +1,76 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2^20 values through sqrt, ln, a finiteness filter and mean windows of 1024, by chunk size
+ * (1 is per-item reactive streaming), against the same work in a plain loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    private static final int SIZE = 1 << 20;
+    private static final int WINDOW = 1024;
+
+    @Param({"1", "64", "1024"})
+    private int chunkSize;
+
+    private final Calculator calculator = new Calculator();
+    private final double[] values = new double[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble() * 100;
+        }
+    }
+
+    @Benchmark
+    public double[] pipeline() throws Exception {
+        return CalculationPipeline.from(Arrays.stream(values).iterator(), chunkSize)
+                .map(Operation.SQRT)
+                .map(Operation.LN)
+                .filter(Double::isFinite)
+                .window(WINDOW, CalculationPipeline.Aggregate.MEAN)
+                .toArray()
+                .get();
+    }
+
+    @Benchmark
+    public double[] loop() {
+        double[] means = new double[SIZE / WINDOW];
+        ColumnStatistics window = new ColumnStatistics();
+        int windows = 0;
+        for (double value : values) {
+            double result = calculator.ln(calculator.sqrt(value));
+            if (Double.isFinite(result)) {
+                window.accept(result);
+                if (window.getCount() == WINDOW) {
+                    means[windows++] = window.getMean();
+                    window = new ColumnStatistics();
+                }
+            }
+        }
+        return means;
+    }
+}
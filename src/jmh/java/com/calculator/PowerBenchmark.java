@@ -0,0 +1,87 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Integral-exponent powers by squaring versus {@link Math#pow}, and modular powers versus
+ * {@link BigInteger#modPow}, over 1024 bases per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PowerBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final long MODULUS = 1_000_000_007;
+
+    @Param({"3", "7", "16", "-5"})
+    private int exponent;
+
+    private final Calculator calculator = new Calculator();
+    private final double[] bases = new double[SIZE];
+    private final long[] integers = new long[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            bases[i] = 0.5 + random.nextDouble() * 1.5;
+            integers[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public double mathPow() {
+        double sum = 0;
+        for (double base : bases) {
+            sum += Math.pow(base, exponent);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double power() {
+        double sum = 0;
+        for (double base : bases) {
+            sum += calculator.power(base, exponent);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long modPow() {
+        long sum = 0;
+        for (long value : integers) {
+            sum += calculator.modPow(value, MODULUS - 2, MODULUS);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bigIntegerModPow() {
+        BigInteger modulus = BigInteger.valueOf(MODULUS);
+        BigInteger power = BigInteger.valueOf(MODULUS - 2);
+        long sum = 0;
+        for (long value : integers) {
+            sum += BigInteger.valueOf(value).modPow(power, modulus).longValue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key presses through a {@link SessionEngine} from one and from four threads, each thread
+ * on its own session (the server case) or all on one shared session (worst-case
+ * contention), against a single lock around mutable state, the naive way to share the
+ * GUI's old fields. Each operation is the three presses {@code + 1 =}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+
+    private final SessionEngine engine = new SessionEngine();
+    private final Calculator calculator = new Calculator();
+    private final Object lock = new Object();
+    private long shared;
+    private SessionState locked = SessionState.INITIAL;
+
+    @State(Scope.Thread)
+    public static class Session {
+        long id;
+
+        @Setup
+        public void setUp(SessionBenchmark benchmark) {
+            id = benchmark.engine.open();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        shared = engine.open();
+    }
+
+    private SessionState add(long id) {
+        engine.press(id, "+");
+        engine.press(id, "1");
+        return engine.press(id, "=");
+    }
+
+    private SessionState addLocked() {
+        synchronized (lock) {
+            locked = locked.press("+", calculator).press("1", calculator).press("=", calculator);
+            return locked;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SessionState ownSession(Session session) {
+        return add(session.id);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SessionState ownSessionFourThreads(Session session) {
+        return add(session.id);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SessionState sharedSessionFourThreads() {
+        return add(shared);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SessionState globalLockFourThreads() {
+        return addLocked();
+    }
+}
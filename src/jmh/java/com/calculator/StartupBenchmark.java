@@ -0,0 +1,132 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Wall-clock time for a fresh JVM to start the CLI and exit, with and without touching
+ * Swing and with and without an application class-data-sharing archive. The application
+ * is packaged into a temporary jar first, because CDS only archives classes from jars.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 15)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private Path directory;
+    private Path jar;
+    private Path archive;
+
+    /**
+     * Loads the Swing classes the launcher used to reference before handing over to the
+     * CLI, to show what the CLI paid when Swing was touched eagerly.
+     */
+    public static final class EagerSwingMain {
+        public static void main(String[] args) throws Exception {
+            Class.forName("javax.swing.SwingUtilities");
+            Class.forName("javax.swing.JFrame");
+            CalculatorMain.main(args);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException, URISyntaxException {
+        directory = Files.createTempDirectory("startup-benchmark");
+        jar = directory.resolve("calculator.jar");
+        archive = directory.resolve("calculator.jsa");
+        Path classes = Paths.get(CalculatorMain.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        packageJar(classes, jar);
+        run("-XX:ArchiveClassesAtExit=" + archive, "com.calculator.CalculatorMain");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int cli() throws IOException, InterruptedException {
+        return run(null, "com.calculator.CalculatorMain");
+    }
+
+    @Benchmark
+    public int cliWithEagerSwing() throws IOException, InterruptedException {
+        return run(null, "com.calculator.StartupBenchmark$EagerSwingMain");
+    }
+
+    @Benchmark
+    public int cliWithCds() throws IOException, InterruptedException {
+        return run("-XX:SharedArchiveFile=" + archive, "com.calculator.CalculatorMain");
+    }
+
+    private int run(String option, String mainClass) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (option != null) {
+            command.add(option);
+        }
+        command.addAll(Arrays.asList("-Dcalculator.history=false", "-cp", jar.toString(), mainClass, "cli"));
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (OutputStream input = process.getOutputStream()) {
+            input.write("0\n".getBytes(StandardCharsets.UTF_8));
+        }
+        int status = process.waitFor();
+        if (status != 0) {
+            throw new IllegalStateException("Calculator exited with status " + status);
+        }
+        return status;
+    }
+
+    private static void packageJar(Path classes, Path jar) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+                if (name.startsWith("com/calculator/")) {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(file, out);
+                    out.closeEntry();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.calculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column statistics over a million doubles: the primitive accumulator, its parallel
+ * reduction, and the boxed {@code List<Double>} stream it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    private final double[] column = new double[SIZE];
+    private final List<Double> boxed = new ArrayList<>(SIZE);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            column[i] = random.nextDouble() * 100 + 1;
+            boxed.add(column[i]);
+        }
+    }
+
+    @Benchmark
+    public ColumnStatistics sequential() {
+        return ColumnStatistics.of(column);
+    }
+
+    @Benchmark
+    public ColumnStatistics parallel() {
+        return ColumnStatistics.parallel(column);
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics boxedStream() {
+        return boxed.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+    }
+}
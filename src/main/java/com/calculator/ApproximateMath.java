@@ -0,0 +1,132 @@
+package com.calculator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Table-driven approximations of {@code exp} and {@code ln} behind {@link FunctionKernel#FAST}.
+ *
+ * Both reduce the argument against a small table so that a short polynomial suffices:
+ * {@code exp(x) = 2^(k/64) * exp(r)} with {@code |r| <= ln2/128}, and
+ * {@code ln(x) = e*ln2 + ln(c) + 2*atanh((m-c)/(m+c))} with the mantissa {@code m} within
+ * 1/256 of a table point {@code c}. Special values, and {@code exp} arguments whose result
+ * is subnormal or close to overflow, are delegated to {@link Math}.
+ */
+final class ApproximateMath {
+
+    /** Largest error of {@link #exp} over its whole domain, in ulps of the exact result. */
+    static final double EXP_ULPS = 2;
+    /** Largest error of {@link #ln} over its whole domain, in ulps of the exact result. */
+    static final double LN_ULPS = 2;
+    /** Largest error of {@link #log10} over its whole domain, in ulps of the exact result. */
+    static final double LOG10_ULPS = 4;
+
+    private static final int EXP_TABLE_BITS = 6;
+    private static final int EXP_TABLE_SIZE = 1 << EXP_TABLE_BITS;
+    private static final double[] EXP_TABLE = new double[EXP_TABLE_SIZE];
+
+    private static final double EXP_MIN = -708;
+    private static final double EXP_MAX = 709;
+    private static final double ROUNDING_SHIFT = 0x1.8p52;
+    private static final long ROUNDING_SHIFT_BITS = Double.doubleToRawLongBits(ROUNDING_SHIFT);
+    private static final double INV_LN2_SCALED = EXP_TABLE_SIZE / Math.log(2);
+    // ln2/64 split so that k * LN2_SCALED_HI is exact for every k in range
+    private static final double LN2_SCALED_HI = 0x1.62e42fee00000p-7;
+    private static final double LN2_SCALED_LO = 0x1.a39ef35793c76p-39;
+
+    private static final int LN_TABLE_BITS = 7;
+    private static final int LN_TABLE_OFFSET = 38;
+    private static final double[] LN_TABLE_POINTS = new double[92];
+    // ln of each table point as an unevaluated sum of two doubles
+    private static final double[] LN_TABLE_HI = new double[92];
+    private static final double[] LN_TABLE_LO = new double[92];
+
+    private static final double LN2_HI = 0x1.62e42fee00000p-1;
+    private static final double LN2_LO = 0x1.a39ef35793c76p-33;
+    private static final double INV_LN10 = 1 / Math.log(10);
+    private static final long SQRT_HALF_BITS = Double.doubleToRawLongBits(Math.sqrt(0.5));
+    private static final long EXPONENT_FIELD = 0xFFF0_0000_0000_0000L;
+    private static final double TWO_54 = 0x1p54;
+
+    static {
+        for (int j = 0; j < EXP_TABLE_SIZE; j++) {
+            EXP_TABLE[j] = StrictMath.pow(2, (double) j / EXP_TABLE_SIZE);
+        }
+        BigDecimalCalculator precise = new BigDecimalCalculator(new MathContext(40));
+        for (int j = 0; j < LN_TABLE_POINTS.length; j++) {
+            double point = 1 + (double) (j - LN_TABLE_OFFSET) / (1 << LN_TABLE_BITS);
+            BigDecimal ln = precise.ln(new BigDecimal(point));
+            LN_TABLE_POINTS[j] = point;
+            LN_TABLE_HI[j] = ln.doubleValue();
+            LN_TABLE_LO[j] = ln.subtract(new BigDecimal(LN_TABLE_HI[j])).doubleValue();
+        }
+    }
+
+    private ApproximateMath() {
+    }
+
+    static double exp(double x) {
+        // beyond this range the result's exponent does not fit the table entry's bits
+        if (!(x > EXP_MIN && x < EXP_MAX)) {
+            return Math.exp(x);
+        }
+        // adding 1.5 * 2^52 rounds to an integer k held in the low bits, without Math.round
+        double shifted = x * INV_LN2_SCALED + ROUNDING_SHIFT;
+        long k = Double.doubleToRawLongBits(shifted) - ROUNDING_SHIFT_BITS;
+        double kd = shifted - ROUNDING_SHIFT;
+        double r = (x - kd * LN2_SCALED_HI) - kd * LN2_SCALED_LO;
+        double polynomial = r * (1 + r * (1.0 / 2 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120)))));
+        // 2^(k/64) = 2^(k>>6) * table[k & 63]; the power of two goes straight into the exponent bits
+        long scaleBits = Double.doubleToRawLongBits(EXP_TABLE[(int) (k & (EXP_TABLE_SIZE - 1))])
+                + ((k >> EXP_TABLE_BITS) << 52);
+        double scale = Double.longBitsToDouble(scaleBits);
+        return scale + scale * polynomial;
+    }
+
+    static double ln(double x) {
+        if (!(x > 0 && x <= Double.MAX_VALUE)) {
+            return Math.log(x);
+        }
+        int exponent = 0;
+        if (x < Double.MIN_NORMAL) {
+            x *= TWO_54;
+            exponent = -54;
+        }
+        // split x = 2^exponent * mantissa with the mantissa in [sqrt(1/2), sqrt(2)), without
+        // a branch: offsetting the bits by those of sqrt(1/2) carries into the exponent field
+        long bits = Double.doubleToRawLongBits(x);
+        long offset = bits - SQRT_HALF_BITS;
+        exponent += (int) (offset >> 52);
+        double mantissa = Double.longBitsToDouble(bits - (offset & EXPONENT_FIELD));
+        // the table point is near enough to the mantissa that their difference is exact
+        int index = (int) ((mantissa - 1) * (1 << LN_TABLE_BITS) + (LN_TABLE_OFFSET + 0.5));
+        double point = LN_TABLE_POINTS[index];
+        double f = mantissa - point;
+        double s = f / (mantissa + point);
+        double s2 = s * s;
+        double r = s2 * (2.0 / 3 + s2 * (2.0 / 5 + s2 * (2.0 / 7)));
+        if (index == LN_TABLE_OFFSET) {
+            // point == 1: keep the exact f as the leading term, as fdlibm's log1p does,
+            // so results near ln(1) = 0 stay within an ulp
+            double halfSquare = 0.5 * f * f;
+            return exponent * LN2_HI + (exponent * LN2_LO + (f - (halfSquare - s * (halfSquare + r))));
+        }
+        return (exponent * LN2_HI + LN_TABLE_HI[index]) + ((exponent * LN2_LO + LN_TABLE_LO[index]) + (2 * s + s * r));
+    }
+
+    static double log10(double x) {
+        return ln(x) * INV_LN10;
+    }
+
+    /**
+     * {@code exp(y * ln x)} for finite positive bases and finite exponents; other cases are
+     * delegated to {@link Math#pow}. The error grows with {@code |y * ln x|}, see
+     * {@link FunctionKernel#FAST}.
+     */
+    static double pow(double x, double y) {
+        if (!(x > 0 && x <= Double.MAX_VALUE) || !(Math.abs(y) <= Double.MAX_VALUE) || y == 0 || x == 1) {
+            return Math.pow(x, y);
+        }
+        return exp(y * ln(x));
+    }
+}
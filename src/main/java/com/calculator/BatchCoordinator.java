@@ -0,0 +1,436 @@
+package com.calculator;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Spreads a batch over {@link BatchWorker}s, which may run on other machines. The batch is
+ * cut into partitions of consecutive rows that are shipped over TCP (see the framing in
+ * {@link BatchProtocol}); each result is copied into the partition's own range of the
+ * output arrays, so output order matches input order however the partitions are scattered.
+ * Results and errors are those {@link ParallelBatchExecutor} or a compiled expression would
+ * give locally.
+ *
+ * Every worker keeps two partitions in flight so it never waits for the network. Once no
+ * partitions are left to hand out, a worker that runs idle takes a copy of the oldest
+ * partition still out on a slower worker, and whichever copy answers first wins. A worker
+ * that disconnects, fails to connect or holds a partition longer than the timeout is
+ * dropped and its unfinished partitions go back in the queue; a call only fails once every
+ * worker is gone.
+ *
+ * A call runs entirely on the calling thread with one selector, opening its own
+ * connections, so a coordinator can be shared.
+ */
+public class BatchCoordinator {
+
+    public static final int DEFAULT_PARTITION_SIZE = 8192;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 60_000;
+
+    private static final int IN_FLIGHT_PER_WORKER = 2;
+    private static final int MAX_COPIES = 2;
+
+    private final List<InetSocketAddress> workers;
+    private final int partitionSize;
+    private final long timeoutMillis;
+
+    public BatchCoordinator(List<InetSocketAddress> workers) {
+        this(workers, DEFAULT_PARTITION_SIZE, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param partitionSize rows per request, at most about 4.7 million so that a worker's
+     *                      response fits in one frame even if every row fails
+     * @param timeoutMillis how long a worker may go without answering while it holds
+     *                      partitions before it is considered dead
+     */
+    public BatchCoordinator(List<InetSocketAddress> workers, int partitionSize, long timeoutMillis) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        if (partitionSize < 1 || partitionSize > BatchProtocol.MAX_ROWS) {
+            throw new IllegalArgumentException("Partition size must be between 1 and " + BatchProtocol.MAX_ROWS);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.workers = List.copyOf(workers);
+        this.partitionSize = partitionSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    /**
+     * Applies one operation to every element, as {@link ParallelBatchExecutor#execute(Operation,
+     * double[], double[], double[], String[])} does.
+     *
+     * @throws IOException if every worker failed before the batch was complete
+     */
+    public int execute(Operation operation, double[] a, double[] b, double[] results, String[] errors)
+            throws IOException {
+        Objects.requireNonNull(operation, "operation");
+        checkLengths(a.length, null, b, results, errors);
+        return run(a.length, (partition, from, to) ->
+                BatchProtocol.operationsRequest(partition, null, operation, a, b, from, to), results, errors);
+    }
+
+    /**
+     * Applies {@code operations[i]} to {@code a[i]} and {@code b[i]} for every element, as
+     * {@link ParallelBatchExecutor#execute(Operation[], double[], double[], double[], String[])} does.
+     *
+     * @throws IOException if every worker failed before the batch was complete
+     */
+    public int execute(Operation[] operations, double[] a, double[] b, double[] results, String[] errors)
+            throws IOException {
+        Objects.requireNonNull(operations, "operations");
+        checkLengths(a.length, operations, b, results, errors);
+        return run(a.length, (partition, from, to) ->
+                BatchProtocol.operationsRequest(partition, operations, null, a, b, from, to), results, errors);
+    }
+
+    /**
+     * Evaluates an expression once per row, binding {@code variables[v]} to
+     * {@code columns[v][row]}. A row that fails, or every row if the expression does not
+     * parse, gets a NaN result and the error message.
+     *
+     * @return the number of failed rows
+     * @throws IOException if every worker failed before the batch was complete
+     */
+    public int evaluate(String expression, String[] variables, double[][] columns, double[] results,
+                        String[] errors) throws IOException {
+        if (variables.length != columns.length) {
+            throw new IllegalArgumentException("Expected one column per variable");
+        }
+        for (double[] column : columns) {
+            if (column.length != results.length) {
+                throw new IllegalArgumentException("Batch arrays must all have the same length");
+            }
+        }
+        checkLengths(results.length, null, null, results, errors);
+        byte[] text = BatchProtocol.utf8(expression);
+        byte[][] names = new byte[variables.length][];
+        for (int v = 0; v < variables.length; v++) {
+            names[v] = variables[v].getBytes(StandardCharsets.UTF_8);
+        }
+        return run(results.length, (partition, from, to) ->
+                BatchProtocol.expressionRequest(partition, text, names, columns, from, to), results, errors);
+    }
+
+    private static void checkLengths(int length, Operation[] operations, double[] b, double[] results,
+                                     String[] errors) {
+        if ((operations != null && operations.length != length) || (b != null && b.length != length)
+                || results.length != length || (errors != null && errors.length != length)) {
+            throw new IllegalArgumentException("Batch arrays must all have the same length");
+        }
+    }
+
+    /**
+     * Encodes rows {@code from} (inclusive) to {@code to} (exclusive) as one request frame.
+     */
+    private interface PartitionEncoder {
+        ByteBuffer encode(long partition, int from, int to);
+    }
+
+    private int run(int length, PartitionEncoder encoder, double[] results, String[] errors) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        try (Selector selector = Selector.open()) {
+            return new Run(selector, length, encoder, results, errors).await();
+        }
+    }
+
+    /**
+     * The state of one call: which partitions are queued, out and finished, and one link
+     * per worker.
+     */
+    private final class Run {
+        private final Selector selector;
+        private final int length;
+        private final PartitionEncoder encoder;
+        private final double[] results;
+        private final String[] errors;
+        private final boolean[] done;
+        private final int[] copies;
+        private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        private final List<Link> links = new ArrayList<>();
+        private int remaining;
+        private int oldestUnfinished;
+        private int failures;
+        private IOException lastFailure;
+
+        Run(Selector selector, int length, PartitionEncoder encoder, double[] results, String[] errors) {
+            this.selector = selector;
+            this.length = length;
+            this.encoder = encoder;
+            this.results = results;
+            this.errors = errors;
+            this.remaining = (length + partitionSize - 1) / partitionSize;
+            this.done = new boolean[remaining];
+            this.copies = new int[remaining];
+            for (int p = 0; p < remaining; p++) {
+                queue.add(p);
+            }
+        }
+
+        int await() throws IOException {
+            try {
+                for (InetSocketAddress address : workers) {
+                    connect(address);
+                }
+                while (remaining > 0) {
+                    if (links.isEmpty()) {
+                        throw new IOException("All workers failed", lastFailure);
+                    }
+                    dispatch();
+                    selector.select(timeoutMillis);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        service(key);
+                    }
+                    expire();
+                }
+                return failures;
+            } finally {
+                for (Link link : links) {
+                    close(link);
+                }
+            }
+        }
+
+        private void connect(InetSocketAddress address) {
+            Link link = new Link(address);
+            link.lastProgress = System.nanoTime();
+            try {
+                link.channel = SocketChannel.open();
+                link.channel.configureBlocking(false);
+                link.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                link.key = link.channel.register(selector, SelectionKey.OP_CONNECT, link);
+                links.add(link);
+                if (link.channel.connect(address)) {
+                    connected(link);
+                }
+            } catch (IOException e) {
+                fail(link, e);
+            }
+        }
+
+        private void connected(Link link) {
+            link.connected = true;
+            link.key.interestOps(SelectionKey.OP_READ);
+        }
+
+        /**
+         * Tops every connected worker up to its in-flight limit from the queue, then hands
+         * idle workers copies of the oldest partitions still out.
+         */
+        private void dispatch() {
+            // a failed send drops its link, so walk a copy
+            Link[] snapshot = links.toArray(new Link[0]);
+            for (Link link : snapshot) {
+                while (!link.dead && link.connected && link.inFlight.size() < IN_FLIGHT_PER_WORKER
+                        && !queue.isEmpty()) {
+                    int partition = queue.poll();
+                    if (!done[partition]) {
+                        send(link, partition);
+                    }
+                }
+            }
+            if (!queue.isEmpty()) {
+                return;
+            }
+            for (Link link : snapshot) {
+                if (!link.dead && link.connected && link.inFlight.isEmpty()) {
+                    int partition = straggler();
+                    if (partition < 0) {
+                        return;
+                    }
+                    send(link, partition);
+                }
+            }
+        }
+
+        /**
+         * @return the oldest unfinished partition that may still be copied, or -1
+         */
+        private int straggler() {
+            while (oldestUnfinished < done.length && done[oldestUnfinished]) {
+                oldestUnfinished++;
+            }
+            for (int p = oldestUnfinished; p < done.length; p++) {
+                if (!done[p] && copies[p] < MAX_COPIES) {
+                    return p;
+                }
+            }
+            return -1;
+        }
+
+        private void send(Link link, int partition) {
+            int from = partition * partitionSize;
+            int to = Math.min(from + partitionSize, length);
+            if (link.inFlight.isEmpty()) {
+                link.lastProgress = System.nanoTime();
+            }
+            link.inFlight.add(partition);
+            ByteBuffer frame = encoder.encode(partition, from, to);
+            if (frame.remaining() - 4 > BatchProtocol.MAX_FRAME_SIZE) {
+                throw new IllegalArgumentException("Partition too large for one frame, use a smaller partition size");
+            }
+            copies[partition]++;
+            link.out.add(frame);
+            try {
+                flush(link);
+            } catch (IOException e) {
+                fail(link, e);
+            }
+        }
+
+        private void flush(Link link) throws IOException {
+            while (!link.out.isEmpty()) {
+                ByteBuffer next = link.out.peek();
+                link.channel.write(next);
+                if (next.hasRemaining()) {
+                    link.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                link.out.poll();
+            }
+            link.key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void service(SelectionKey key) {
+            Link link = (Link) key.attachment();
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                if (key.isConnectable()) {
+                    link.channel.finishConnect();
+                    connected(link);
+                    return;
+                }
+                if (key.isWritable()) {
+                    flush(link);
+                }
+                if (key.isReadable()) {
+                    link.in = BatchProtocol.read(link.channel, link.in, frame -> receive(link, frame));
+                }
+            } catch (IOException e) {
+                fail(link, e);
+            }
+        }
+
+        private void receive(Link link, ByteBuffer frame) throws IOException {
+            long id = frame.getLong();
+            int rows = frame.getInt();
+            if (id < 0 || id >= done.length || !link.inFlight.contains((int) id)) {
+                throw new IOException("Unexpected partition " + id + " from " + link.address);
+            }
+            int partition = (int) id;
+            int from = partition * partitionSize;
+            if (rows != Math.min(partitionSize, length - from)) {
+                throw new IOException("Partition " + partition + " came back with " + rows + " rows");
+            }
+            link.inFlight.remove(partition);
+            link.lastProgress = System.nanoTime();
+            copies[partition]--;
+            if (done[partition]) {
+                // a slower copy of a partition another worker already answered
+                return;
+            }
+            done[partition] = true;
+            remaining--;
+            frame.asDoubleBuffer().get(results, from, rows);
+            frame.position(frame.position() + rows * Double.BYTES);
+            int failed = frame.getInt();
+            for (int f = 0; f < failed; f++) {
+                int row = frame.getInt();
+                String message = BatchProtocol.getString(frame);
+                if (errors != null) {
+                    errors[from + row] = message;
+                }
+            }
+            failures += failed;
+        }
+
+        /**
+         * Drops workers that have held partitions, or kept us waiting for a connection,
+         * for longer than the timeout.
+         */
+        private void expire() {
+            long now = System.nanoTime();
+            for (int i = links.size() - 1; i >= 0; i--) {
+                Link link = links.get(i);
+                boolean waiting = !link.connected || !link.inFlight.isEmpty();
+                if (waiting && now - link.lastProgress > timeoutMillis * 1_000_000) {
+                    fail(link, new IOException("Worker " + link.address + " timed out"));
+                }
+            }
+        }
+
+        /**
+         * Drops a worker and requeues, in order and ahead of untouched partitions, whatever
+         * it held that no other worker is computing.
+         */
+        private void fail(Link link, IOException cause) {
+            lastFailure = cause;
+            link.dead = true;
+            links.remove(link);
+            close(link);
+            Integer[] held = link.inFlight.toArray(new Integer[0]);
+            for (int i = held.length - 1; i >= 0; i--) {
+                int partition = held[i];
+                if (--copies[partition] == 0 && !done[partition]) {
+                    queue.addFirst(partition);
+                }
+            }
+            link.inFlight.clear();
+        }
+
+        private void close(Link link) {
+            if (link.channel == null) {
+                return;
+            }
+            try {
+                link.channel.close();
+            } catch (IOException e) {
+                // the worker is being dropped either way
+            }
+        }
+    }
+
+    /**
+     * One worker's connection for the duration of a call.
+     */
+    private static final class Link {
+        private final InetSocketAddress address;
+        private final LinkedHashSet<Integer> inFlight = new LinkedHashSet<>();
+        private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        private ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        private SocketChannel channel;
+        private SelectionKey key;
+        private boolean connected;
+        private boolean dead;
+        private long lastProgress;
+
+        Link(InetSocketAddress address) {
+            this.address = address;
+        }
+    }
+}
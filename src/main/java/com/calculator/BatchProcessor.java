@@ -0,0 +1,223 @@
+package com.calculator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Evaluates a stream of operations, one per line, such as {@code sqrt,16} or
+ * {@code power,2,10} (fields may be separated by commas or whitespace). Each non-blank
+ * input line produces exactly one output line: the result or {@code Error: <message>}.
+ * Lines starting with {@code #} are comments.
+ *
+ * Input is consumed in fixed-size blocks, so memory use does not depend on the size of
+ * the input.
+ */
+public class BatchProcessor {
+
+    static final int BLOCK_SIZE = 1024;
+    private static final int QUEUED_BLOCKS = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final List<String> END_OF_INPUT = new ArrayList<>();
+
+    private final Calculator calculator;
+
+    public BatchProcessor() {
+        this(new Calculator());
+    }
+
+    public BatchProcessor(Calculator calculator) {
+        this.calculator = calculator;
+    }
+
+    /**
+     * Processes the input on the calling thread.
+     *
+     * @return the number of operations evaluated
+     */
+    public long process(Reader input, Writer output) throws IOException {
+        BufferedReader reader = buffered(input);
+        StringBuilder line = new StringBuilder();
+        CalculationResult value = new CalculationResult();
+        long count = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            if (evaluateLine(text, line, value)) {
+                output.append(line).append('\n');
+                count++;
+            }
+        }
+        output.flush();
+        return count;
+    }
+
+    /**
+     * Processes the input with reading and evaluation overlapped: a reader thread hands
+     * blocks of lines to the calling thread through a small bounded queue, so I/O waits
+     * on a slow source do not stall evaluation and memory stays bounded.
+     *
+     * @return the number of operations evaluated
+     */
+    public long processPipelined(Reader input, Writer output) throws IOException {
+        BufferedReader reader = buffered(input);
+        BlockingQueue<List<String>> blocks = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+        Throwable[] readFailure = new Throwable[1];
+        Thread readerThread = new Thread(() -> {
+            boolean interrupted = false;
+            try {
+                List<String> block = new ArrayList<>(BLOCK_SIZE);
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    block.add(text);
+                    if (block.size() == BLOCK_SIZE) {
+                        blocks.put(block);
+                        block = new ArrayList<>(BLOCK_SIZE);
+                    }
+                }
+                if (!block.isEmpty()) {
+                    blocks.put(block);
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (Throwable e) {
+                // anything, even an OutOfMemoryError on a huge line, must still end the input
+                readFailure[0] = e;
+            } finally {
+                if (!interrupted) {
+                    try {
+                        blocks.put(END_OF_INPUT);
+                    } catch (InterruptedException e) {
+                        // consumer has gone away
+                    }
+                }
+            }
+        }, "batch-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        StringBuilder line = new StringBuilder();
+        CalculationResult value = new CalculationResult();
+        long count = 0;
+        try {
+            List<String> block;
+            while ((block = blocks.take()) != END_OF_INPUT) {
+                for (String text : block) {
+                    if (evaluateLine(text, line, value)) {
+                        output.append(line).append('\n');
+                        count++;
+                    }
+                }
+            }
+            readerThread.join();
+        } catch (InterruptedException e) {
+            readerThread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch processing interrupted");
+        } catch (IOException | RuntimeException e) {
+            readerThread.interrupt();
+            throw e;
+        }
+        Throwable failure = readFailure[0];
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        output.flush();
+        return count;
+    }
+
+    /**
+     * Evaluates a single line into {@code result}, replacing its contents. Domain errors
+     * are reported through {@code value} rather than thrown, so error-heavy input stays cheap.
+     *
+     * @return false if the line is blank or a comment and produces no output
+     */
+    boolean evaluateLine(String text, StringBuilder result, CalculationResult value) {
+        result.setLength(0);
+        int length = text.length();
+        int start = skipSeparators(text, 0);
+        if (start == length || text.charAt(start) == '#') {
+            return false;
+        }
+        try {
+            int end = fieldEnd(text, start);
+            Operation operation = Operation.fromToken(text.substring(start, end));
+            double a = 0;
+            double b = 0;
+            int count = 0;
+            int position = skipSeparators(text, end);
+            while (position < length) {
+                end = fieldEnd(text, position);
+                if (count == operation.arity()) {
+                    throw arityError(operation);
+                }
+                if (count++ == 0) {
+                    a = parseNumber(text, position, end);
+                } else {
+                    b = parseNumber(text, position, end);
+                }
+                position = skipSeparators(text, end);
+            }
+            if (count != operation.arity()) {
+                throw arityError(operation);
+            }
+            CalculationStatus status = operation.tryApply(calculator, a, b, value);
+            if (status != CalculationStatus.OK) {
+                result.append("Error: ").append(status.message());
+            } else if (operation == Operation.FACTORIAL) {
+                result.append((long) value.value());
+            } else {
+                NumberFormatter.formatDouble(value.value(), result);
+            }
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            result.setLength(0);
+            result.append("Error: ").append(e.getMessage());
+        }
+        return true;
+    }
+
+    private static double parseNumber(String text, int start, int end) {
+        try {
+            return NumberParser.parseDouble(text, start, end);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number format: " + text.substring(start, end));
+        }
+    }
+
+    private static IllegalArgumentException arityError(Operation operation) {
+        return new IllegalArgumentException(operation.token() + " expects " + operation.arity() + " argument(s)");
+    }
+
+    private static int skipSeparators(String text, int position) {
+        while (position < text.length() && isSeparator(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int fieldEnd(String text, int position) {
+        while (position < text.length() && !isSeparator(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ' ' || c == '\t' || c == ';';
+    }
+
+    private static BufferedReader buffered(Reader input) {
+        return input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input, BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,203 @@
+package com.calculator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary framing between {@link BatchCoordinator} and {@link BatchWorker}. Every frame is an
+ * int length followed by that many bytes; all values are big-endian.
+ *
+ * <pre>
+ * operations request = byte 1, long partition, int rows, byte has second operands,
+ *                      rows * byte operation ordinal, rows * double a, [rows * double b]
+ * expression request = byte 2, long partition, int rows, string expression,
+ *                      short variable count, variable count * string name,
+ *                      variable count * rows * double value (one column per variable)
+ * response           = long partition, int rows, rows * double result,
+ *                      int failures, failures * (int row, string message)
+ * string             = short byte length, UTF-8 bytes
+ * </pre>
+ *
+ * Operations travel as ordinals, so coordinator and workers must run the same build.
+ */
+final class BatchProtocol {
+
+    static final byte OPERATIONS = 1;
+    static final byte EXPRESSION = 2;
+    static final int MAX_FRAME_SIZE = 64 << 20;
+    /**
+     * Rows per request such that the response fits in a frame even if every row fails: each
+     * row takes a result, and each failure at least its row index and an empty message.
+     */
+    static final int MAX_ROWS = (MAX_FRAME_SIZE - 8 - 4 - 4) / (8 + 4 + 2);
+
+    private static final Operation[] OPERATIONS_BY_ORDINAL = Operation.values();
+
+    private BatchProtocol() {
+    }
+
+    /**
+     * Receives each complete frame read from a channel.
+     */
+    interface FrameHandler {
+        void frame(ByteBuffer frame) throws IOException;
+    }
+
+    static ByteBuffer operationsRequest(long partition, Operation[] operations, Operation operation,
+                                        double[] a, double[] b, int from, int to) {
+        int rows = to - from;
+        int size = 1 + 8 + 4 + 1 + rows * (1 + 8 + (b == null ? 0 : 8));
+        ByteBuffer frame = ByteBuffer.allocate(4 + size);
+        frame.putInt(size).put(OPERATIONS).putLong(partition).putInt(rows).put((byte) (b == null ? 0 : 1));
+        for (int i = from; i < to; i++) {
+            frame.put((byte) (operations == null ? operation : operations[i]).ordinal());
+        }
+        for (int i = from; i < to; i++) {
+            frame.putDouble(a[i]);
+        }
+        if (b != null) {
+            for (int i = from; i < to; i++) {
+                frame.putDouble(b[i]);
+            }
+        }
+        return frame.flip();
+    }
+
+    static ByteBuffer expressionRequest(long partition, byte[] expression, byte[][] variables, double[][] columns,
+                                        int from, int to) {
+        int rows = to - from;
+        int size = 1 + 8 + 4 + 2 + expression.length + 2 + columns.length * rows * 8;
+        for (byte[] name : variables) {
+            size += 2 + name.length;
+        }
+        ByteBuffer frame = ByteBuffer.allocate(4 + size);
+        frame.putInt(size).put(EXPRESSION).putLong(partition).putInt(rows);
+        putString(frame, expression);
+        frame.putShort((short) variables.length);
+        for (byte[] name : variables) {
+            putString(frame, name);
+        }
+        for (double[] column : columns) {
+            for (int i = from; i < to; i++) {
+                frame.putDouble(column[i]);
+            }
+        }
+        return frame.flip();
+    }
+
+    /**
+     * Error messages share what is left of the frame after the results, so each is cut to
+     * at most an equal share of it; messages are short, so this only bites for huge partitions.
+     */
+    static ByteBuffer response(long partition, double[] results, String[] errors) {
+        int failures = 0;
+        for (String error : errors) {
+            if (error != null) {
+                failures++;
+            }
+        }
+        int size = 8 + 4 + results.length * 8 + 4;
+        int share = failures == 0 ? 0 : (MAX_FRAME_SIZE - size) / failures - 4 - 2;
+        byte[][] messages = new byte[results.length][];
+        for (int i = 0; i < results.length; i++) {
+            if (errors[i] != null) {
+                messages[i] = utf8(errors[i], share);
+                size += 4 + 2 + messages[i].length;
+            }
+        }
+        ByteBuffer frame = ByteBuffer.allocate(4 + size);
+        frame.putInt(size).putLong(partition).putInt(results.length);
+        for (double result : results) {
+            frame.putDouble(result);
+        }
+        frame.putInt(failures);
+        for (int i = 0; i < results.length; i++) {
+            if (messages[i] != null) {
+                frame.putInt(i);
+                putString(frame, messages[i]);
+            }
+        }
+        return frame.flip();
+    }
+
+    static Operation operation(byte ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= OPERATIONS_BY_ORDINAL.length) {
+            throw new IOException("Unknown operation " + ordinal);
+        }
+        return OPERATIONS_BY_ORDINAL[ordinal];
+    }
+
+    static byte[] utf8(String text) {
+        return utf8(text, Short.MAX_VALUE);
+    }
+
+    /**
+     * Truncates to a whole number of characters within {@code limit} bytes, and never beyond
+     * the string length limit.
+     */
+    static byte[] utf8(String text, int limit) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(limit, Short.MAX_VALUE);
+        if (bytes.length <= length) {
+            return bytes;
+        }
+        // back off to the start of a character, past UTF-8 continuation bytes
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    static void putString(ByteBuffer frame, byte[] bytes) {
+        frame.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.getShort()];
+        frame.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads what the channel has, hands every complete frame to {@code handler}, and keeps
+     * any partial frame for the next call.
+     *
+     * @param in the connection's read buffer, in write mode
+     * @return the read buffer to use next time, grown if a frame needs more room
+     * @throws EOFException if the peer has closed the connection
+     */
+    static ByteBuffer read(SocketChannel channel, ByteBuffer in, FrameHandler handler) throws IOException {
+        if (channel.read(in) < 0) {
+            throw new EOFException("Connection closed by peer");
+        }
+        in.flip();
+        while (in.remaining() >= 4) {
+            int size = in.getInt(in.position());
+            if (size < 0 || size > MAX_FRAME_SIZE) {
+                throw new IOException("Invalid frame length " + size);
+            }
+            if (in.remaining() < 4 + size) {
+                break;
+            }
+            ByteBuffer frame = in.slice();
+            frame.position(4).limit(4 + size);
+            in.position(in.position() + 4 + size);
+            handler.frame(frame.slice());
+        }
+        in.compact();
+        if (in.position() >= 4) {
+            int needed = 4 + in.getInt(0);
+            if (needed > in.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(needed);
+                in.flip();
+                larger.put(in);
+                return larger;
+            }
+        }
+        return in;
+    }
+}
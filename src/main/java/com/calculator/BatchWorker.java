@@ -0,0 +1,350 @@
+package com.calculator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Evaluates batch partitions sent by a {@link BatchCoordinator}. One selector thread accepts
+ * connections and reads requests with non-blocking NIO; each partition is computed as soon
+ * as its frame is complete (operations through {@link ParallelBatchExecutor}, so large
+ * partitions still use every core) and the response is queued on the same connection.
+ * Requests pipelined on a connection are answered in order. A malformed frame closes its
+ * connection only.
+ *
+ * Run a worker with {@code java -jar scientific-calculator.jar worker [port]}, or start
+ * several on this machine with {@link #launchLocal(int)}.
+ */
+public class BatchWorker implements Closeable {
+
+    public static final int DEFAULT_PORT = 7070;
+
+    private static final String LISTENING = "Batch worker listening on port ";
+
+    private final Calculator calculator;
+    private final ParallelBatchExecutor executor;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean running;
+
+    public BatchWorker(int port) throws IOException {
+        this(port, new Calculator());
+    }
+
+    public BatchWorker(int port, Calculator calculator) throws IOException {
+        this.calculator = calculator;
+        this.executor = new ParallelBatchExecutor(calculator, ForkJoinPool.commonPool(),
+                ParallelBatchExecutor.DEFAULT_GRAIN_SIZE);
+        this.server = ServerSocketChannel.open();
+        this.selector = Selector.open();
+        try {
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            close(server);
+            close(selector);
+            throw e;
+        }
+        this.thread = new Thread(this::run, "batch-worker-" + getPort());
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting and closes every connection; partitions in progress are abandoned,
+     * which coordinators treat like a worker death.
+     */
+    @Override
+    public void close() {
+        if (running) {
+            running = false;
+            selector.wakeup();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (selector.isOpen()) {
+            closeAll();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        serve(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Batch worker stopped: " + e.getMessage());
+        } finally {
+            running = false;
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    private void serve(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.in = BatchProtocol.read(connection.channel, connection.in,
+                        frame -> connection.out.add(handle(connection, frame)));
+            }
+            if (key.isValid() && !connection.flush()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else if (key.isValid()) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException | RuntimeException e) {
+            // a closed or misbehaving peer only loses its own connection
+            key.cancel();
+            close(connection.channel);
+        }
+    }
+
+    private ByteBuffer handle(Connection connection, ByteBuffer frame) throws IOException {
+        byte type = frame.get();
+        long partition = frame.getLong();
+        int rows = frame.getInt();
+        if (rows < 0 || rows > BatchProtocol.MAX_ROWS) {
+            throw new IOException("Invalid row count " + rows);
+        }
+        double[] results = new double[rows];
+        String[] errors = new String[rows];
+        if (type == BatchProtocol.OPERATIONS) {
+            boolean second = frame.get() != 0;
+            Operation[] operations = new Operation[rows];
+            for (int i = 0; i < rows; i++) {
+                operations[i] = BatchProtocol.operation(frame.get());
+            }
+            double[] a = getDoubles(frame, rows);
+            double[] b = second ? getDoubles(frame, rows) : null;
+            executor.execute(operations, a, b, results, errors);
+        } else if (type == BatchProtocol.EXPRESSION) {
+            String expression = BatchProtocol.getString(frame);
+            String[] variables = new String[frame.getShort()];
+            for (int v = 0; v < variables.length; v++) {
+                variables[v] = BatchProtocol.getString(frame);
+            }
+            double[][] columns = new double[variables.length][];
+            for (int v = 0; v < variables.length; v++) {
+                columns[v] = getDoubles(frame, rows);
+            }
+            connection.evaluate(expression, variables, columns, results, errors);
+        } else {
+            throw new IOException("Unknown request type " + type);
+        }
+        return BatchProtocol.response(partition, results, errors);
+    }
+
+    private static double[] getDoubles(ByteBuffer frame, int count) {
+        double[] values = new double[count];
+        frame.asDoubleBuffer().get(values);
+        frame.position(frame.position() + count * Double.BYTES);
+        return values;
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            close(key.channel());
+        }
+        close(selector);
+        close(server);
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    private final class Connection {
+        private final SocketChannel channel;
+        private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        private ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        // coordinators send the same expression with every partition, so keep the last compile
+        private String expression;
+        private String[] variables;
+        private CompiledExpression compiled;
+        private String compileError;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return true once everything queued has been written
+         */
+        boolean flush() throws IOException {
+            while (!out.isEmpty()) {
+                ByteBuffer next = out.peek();
+                channel.write(next);
+                if (next.hasRemaining()) {
+                    return false;
+                }
+                out.poll();
+            }
+            return true;
+        }
+
+        void evaluate(String text, String[] names, double[][] columns, double[] results, String[] errors) {
+            if (!text.equals(expression) || !Arrays.equals(names, variables)) {
+                expression = text;
+                variables = names;
+                try {
+                    compiled = Expression.parse(text).compile(calculator, names);
+                    compileError = null;
+                } catch (IllegalArgumentException e) {
+                    compiled = null;
+                    compileError = e.getMessage();
+                }
+            }
+            if (compiled == null) {
+                Arrays.fill(results, Double.NaN);
+                Arrays.fill(errors, compileError);
+                return;
+            }
+            double[] bindings = new double[names.length];
+            for (int i = 0; i < results.length; i++) {
+                for (int v = 0; v < bindings.length; v++) {
+                    bindings[v] = columns[v][i];
+                }
+                try {
+                    results[i] = compiled.evaluate(bindings);
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    results[i] = Double.NaN;
+                    errors[i] = e.getMessage();
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts {@code count} workers as separate JVMs on this machine, each on a free port,
+     * using this JVM's class path. Meant for tests and for trying out a coordinator without
+     * a cluster.
+     */
+    public static LocalWorkers launchLocal(int count) throws IOException {
+        if (count < 1) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        LocalWorkers workers = new LocalWorkers();
+        try {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (int i = 0; i < count; i++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        CalculatorMain.class.getName(), "worker", "0")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                workers.processes.add(process);
+            }
+            // read the ports after starting everything, so the JVMs boot side by side
+            for (Process process : workers.processes) {
+                workers.addresses.add(new InetSocketAddress("localhost", awaitPort(process)));
+            }
+        } catch (IOException | RuntimeException e) {
+            workers.close();
+            throw e;
+        }
+        return workers;
+    }
+
+    private static int awaitPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(LISTENING)) {
+                return Integer.parseInt(line.substring(LISTENING.length()).trim());
+            }
+        }
+        throw new IOException("Worker process exited before listening");
+    }
+
+    static void announce(int port) {
+        System.out.println(LISTENING + port);
+    }
+
+    /**
+     * Worker JVMs started by {@link #launchLocal(int)}; closing destroys them.
+     */
+    public static final class LocalWorkers implements Closeable {
+        private final List<Process> processes = new ArrayList<>();
+        private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+        private LocalWorkers() {
+        }
+
+        public List<InetSocketAddress> getAddresses() {
+            return Collections.unmodifiableList(addresses);
+        }
+
+        /**
+         * Kills one worker without warning, as a crashed machine would.
+         */
+        public void kill(int index) {
+            processes.get(index).destroyForcibly();
+        }
+
+        @Override
+        public void close() {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+            for (Process process : processes) {
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
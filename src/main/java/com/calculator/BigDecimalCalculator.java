@@ -0,0 +1,348 @@
+package com.calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Arbitrary-precision counterpart of {@link Calculator}: every operation works on
+ * {@link BigDecimal} and rounds its result to the calculator's {@link MathContext}, so
+ * decimal amounts add and divide without binary rounding error and the scientific
+ * functions can be evaluated to hundreds of digits.
+ *
+ * <p>{@code sqrt} uses Newton's iteration from a {@code double} seed, doubling the working
+ * precision each step. {@code ln} reduces its argument to [0.7, 1.4] using cached ln(10)
+ * and ln(2) and sums the atanh series. {@code exp} reduces by multiples of ln(2) and a
+ * power-of-two halving, then sums the Taylor series and squares back up. The constants
+ * are computed once at the highest precision requested so far and rounded down for
+ * later calls. Instances are immutable and thread-safe.
+ */
+public class BigDecimalCalculator {
+
+    private static final int GUARD_DIGITS = 10;
+    private static final int EXACT_POWER_DIGITS = 4096;
+    private static final BigDecimal MAX_INT_EXPONENT = BigDecimal.valueOf(999_999_999);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private static final Constant LN2 = new Constant() {
+        @Override
+        BigDecimal compute(MathContext mc) {
+            // ln 2 = 2 atanh(1/3)
+            return atanh(BigDecimal.ONE.divide(BigDecimal.valueOf(3), mc), mc).multiply(TWO, mc);
+        }
+    };
+    private static final Constant LN10 = new Constant() {
+        @Override
+        BigDecimal compute(MathContext mc) {
+            // ln 10 = 3 ln 2 + ln 1.25 = 3 ln 2 + 2 atanh(1/9)
+            BigDecimal ln125 = atanh(BigDecimal.ONE.divide(BigDecimal.valueOf(9), mc), mc).multiply(TWO, mc);
+            return LN2.get(mc.getPrecision()).multiply(BigDecimal.valueOf(3), mc).add(ln125, mc);
+        }
+    };
+    private static final Constant E = new Constant() {
+        @Override
+        BigDecimal compute(MathContext mc) {
+            return expReduced(BigDecimal.ONE, mc);
+        }
+    };
+
+    private final MathContext mathContext;
+
+    public BigDecimalCalculator() {
+        this(MathContext.DECIMAL128);
+    }
+
+    /**
+     * @param mathContext precision and rounding of every result; the precision must be
+     *                    positive because most results are not finite decimals
+     */
+    public BigDecimalCalculator(MathContext mathContext) {
+        if (mathContext.getPrecision() <= 0) {
+            throw new IllegalArgumentException("Precision must be positive");
+        }
+        this.mathContext = mathContext;
+    }
+
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    public BigDecimal add(BigDecimal a, BigDecimal b) {
+        return a.add(b, mathContext);
+    }
+
+    public BigDecimal subtract(BigDecimal a, BigDecimal b) {
+        return a.subtract(b, mathContext);
+    }
+
+    public BigDecimal multiply(BigDecimal a, BigDecimal b) {
+        return a.multiply(b, mathContext);
+    }
+
+    public BigDecimal divide(BigDecimal a, BigDecimal b) {
+        if (b.signum() == 0) {
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        return a.divide(b, mathContext);
+    }
+
+    public BigDecimal sqrt(BigDecimal x) {
+        if (x.signum() < 0) {
+            throw new IllegalArgumentException("Cannot calculate square root of negative number");
+        }
+        if (x.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        // x = m * 10^(2k) with m in [1, 100), so the double seed cannot overflow
+        int k = Math.floorDiv(x.precision() - x.scale() - 1, 2);
+        BigDecimal m = x.movePointLeft(2 * k);
+        BigDecimal y = new BigDecimal(Math.sqrt(m.doubleValue()));
+        int target = mathContext.getPrecision() + GUARD_DIGITS;
+        int precision = 15;
+        do {
+            precision = Math.min(2 * precision, target);
+            MathContext working = new MathContext(precision, RoundingMode.HALF_EVEN);
+            y = y.add(m.divide(y, working), working).multiply(HALF, working);
+        } while (precision < target);
+        return y.movePointRight(k).round(mathContext);
+    }
+
+    /**
+     * Integral exponents use repeated squaring: exactly and rounded once while the exact
+     * power has at most a few thousand digits, otherwise with guard digits, which can leave
+     * the last digit one off in rare double-rounding cases. Other exponents are evaluated as
+     * {@code exp(exponent * ln(base))}, which needs a positive base.
+     */
+    public BigDecimal power(BigDecimal base, BigDecimal exponent) {
+        boolean integral = isIntegral(exponent);
+        if (integral && exponent.abs().compareTo(MAX_INT_EXPONENT) <= 0) {
+            return integerPower(base, exponent.intValueExact());
+        }
+        if (base.signum() < 0) {
+            if (integral) {
+                throw new ArithmeticException("Exponent out of range");
+            }
+            throw new IllegalArgumentException("Power of a negative number requires an integer exponent");
+        }
+        if (base.signum() == 0) {
+            if (exponent.signum() < 0) {
+                throw new ArithmeticException("Cannot divide by zero");
+            }
+            return BigDecimal.ZERO;
+        }
+        int precision = mathContext.getPrecision() + GUARD_DIGITS;
+        BigDecimal product = ln(base, precision).multiply(exponent, new MathContext(precision));
+        int integerDigits = product.precision() - product.scale();
+        if (integerDigits > 0) {
+            // the integer part of y ln x is spent on the result's exponent, not its digits
+            precision += integerDigits;
+            product = ln(base, precision).multiply(exponent, new MathContext(precision));
+        }
+        return exp(product, precision).round(mathContext);
+    }
+
+    private BigDecimal integerPower(BigDecimal base, int n) {
+        if (base.signum() == 0 && n < 0) {
+            throw new ArithmeticException("Cannot divide by zero");
+        }
+        int magnitude = Math.abs(n);
+        if ((long) base.precision() * magnitude <= EXACT_POWER_DIGITS) {
+            BigDecimal exact = base.pow(magnitude);
+            return n < 0 ? BigDecimal.ONE.divide(exact, mathContext) : exact.round(mathContext);
+        }
+        // pow(n, mc) may be off by two units in the last of its digits, which the guard digits absorb
+        MathContext working = new MathContext(mathContext.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        return base.pow(n, working).round(mathContext);
+    }
+
+    /**
+     * @return n! rounded to the calculator's precision
+     */
+    public BigDecimal factorial(int n) {
+        return new BigDecimal(Factorials.big(n), mathContext);
+    }
+
+    public BigDecimal ln(BigDecimal x) {
+        if (x.signum() <= 0) {
+            throw new IllegalArgumentException("Logarithm undefined for non-positive numbers");
+        }
+        return ln(x, mathContext.getPrecision() + GUARD_DIGITS).round(mathContext);
+    }
+
+    public BigDecimal log(BigDecimal x) {
+        if (x.signum() <= 0) {
+            throw new IllegalArgumentException("Logarithm undefined for non-positive numbers");
+        }
+        BigDecimal stripped = x.stripTrailingZeros();
+        if (stripped.unscaledValue().equals(BigInteger.ONE)) {
+            return BigDecimal.valueOf(-stripped.scale()).round(mathContext);
+        }
+        int precision = mathContext.getPrecision() + GUARD_DIGITS;
+        return ln(x, precision).divide(LN10.get(precision), mathContext);
+    }
+
+    public BigDecimal exp(BigDecimal x) {
+        return exp(x, mathContext.getPrecision() + GUARD_DIGITS).round(mathContext);
+    }
+
+    /**
+     * Euler's number to the calculator's precision.
+     */
+    public BigDecimal e() {
+        return E.get(mathContext.getPrecision());
+    }
+
+    /**
+     * Applies an operation by name; unary operations ignore {@code b}.
+     */
+    public BigDecimal apply(Operation operation, BigDecimal a, BigDecimal b) {
+        switch (operation) {
+            case ADD:
+                return add(a, b);
+            case SUBTRACT:
+                return subtract(a, b);
+            case MULTIPLY:
+                return multiply(a, b);
+            case DIVIDE:
+                return divide(a, b);
+            case SQRT:
+                return sqrt(a);
+            case POWER:
+                return power(a, b);
+            case FACTORIAL:
+                if (!isIntegral(a) || a.signum() < 0 || a.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+                    throw new IllegalArgumentException("Factorial only defined for non-negative integers");
+                }
+                return factorial(a.intValueExact());
+            case LN:
+                return ln(a);
+            case LOG:
+                return log(a);
+            case EXP:
+                return exp(a);
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * ln(x) for positive x, to roughly {@code precision} significant digits.
+     */
+    private static BigDecimal ln(BigDecimal x, int precision) {
+        MathContext mc = new MathContext(precision, RoundingMode.HALF_EVEN);
+        if (x.subtract(BigDecimal.ONE).abs().compareTo(HALF) < 0) {
+            // near 1 the reduction below would cancel; the series converges well here
+            return lnNearOne(x, mc);
+        }
+        // x = m * 10^e with m in [1, 10), then m = y * 2^k with y in [0.7, 1.42]
+        long e = (long) x.precision() - x.scale() - 1;
+        BigDecimal m = x.movePointLeft((int) e);
+        int k = (int) Math.round(Math.log(m.doubleValue()) / Math.log(2));
+        BigDecimal y = m.divide(TWO.pow(k), mc);
+        int extra = Long.toString(Math.abs(e) + k).length();
+        MathContext wide = new MathContext(precision + extra, RoundingMode.HALF_EVEN);
+        BigDecimal result = lnNearOne(y, wide)
+                .add(LN2.get(wide.getPrecision()).multiply(BigDecimal.valueOf(k), wide), wide);
+        if (e != 0) {
+            result = result.add(LN10.get(wide.getPrecision()).multiply(BigDecimal.valueOf(e), wide), wide);
+        }
+        return result.round(mc);
+    }
+
+    private static BigDecimal lnNearOne(BigDecimal y, MathContext mc) {
+        // ln y = 2 atanh((y - 1) / (y + 1))
+        BigDecimal z = y.subtract(BigDecimal.ONE).divide(y.add(BigDecimal.ONE), mc);
+        return atanh(z, mc).multiply(TWO, mc);
+    }
+
+    private static BigDecimal atanh(BigDecimal z, MathContext mc) {
+        BigDecimal zSquared = z.multiply(z, mc);
+        BigDecimal power = z;
+        BigDecimal sum = z;
+        for (long k = 3; ; k += 2) {
+            power = power.multiply(zSquared, mc);
+            BigDecimal next = sum.add(power.divide(BigDecimal.valueOf(k), mc), mc);
+            if (next.compareTo(sum) == 0) {
+                return sum;
+            }
+            sum = next;
+        }
+    }
+
+    /**
+     * e^x to roughly {@code precision} significant digits.
+     */
+    private static BigDecimal exp(BigDecimal x, int precision) {
+        if (x.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        // x = n ln 2 + r with |r| <= ln(2) / 2, so e^x = 2^n e^r
+        BigDecimal quotient = x.divide(LN2.get(32), new MathContext(32, RoundingMode.HALF_EVEN));
+        if (quotient.abs().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new ArithmeticException("Exponent out of range");
+        }
+        int n = quotient.setScale(0, RoundingMode.HALF_EVEN).intValue();
+        int extra = Integer.toString(Math.abs(n)).length();
+        MathContext wide = new MathContext(precision + extra, RoundingMode.HALF_EVEN);
+        BigDecimal r = x.subtract(LN2.get(wide.getPrecision()).multiply(BigDecimal.valueOf(n), wide), wide);
+        MathContext mc = new MathContext(precision, RoundingMode.HALF_EVEN);
+        BigDecimal result = expReduced(r, mc);
+        return n == 0 ? result : result.multiply(TWO.pow(n, mc), mc);
+    }
+
+    /**
+     * e^r for small |r|: halve r until the Taylor series converges in a few dozen terms,
+     * sum it, then square the result back up.
+     */
+    private static BigDecimal expReduced(BigDecimal r, MathContext mc) {
+        int halvings = Math.max(4, (int) Math.sqrt(mc.getPrecision()));
+        MathContext working = new MathContext(mc.getPrecision() + halvings / 3 + 2, RoundingMode.HALF_EVEN);
+        BigDecimal t = r.divide(TWO.pow(halvings), working);
+        BigDecimal term = BigDecimal.ONE;
+        BigDecimal sum = BigDecimal.ONE;
+        for (long k = 1; ; k++) {
+            term = term.multiply(t, working).divide(BigDecimal.valueOf(k), working);
+            BigDecimal next = sum.add(term, working);
+            if (next.compareTo(sum) == 0) {
+                break;
+            }
+            sum = next;
+        }
+        for (int i = 0; i < halvings; i++) {
+            sum = sum.multiply(sum, working);
+        }
+        return sum.round(mc);
+    }
+
+    /**
+     * A constant computed on demand and kept at the highest precision asked for so far.
+     */
+    private abstract static class Constant {
+        private volatile BigDecimal value;
+
+        abstract BigDecimal compute(MathContext mc);
+
+        BigDecimal get(int precision) {
+            BigDecimal cached = value;
+            if (cached == null || cached.precision() < precision) {
+                synchronized (this) {
+                    cached = value;
+                    if (cached == null || cached.precision() < precision) {
+                        // a few digits beyond the request so that rounding down stays correct
+                        int computed = precision + GUARD_DIGITS;
+                        cached = compute(new MathContext(computed + GUARD_DIGITS, RoundingMode.HALF_EVEN))
+                                .round(new MathContext(computed, RoundingMode.HALF_EVEN));
+                        value = cached;
+                    }
+                }
+            }
+            return cached.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+        }
+    }
+}
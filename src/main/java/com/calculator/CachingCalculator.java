@@ -0,0 +1,88 @@
+package com.calculator;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A {@link Calculator} that memoizes the results of its expensive functions
+ * ({@code power}, {@code ln}, {@code log} and {@code exp}) in a bounded
+ * least-recently-used cache, so hot repeated arguments cost a lookup instead of a
+ * recomputation. Domain errors are not cached. Instances are safe to share between threads.
+ *
+ * {@code factorial} is not cached: it is already a table lookup.
+ */
+public class CachingCalculator extends Calculator {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final ResultCache cache;
+
+    private final LongBinaryOperator power = (a, b) -> bits(super.power(value(a), value(b)));
+    private final LongBinaryOperator ln = (a, b) -> bits(super.ln(value(a)));
+    private final LongBinaryOperator log = (a, b) -> bits(super.log(value(a)));
+    private final LongBinaryOperator exp = (a, b) -> bits(super.exp(value(a)));
+
+    public CachingCalculator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of cached results; rounded down to a multiple of the
+     *                 cache's associativity and a power of two
+     */
+    public CachingCalculator(int capacity) {
+        this(capacity, FunctionKernel.DEFAULT);
+    }
+
+    public CachingCalculator(int capacity, FunctionKernel kernel) {
+        super(kernel);
+        this.cache = new ResultCache(capacity);
+    }
+
+    @Override
+    public double power(double base, double exponent) {
+        return value(cache.get(Operation.POWER.ordinal(), bits(base), bits(exponent), power));
+    }
+
+    @Override
+    public double ln(double x) {
+        return value(cache.get(Operation.LN.ordinal(), bits(x), 0, ln));
+    }
+
+    @Override
+    public double log(double x) {
+        return value(cache.get(Operation.LOG.ordinal(), bits(x), 0, log));
+    }
+
+    @Override
+    public double exp(double x) {
+        return value(cache.get(Operation.EXP.ordinal(), bits(x), 0, exp));
+    }
+
+    public int getCacheCapacity() {
+        return cache.capacity();
+    }
+
+    public long getCacheHits() {
+        return cache.hits();
+    }
+
+    public long getCacheMisses() {
+        return cache.misses();
+    }
+
+    public long getCacheEvictions() {
+        return cache.evictions();
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private static long bits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    private static double value(long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+}
@@ -0,0 +1,410 @@
+package com.calculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Append-only log of calculations, kept in memory-mapped segment files in one directory.
+ *
+ * <pre>
+ * segment  = header, recordsPerSegment * record; named history-{first sequence}.log
+ * header   = int magic "CALH", int version, long first sequence          (16 bytes)
+ * record   = long sequence, long timestamp, byte operation, byte status,
+ *            6 bytes padding, double a, double b, double result          (48 bytes)
+ * </pre>
+ *
+ * All values are little-endian. A record's sequence number is written last, with release
+ * semantics, and acts as its commit marker: on reopening, each segment is read up to the
+ * first slot that does not hold the next sequence number, so a record torn by a crash is
+ * simply dropped. Appends go to the page cache and survive a process crash without a sync
+ * per write; {@link #flush()} (called on roll and close) forces them to disk. When a new
+ * segment would exceed {@code maxSegments}, the oldest segment is deleted. Files written
+ * with a different segment size are ignored, and a record whose operation or status byte
+ * is out of range counts as torn.
+ *
+ * One process at a time owns a directory: an instance holds an exclusive lock on its
+ * {@code history.lock} file until closed, and opening a directory that another process (or
+ * another instance) holds fails instead of interleaving sequence numbers.
+ *
+ * Sequence numbers start at 1 and timestamps never decrease, so entries can be looked up
+ * by either with a binary search. Instances are thread-safe.
+ */
+public class CalculationHistory implements Closeable {
+
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 48;
+
+    private static final int MAGIC = 0x48_4C_41_43; // "CALH" little-endian
+    private static final int VERSION = 1;
+    private static final String PREFIX = "history-";
+    private static final String SUFFIX = ".log";
+    private static final String LOCK_FILE = "history.lock";
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final CalculationStatus[] STATUSES = CalculationStatus.values();
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final LongSupplier clock;
+    private final FileChannel lockChannel;
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence = 1;
+    private long lastTimestamp;
+    private boolean closed;
+
+    public CalculationHistory(Path directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public CalculationHistory(Path directory, int recordsPerSegment, int maxSegments) throws IOException {
+        this(directory, recordsPerSegment, maxSegments, System::currentTimeMillis);
+    }
+
+    CalculationHistory(Path directory, int recordsPerSegment, int maxSegments, LongSupplier clock) throws IOException {
+        if (recordsPerSegment < 1 || maxSegments < 1) {
+            throw new IllegalArgumentException("Segment size and count must be positive");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.maxSegments = maxSegments;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() != null) {
+                return channel;
+            }
+        } catch (OverlappingFileLockException e) {
+            // held by another instance in this JVM
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+        throw new IOException("History in " + directory + " is in use by another process");
+    }
+
+    /**
+     * Opens the history in {@code calculator.history.dir}, by default
+     * {@code ~/.scientific-calculator/history}.
+     */
+    public static CalculationHistory openDefault() throws IOException {
+        String configured = System.getProperty("calculator.history.dir");
+        Path directory = configured != null
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".scientific-calculator", "history");
+        return new CalculationHistory(directory);
+    }
+
+    /**
+     * The history used by the interactive front ends: {@link #openDefault()} unless
+     * {@code calculator.history} is set to false. Returns null, after a warning on standard
+     * error, when the history is disabled or cannot be opened.
+     */
+    static CalculationHistory openConfigured() {
+        if (!Boolean.parseBoolean(System.getProperty("calculator.history", "true"))) {
+            return null;
+        }
+        try {
+            return openDefault();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("History disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Records a successful calculation.
+     *
+     * @return the entry's sequence number
+     */
+    public long append(Operation operation, double a, double b, double result) throws IOException {
+        return append(operation, CalculationStatus.OK, a, b, result);
+    }
+
+    /**
+     * Records a calculation and its outcome.
+     *
+     * @return the entry's sequence number
+     */
+    public synchronized long append(Operation operation, CalculationStatus status, double a, double b, double result)
+            throws IOException {
+        if (closed) {
+            throw new IllegalStateException("History is closed");
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.count == recordsPerSegment) {
+            segment = roll();
+        }
+        long timestamp = Math.max(lastTimestamp, clock.getAsLong());
+        long sequence = nextSequence;
+        ByteBuffer buffer = segment.buffer;
+        int offset = offset(segment.count);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.put(offset + 16, (byte) operation.ordinal());
+        buffer.put(offset + 17, (byte) status.ordinal());
+        buffer.putDouble(offset + 24, a);
+        buffer.putDouble(offset + 32, b);
+        buffer.putDouble(offset + 40, result);
+        LONGS.setRelease(buffer, offset, sequence);
+        segment.count++;
+        nextSequence++;
+        lastTimestamp = timestamp;
+        return sequence;
+    }
+
+    /**
+     * @return the oldest retained sequence number, or 0 when empty
+     */
+    public synchronized long firstSequence() {
+        return size() == 0 ? 0 : segments.get(0).firstSequence;
+    }
+
+    /**
+     * @return the newest sequence number, or 0 when empty
+     */
+    public synchronized long lastSequence() {
+        return size() == 0 ? 0 : nextSequence - 1;
+    }
+
+    public synchronized long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    /**
+     * Passes every retained entry to {@code consumer}, oldest first.
+     */
+    public synchronized void replay(Consumer<HistoryEntry> consumer) {
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.count; i++) {
+                consumer.accept(read(segment, i));
+            }
+        }
+    }
+
+    /**
+     * @return the retained entries with sequence numbers in [from, to], oldest first
+     */
+    public synchronized List<HistoryEntry> range(long fromSequence, long toSequence) {
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            long first = Math.max(fromSequence, segment.firstSequence);
+            long last = Math.min(toSequence, segment.firstSequence + segment.count - 1);
+            for (long sequence = first; sequence <= last; sequence++) {
+                entries.add(read(segment, (int) (sequence - segment.firstSequence)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return the retained entries with timestamps in [from, to] milliseconds, oldest first
+     */
+    public synchronized List<HistoryEntry> rangeByTime(long fromMillis, long toMillis) {
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.count == 0 || timestamp(segment, segment.count - 1) < fromMillis) {
+                continue;
+            }
+            if (timestamp(segment, 0) > toMillis) {
+                break;
+            }
+            int low = 0;
+            int high = segment.count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (timestamp(segment, middle) < fromMillis) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < segment.count && timestamp(segment, i) <= toMillis; i++) {
+                entries.add(read(segment, i));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return up to {@code count} of the newest entries, oldest first
+     */
+    public synchronized List<HistoryEntry> recent(int count) {
+        long last = lastSequence();
+        return last == 0 ? Collections.emptyList() : range(Math.max(1, last - count + 1), last);
+    }
+
+    /**
+     * Forces appended entries to disk.
+     */
+    public synchronized void flush() {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+            segments.clear();
+            try {
+                // closing the channel releases the lock
+                lockChannel.close();
+            } catch (IOException e) {
+                // the lock goes with the process anyway
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            Segment segment = map(file, false);
+            if (segment == null) {
+                continue;
+            }
+            int count = 0;
+            while (count < recordsPerSegment && (long) LONGS.getAcquire(segment.buffer, offset(count))
+                    == segment.firstSequence + count && intact(segment, count)) {
+                count++;
+            }
+            segment.count = count;
+            segments.add(segment);
+            nextSequence = segment.firstSequence + count;
+            if (count > 0) {
+                lastTimestamp = timestamp(segment, count - 1);
+            }
+        }
+        trim();
+    }
+
+    private Segment roll() throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).buffer.force();
+        }
+        Segment segment = map(directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX)), true);
+        segments.add(segment);
+        trim();
+        return segment;
+    }
+
+    private void trim() {
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                // still mapped on some platforms; dropped again on the next open
+            }
+        }
+    }
+
+    /**
+     * Maps a segment, creating it when {@code create} is set.
+     *
+     * @return null if an existing file is not a segment of this layout
+     */
+    private Segment map(Path file, boolean create) throws IOException {
+        long size = HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE;
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (!create && channel.size() != size) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (create) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(8, nextSequence);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new Segment(file, buffer.getLong(8), buffer);
+        }
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    /**
+     * @return whether a committed record's operation and status bytes are in range
+     */
+    private static boolean intact(Segment segment, int index) {
+        int offset = offset(index);
+        int operation = segment.buffer.get(offset + 16);
+        int status = segment.buffer.get(offset + 17);
+        return operation >= 0 && operation < OPERATIONS.length && status >= 0 && status < STATUSES.length;
+    }
+
+    private static long timestamp(Segment segment, int index) {
+        return segment.buffer.getLong(offset(index) + 8);
+    }
+
+    private static HistoryEntry read(Segment segment, int index) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = offset(index);
+        return new HistoryEntry(buffer.getLong(offset), buffer.getLong(offset + 8),
+                OPERATIONS[buffer.get(offset + 16)], STATUSES[buffer.get(offset + 17)],
+                buffer.getDouble(offset + 24), buffer.getDouble(offset + 32), buffer.getDouble(offset + 40));
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final MappedByteBuffer buffer;
+        int count;
+
+        Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,706 @@
+package com.calculator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
+
+/**
+ * Streams numbers from a source through chained calculator stages ({@code map},
+ * {@code filter}, {@code window}) on {@link java.util.concurrent.Flow}, for feeds that may
+ * never end. Nothing runs until a terminal call ({@link #subscribe}, {@link #forEach},
+ * {@link #toArray}); a pipeline runs once.
+ *
+ * Values travel in {@code double[]} chunks of up to the source's chunk size, so the
+ * per-item cost of the reactive machinery is paid once per chunk. Sources produce only
+ * what is requested, and every stage publishes through a bounded buffer of
+ * {@link #withBufferSize buffer size} chunks, blocking when it is full, so a slow consumer
+ * slows the whole pipeline instead of letting memory grow. A stage may process several
+ * chunks at once ({@link #parallel}); its output keeps the input order.
+ *
+ * Domain errors do not stop the stream: the affected values become NaN, which a
+ * {@code filter(Double::isFinite)} can drop. An exception thrown by a user function fails
+ * the stream. Stages run on a shared pool of daemon threads; chunks passed in by a custom
+ * publisher are owned, and may be modified, by the pipeline.
+ */
+public final class CalculationPipeline {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_BUFFER_CHUNKS = 16;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "calculation-pipeline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Statistic computed over each window.
+     */
+    public enum Aggregate {
+        COUNT,
+        SUM,
+        MEAN,
+        MIN,
+        MAX,
+        STANDARD_DEVIATION;
+
+        double of(ColumnStatistics statistics) {
+            switch (this) {
+                case COUNT:
+                    return statistics.getCount();
+                case SUM:
+                    return statistics.getSum();
+                case MEAN:
+                    return statistics.getMean();
+                case MIN:
+                    return statistics.getMin();
+                case MAX:
+                    return statistics.getMax();
+                default:
+                    return statistics.getStandardDeviation();
+            }
+        }
+    }
+
+    private final Flow.Publisher<double[]> source;
+    private final List<Stage> stages = new ArrayList<>();
+    private Calculator calculator = new Calculator();
+    private int bufferChunks = DEFAULT_BUFFER_CHUNKS;
+    private boolean started;
+
+    private CalculationPipeline(Flow.Publisher<double[]> source) {
+        this.source = source;
+    }
+
+    // ===== Sources =====
+
+    public static CalculationPipeline of(double... values) {
+        return from(Arrays.stream(values).iterator());
+    }
+
+    public static CalculationPipeline from(PrimitiveIterator.OfDouble values) {
+        return from(values, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Streams the iterator's values, pulling them only as downstream demand allows; the
+     * iterator may block (on a socket, say) or never end.
+     */
+    public static CalculationPipeline from(PrimitiveIterator.OfDouble values, int chunkSize) {
+        return new CalculationPipeline(new IteratorSource(values, chunkSize, null));
+    }
+
+    /**
+     * An endless feed of values from {@code generator}.
+     */
+    public static CalculationPipeline generate(DoubleSupplier generator) {
+        return from(DoubleStream.generate(generator).iterator());
+    }
+
+    /**
+     * Streams one number per line of text from a file, socket or any other reader, which is
+     * closed when the stream ends or is cancelled. Blank lines and lines starting with
+     * {@code #} are skipped; lines that are not numbers yield NaN.
+     */
+    public static CalculationPipeline from(Reader reader) {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return new CalculationPipeline(new IteratorSource(new LineIterator(lines), DEFAULT_CHUNK_SIZE, () -> {
+            try {
+                lines.close();
+            } catch (IOException e) {
+                // the stream has already ended; nothing else to report it to
+            }
+        }));
+    }
+
+    /**
+     * Streams chunks from any publisher, for sources this class does not cover.
+     */
+    public static CalculationPipeline from(Flow.Publisher<double[]> chunks) {
+        return new CalculationPipeline(Objects.requireNonNull(chunks, "chunks"));
+    }
+
+    // ===== Configuration =====
+
+    /**
+     * @param calculator evaluates every operation and window stage, whether added before or
+     *                   after this call; must be safe to share between threads when a stage
+     *                   is parallel
+     */
+    public CalculationPipeline withCalculator(Calculator calculator) {
+        this.calculator = Objects.requireNonNull(calculator, "calculator");
+        return this;
+    }
+
+    /**
+     * @param chunks how many chunks each stage may hold for its subscriber before blocking;
+     *               rounded up to a power of two
+     */
+    public CalculationPipeline withBufferSize(int chunks) {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferChunks = chunks;
+        return this;
+    }
+
+    // ===== Stages =====
+
+    /**
+     * Applies a unary operation to every value.
+     */
+    public CalculationPipeline map(Operation operation) {
+        requireArity(operation, 1);
+        return map(operation, 0);
+    }
+
+    /**
+     * Applies a binary operation to every value, with {@code operand} as the second argument.
+     */
+    public CalculationPipeline map(Operation operation, double operand) {
+        if (operation.arity() != 1) {
+            requireArity(operation, 2);
+        }
+        return addStage(calculator -> new Transform() {
+            @Override
+            double[] apply(double[] chunk) {
+                // one holder per chunk: a parallel stage runs this on several threads at once
+                CalculationResult result = new CalculationResult();
+                for (int i = 0; i < chunk.length; i++) {
+                    operation.tryApply(calculator, chunk[i], operand, result);
+                    chunk[i] = result.value();
+                }
+                return chunk;
+            }
+        });
+    }
+
+    public CalculationPipeline map(DoubleUnaryOperator function) {
+        Objects.requireNonNull(function, "function");
+        return addStage(calculator -> new Transform() {
+            @Override
+            double[] apply(double[] chunk) {
+                for (int i = 0; i < chunk.length; i++) {
+                    chunk[i] = function.applyAsDouble(chunk[i]);
+                }
+                return chunk;
+            }
+        });
+    }
+
+    /**
+     * Keeps only the values that match {@code predicate}.
+     */
+    public CalculationPipeline filter(DoublePredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return addStage(calculator -> new Transform() {
+            @Override
+            double[] apply(double[] chunk) {
+                int kept = 0;
+                for (double value : chunk) {
+                    if (predicate.test(value)) {
+                        chunk[kept++] = value;
+                    }
+                }
+                return kept == chunk.length ? chunk : Arrays.copyOf(chunk, kept);
+            }
+        });
+    }
+
+    /**
+     * Replaces each run of {@code size} consecutive values (a tumbling window) by one
+     * aggregate of them. A final, shorter window is aggregated when the stream ends. Window
+     * stages cannot be parallel.
+     */
+    public CalculationPipeline window(int size, Aggregate aggregate) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        Objects.requireNonNull(aggregate, "aggregate");
+        addStage(calculator -> new Transform() {
+            private ColumnStatistics window = new ColumnStatistics(calculator);
+            private int filled;
+
+            @Override
+            double[] apply(double[] chunk) {
+                double[] aggregates = new double[(filled + chunk.length) / size];
+                int emitted = 0;
+                for (int i = 0; i < chunk.length; ) {
+                    int take = Math.min(size - filled, chunk.length - i);
+                    window.accept(chunk, i, take);
+                    filled += take;
+                    i += take;
+                    if (filled == size) {
+                        aggregates[emitted++] = aggregate.of(window);
+                        window = new ColumnStatistics(calculator);
+                        filled = 0;
+                    }
+                }
+                return aggregates;
+            }
+
+            @Override
+            double[] finish() {
+                return filled == 0 ? null : new double[] {aggregate.of(window)};
+            }
+        });
+        lastStage().sequential = true;
+        return this;
+    }
+
+    /**
+     * Lets the most recently added stage work on up to {@code parallelism} chunks at once.
+     *
+     * @throws IllegalStateException if there is no stage yet, or it is a window
+     */
+    public CalculationPipeline parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        Stage stage = lastStage();
+        if (stage.sequential && parallelism > 1) {
+            throw new IllegalStateException("Window stages are sequential");
+        }
+        stage.parallelism = parallelism;
+        return this;
+    }
+
+    // ===== Terminal operations =====
+
+    /**
+     * Starts the pipeline, delivering result chunks to {@code subscriber}.
+     *
+     * @throws IllegalStateException if the pipeline has already been started
+     */
+    public void subscribe(Flow.Subscriber<? super double[]> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (started) {
+            throw new IllegalStateException("A pipeline runs only once");
+        }
+        started = true;
+        // subscribe from the end backwards, so nothing is published before its subscriber exists
+        Flow.Subscriber<? super double[]> downstream = subscriber;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            Stage stage = stages.get(i);
+            StageProcessor processor = new StageProcessor(stage.factory.apply(calculator), stage.parallelism, bufferChunks);
+            processor.subscribe(downstream);
+            downstream = processor;
+        }
+        source.subscribe(downstream);
+    }
+
+    /**
+     * Passes every result, in order, to {@code consumer} on a pipeline thread.
+     *
+     * @return completes with the number of results when the stream ends, or exceptionally
+     *         if it fails or the consumer throws
+     */
+    public CompletableFuture<Long> forEach(DoubleConsumer consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        subscribe(new Flow.Subscriber<double[]>() {
+            private Flow.Subscription subscription;
+            private long count;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(double[] chunk) {
+                try {
+                    for (double value : chunk) {
+                        consumer.accept(value);
+                    }
+                } catch (RuntimeException e) {
+                    subscription.cancel();
+                    done.completeExceptionally(e);
+                    return;
+                }
+                count += chunk.length;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(count);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Collects every result; only for streams that end.
+     */
+    public CompletableFuture<double[]> toArray() {
+        DoubleStream.Builder results = DoubleStream.builder();
+        return forEach(results).thenApply(count -> results.build().toArray());
+    }
+
+    private CalculationPipeline addStage(Function<Calculator, Transform> factory) {
+        if (started) {
+            throw new IllegalStateException("A pipeline runs only once");
+        }
+        stages.add(new Stage(factory));
+        return this;
+    }
+
+    private Stage lastStage() {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("No stage to configure");
+        }
+        return stages.get(stages.size() - 1);
+    }
+
+    private static void requireArity(Operation operation, int arity) {
+        if (operation.arity() != arity) {
+            throw new IllegalArgumentException(operation.token() + " expects " + operation.arity() + " argument(s)");
+        }
+    }
+
+    private static final class Stage {
+        final Function<Calculator, Transform> factory;
+        int parallelism = 1;
+        boolean sequential;
+
+        Stage(Function<Calculator, Transform> factory) {
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * Turns one chunk into the next stage's chunk, possibly in place. Instances of parallel
+     * stages must be stateless; sequential ones are called by one thread at a time.
+     */
+    private abstract static class Transform {
+        abstract double[] apply(double[] chunk);
+
+        /**
+         * @return a last chunk to emit when the input ends, or null
+         */
+        double[] finish() {
+            return null;
+        }
+    }
+
+    /**
+     * A stage: requests at most {@code parallelism} chunks ahead, transforms them (on pool
+     * threads when parallel), and publishes the results in arrival order through a bounded
+     * {@link SubmissionPublisher}, whose blocking {@code submit} holds back further requests
+     * while the subscriber lags.
+     */
+    private static final class StageProcessor extends SubmissionPublisher<double[]>
+            implements Flow.Processor<double[], double[]> {
+
+        private final Transform transform;
+        private final int parallelism;
+        private final TreeMap<Long, double[]> completed = new TreeMap<>();
+        private final AtomicInteger draining = new AtomicInteger();
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private Flow.Subscription upstream;
+        private volatile long received;
+        private volatile boolean upstreamDone;
+        private long emitted;
+
+        StageProcessor(Transform transform, int parallelism, int bufferChunks) {
+            super(EXECUTOR, bufferChunks);
+            this.transform = transform;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            subscription.request(parallelism);
+        }
+
+        @Override
+        public void onNext(double[] chunk) {
+            long sequence = received;
+            received = sequence + 1;
+            if (parallelism == 1) {
+                complete(sequence, chunk);
+            } else {
+                EXECUTOR.execute(() -> complete(sequence, chunk));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        private void complete(long sequence, double[] chunk) {
+            double[] result;
+            try {
+                result = transform.apply(chunk);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            synchronized (completed) {
+                completed.put(sequence, result);
+            }
+            drain();
+        }
+
+        /**
+         * Publishes finished chunks in order; one thread at a time, with calls made while
+         * another thread drains picked up by that thread before it leaves.
+         */
+        private void drain() {
+            if (draining.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!failed.get()) {
+                    double[] next;
+                    synchronized (completed) {
+                        next = completed.remove(emitted);
+                    }
+                    if (next == null) {
+                        if (upstreamDone && emitted == received && !isClosed()) {
+                            finish();
+                        }
+                        break;
+                    }
+                    emitted++;
+                    if (next.length > 0) {
+                        submit(next);
+                    }
+                    if (getNumberOfSubscribers() == 0) {
+                        // the subscriber cancelled
+                        failed.set(true);
+                        upstream.cancel();
+                        close();
+                        break;
+                    }
+                    upstream.request(1);
+                }
+                missed = draining.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void finish() {
+            double[] last;
+            try {
+                last = transform.finish();
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            if (last != null && last.length > 0) {
+                submit(last);
+            }
+            close();
+        }
+
+        private void fail(Throwable throwable) {
+            if (failed.compareAndSet(false, true)) {
+                if (upstream != null) {
+                    upstream.cancel();
+                }
+                closeExceptionally(throwable);
+            }
+        }
+    }
+
+    /**
+     * Publishes an iterator's values in chunks, only as requested, to a single subscriber.
+     */
+    private static final class IteratorSource implements Flow.Publisher<double[]> {
+        private final PrimitiveIterator.OfDouble values;
+        private final int chunkSize;
+        private final Runnable onClose;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        IteratorSource(PrimitiveIterator.OfDouble values, int chunkSize, Runnable onClose) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive");
+            }
+            this.values = Objects.requireNonNull(values, "values");
+            this.chunkSize = chunkSize;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super double[]> subscriber) {
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("This source has already been subscribed to"));
+                return;
+            }
+            subscriber.onSubscribe(new ChunkSubscription(subscriber));
+        }
+
+        private final class ChunkSubscription implements Flow.Subscription, Runnable {
+            private final Flow.Subscriber<? super double[]> subscriber;
+            private final AtomicLong demand = new AtomicLong();
+            private final AtomicInteger scheduled = new AtomicInteger();
+            private volatile boolean cancelled;
+            private boolean done;
+
+            ChunkSubscription(Flow.Subscriber<? super double[]> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException("Requests must be positive"));
+                    return;
+                }
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                schedule();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                schedule();
+            }
+
+            private void schedule() {
+                if (scheduled.getAndIncrement() == 0) {
+                    EXECUTOR.execute(this);
+                }
+            }
+
+            @Override
+            public void run() {
+                int missed = 1;
+                do {
+                    while (!done) {
+                        if (cancelled) {
+                            close();
+                            break;
+                        }
+                        if (demand.get() == 0) {
+                            break;
+                        }
+                        emit();
+                    }
+                    missed = scheduled.addAndGet(-missed);
+                } while (missed != 0);
+            }
+
+            private void emit() {
+                try {
+                    double[] chunk = new double[chunkSize];
+                    int length = 0;
+                    while (length < chunkSize && values.hasNext()) {
+                        chunk[length++] = values.nextDouble();
+                    }
+                    if (length > 0) {
+                        demand.decrementAndGet();
+                        subscriber.onNext(length == chunkSize ? chunk : Arrays.copyOf(chunk, length));
+                    }
+                    if (length < chunkSize) {
+                        close();
+                        subscriber.onComplete();
+                    }
+                } catch (RuntimeException e) {
+                    close();
+                    subscriber.onError(e instanceof UncheckedIOException ? e.getCause() : e);
+                }
+            }
+
+            private void close() {
+                done = true;
+                if (onClose != null) {
+                    onClose.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Numbers read line by line.
+     */
+    private static final class LineIterator implements PrimitiveIterator.OfDouble {
+        private final BufferedReader reader;
+        private String line;
+
+        LineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String next = reader.readLine();
+                    if (next == null) {
+                        return false;
+                    }
+                    next = next.trim();
+                    if (!next.isEmpty() && next.charAt(0) != '#') {
+                        line = next;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public double nextDouble() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String text = line;
+            line = null;
+            try {
+                return NumberParser.parseDouble(text);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+    }
+}
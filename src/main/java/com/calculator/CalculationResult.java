@@ -0,0 +1,51 @@
+package com.calculator;
+
+/**
+ * Reusable holder for the outcome of an exception-free calculation: a value and a
+ * {@link CalculationStatus}. Failed calculations leave a NaN value. Keep one per thread
+ * and pass it to every call in a loop, so the error path allocates nothing.
+ */
+public final class CalculationResult {
+
+    private double value = Double.NaN;
+    private CalculationStatus status = CalculationStatus.OK;
+
+    public double value() {
+        return value;
+    }
+
+    public CalculationStatus status() {
+        return status;
+    }
+
+    public boolean isOk() {
+        return status == CalculationStatus.OK;
+    }
+
+    /**
+     * @return the value, or throws the exception the throwing API would have thrown
+     */
+    public double getOrThrow() {
+        if (status != CalculationStatus.OK) {
+            throw status.toException();
+        }
+        return value;
+    }
+
+    CalculationStatus succeed(double value) {
+        this.value = value;
+        this.status = CalculationStatus.OK;
+        return CalculationStatus.OK;
+    }
+
+    CalculationStatus fail(CalculationStatus status) {
+        this.value = Double.NaN;
+        this.status = status;
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return status == CalculationStatus.OK ? Double.toString(value) : "Error: " + status.message();
+    }
+}
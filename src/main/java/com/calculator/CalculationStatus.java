@@ -0,0 +1,47 @@
+package com.calculator;
+
+/**
+ * Outcome of an exception-free calculation ({@code Calculator.tryXxx} and
+ * {@link Operation#tryApply}). Each error status carries the message, and the exception
+ * type, that the throwing method would have used.
+ */
+public enum CalculationStatus {
+
+    OK(null, false),
+    DIVIDE_BY_ZERO("Cannot divide by zero", true),
+    NEGATIVE_SQRT("Cannot calculate square root of negative number", false),
+    NON_POSITIVE_LOG("Logarithm undefined for non-positive numbers", false),
+    NEGATIVE_FACTORIAL("Factorial not defined for negative numbers", false),
+    NON_INTEGER_FACTORIAL("Factorial only defined for non-negative integers", false),
+    FACTORIAL_OVERFLOW("Factorial overflows long for n > " + Factorials.MAX_LONG_FACTORIAL, true);
+
+    private final String message;
+    private final boolean arithmetic;
+
+    CalculationStatus(String message, boolean arithmetic) {
+        this.message = message;
+        this.arithmetic = arithmetic;
+    }
+
+    public boolean isOk() {
+        return this == OK;
+    }
+
+    /**
+     * @return the error message, or {@code null} for {@link #OK}
+     */
+    public String message() {
+        return message;
+    }
+
+    /**
+     * The exception the throwing API reports for this status: an {@link ArithmeticException}
+     * or an {@link IllegalArgumentException}.
+     */
+    public RuntimeException toException() {
+        if (this == OK) {
+            throw new IllegalStateException("Calculation succeeded");
+        }
+        return arithmetic ? new ArithmeticException(message) : new IllegalArgumentException(message);
+    }
+}
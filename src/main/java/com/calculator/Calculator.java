@@ -1,7 +1,28 @@
 package com.calculator;
 
+import java.math.BigInteger;
+import java.util.Objects;
+
 public class Calculator {
 
+    private final FunctionKernel kernel;
+
+    public Calculator() {
+        this(FunctionKernel.DEFAULT);
+    }
+
+    /**
+     * @param kernel implementation of {@code sqrt}, {@code power}, {@code ln}, {@code log}
+     *               and {@code exp}, in the scalar and the bulk variants
+     */
+    public Calculator(FunctionKernel kernel) {
+        this.kernel = Objects.requireNonNull(kernel, "kernel");
+    }
+
+    public FunctionKernel getKernel() {
+        return kernel;
+    }
+
     public double add(double a, double b) {
         return a + b;
     }
@@ -25,44 +46,310 @@ public class Calculator {
         if (x < 0) {
             throw new IllegalArgumentException("Cannot calculate square root of negative number");
         }
-        return Math.sqrt(x);
+        return kernel.sqrt(x);
     }
 
     public double power(double base, double exponent) {
-        return Math.pow(base, exponent);
+        return kernel.pow(base, exponent);
+    }
+
+    /**
+     * Exact integer power by repeated squaring.
+     *
+     * @throws ArithmeticException if the result overflows a {@code long}
+     */
+    public long powerExact(long base, int exponent) {
+        return Powers.exact(base, exponent);
+    }
+
+    public BigInteger bigPower(long base, int exponent) {
+        return Powers.big(base, exponent);
+    }
+
+    /**
+     * @return {@code base^exponent mod modulus}, in {@code [0, modulus)} also for negative bases
+     */
+    public long modPow(long base, long exponent, long modulus) {
+        return Powers.mod(base, exponent, modulus);
     }
 
     public long factorial(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("Factorial not defined for negative numbers");
-        }
-        
-        if (n == 0 || n == 1) {
-            return 1;
-        }
-        
-        long result = 1;
-        for (int i = 2; i <= n; i++) {
-            result *= i;
-        }
-        return result;
+        return Factorials.exact(n);
+    }
+
+    public BigInteger bigFactorial(int n) {
+        return Factorials.big(n);
+    }
+
+    public double lnFactorial(int n) {
+        return Factorials.ln(n);
+    }
+
+    public double approximateFactorial(int n) {
+        return Factorials.approximate(n);
     }
 
     public double ln(double x) {
         if (x <= 0) {
             throw new IllegalArgumentException("Logarithm undefined for non-positive numbers");
         }
-        return Math.log(x);
+        return kernel.ln(x);
     }
 
     public double log(double x) {
         if (x <= 0) {
             throw new IllegalArgumentException("Logarithm undefined for non-positive numbers");
         }
-        return Math.log10(x);
+        return kernel.log10(x);
     }
 
     public double exp(double x) {
-        return Math.exp(x);
+        return kernel.exp(x);
+    }
+
+    // ===== Exception-free variants =====
+    //
+    // Each tryXxx method stores its value (or NaN) in the caller's reusable result holder
+    // and returns the status instead of throwing, for loops where bad inputs are common
+    // and a thrown exception per failure would dominate the cost. Successful calls go
+    // through the throwing method, so subclasses that override it are honoured.
+
+    public CalculationStatus tryAdd(double a, double b, CalculationResult result) {
+        return result.succeed(add(a, b));
+    }
+
+    public CalculationStatus trySubtract(double a, double b, CalculationResult result) {
+        return result.succeed(subtract(a, b));
+    }
+
+    public CalculationStatus tryMultiply(double a, double b, CalculationResult result) {
+        return result.succeed(multiply(a, b));
+    }
+
+    public CalculationStatus tryDivide(double a, double b, CalculationResult result) {
+        if (b == 0) {
+            return result.fail(CalculationStatus.DIVIDE_BY_ZERO);
+        }
+        return result.succeed(divide(a, b));
+    }
+
+    public CalculationStatus trySqrt(double x, CalculationResult result) {
+        if (x < 0) {
+            return result.fail(CalculationStatus.NEGATIVE_SQRT);
+        }
+        return result.succeed(sqrt(x));
+    }
+
+    public CalculationStatus tryPower(double base, double exponent, CalculationResult result) {
+        return result.succeed(power(base, exponent));
+    }
+
+    public CalculationStatus tryFactorial(int n, CalculationResult result) {
+        if (n < 0) {
+            return result.fail(CalculationStatus.NEGATIVE_FACTORIAL);
+        }
+        if (n > Factorials.MAX_LONG_FACTORIAL) {
+            return result.fail(CalculationStatus.FACTORIAL_OVERFLOW);
+        }
+        return result.succeed(factorial(n));
+    }
+
+    public CalculationStatus tryLn(double x, CalculationResult result) {
+        if (x <= 0) {
+            return result.fail(CalculationStatus.NON_POSITIVE_LOG);
+        }
+        return result.succeed(ln(x));
+    }
+
+    public CalculationStatus tryLog(double x, CalculationResult result) {
+        if (x <= 0) {
+            return result.fail(CalculationStatus.NON_POSITIVE_LOG);
+        }
+        return result.succeed(log(x));
+    }
+
+    public CalculationStatus tryExp(double x, CalculationResult result) {
+        return result.succeed(exp(x));
+    }
+
+    // ===== Bulk operations =====
+    //
+    // The array variants below run tight counted loops over primitive arrays so that
+    // the JIT can unroll and auto-vectorize them. Domain errors never throw: the
+    // affected output slot is set to NaN, the matching slot of the optional error
+    // mask (indexed like the output array) is set, and the number of errors is returned.
+    // The output may be one of the input arrays at the same offset, for in-place updates:
+    // every element is read before its result is stored.
+
+    public void add(double[] a, double[] b, double[] out) {
+        add(a, 0, b, 0, out, 0, a.length);
+    }
+
+    public void add(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        checkRange(a, aOffset, length);
+        checkRange(b, bOffset, length);
+        checkRange(out, outOffset, length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    public void subtract(double[] a, double[] b, double[] out) {
+        subtract(a, 0, b, 0, out, 0, a.length);
+    }
+
+    public void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        checkRange(a, aOffset, length);
+        checkRange(b, bOffset, length);
+        checkRange(out, outOffset, length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+
+    public void multiply(double[] a, double[] b, double[] out) {
+        multiply(a, 0, b, 0, out, 0, a.length);
+    }
+
+    public void multiply(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length) {
+        checkRange(a, aOffset, length);
+        checkRange(b, bOffset, length);
+        checkRange(out, outOffset, length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = a[aOffset + i] * b[bOffset + i];
+        }
+    }
+
+    public int divide(double[] a, double[] b, double[] out, boolean[] errors) {
+        return divide(a, 0, b, 0, out, 0, a.length, errors);
+    }
+
+    public int divide(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length,
+                      boolean[] errors) {
+        checkRange(a, aOffset, length);
+        checkRange(b, bOffset, length);
+        checkRange(out, outOffset, length);
+        checkMask(errors, outOffset, length);
+        int failures = 0;
+        for (int i = 0; i < length; i++) {
+            double divisor = b[bOffset + i];
+            boolean failed = divisor == 0;
+            out[outOffset + i] = failed ? Double.NaN : a[aOffset + i] / divisor;
+            if (failed) {
+                failures++;
+            }
+            if (errors != null) {
+                errors[outOffset + i] = failed;
+            }
+        }
+        return failures;
+    }
+
+    public int sqrt(double[] in, double[] out, boolean[] errors) {
+        return sqrt(in, 0, out, 0, in.length, errors);
+    }
+
+    public int sqrt(double[] in, int inOffset, double[] out, int outOffset, int length, boolean[] errors) {
+        checkRange(in, inOffset, length);
+        checkRange(out, outOffset, length);
+        checkMask(errors, outOffset, length);
+        // every kernel's sqrt already yields NaN for negative input; only the mask needs filling in
+        int failures = 0;
+        for (int i = 0; i < length; i++) {
+            double x = in[inOffset + i];
+            boolean failed = x < 0;
+            out[outOffset + i] = kernel.sqrt(x);
+            if (failed) {
+                failures++;
+            }
+            if (errors != null) {
+                errors[outOffset + i] = failed;
+            }
+        }
+        return failures;
+    }
+
+    public void power(double[] base, double[] exponent, double[] out) {
+        power(base, 0, exponent, 0, out, 0, base.length);
+    }
+
+    public void power(double[] base, int baseOffset, double[] exponent, int exponentOffset,
+                      double[] out, int outOffset, int length) {
+        checkRange(base, baseOffset, length);
+        checkRange(exponent, exponentOffset, length);
+        checkRange(out, outOffset, length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = kernel.pow(base[baseOffset + i], exponent[exponentOffset + i]);
+        }
+    }
+
+    public int ln(double[] in, double[] out, boolean[] errors) {
+        return ln(in, 0, out, 0, in.length, errors);
+    }
+
+    public int ln(double[] in, int inOffset, double[] out, int outOffset, int length, boolean[] errors) {
+        checkRange(in, inOffset, length);
+        checkRange(out, outOffset, length);
+        checkMask(errors, outOffset, length);
+        int failures = 0;
+        for (int i = 0; i < length; i++) {
+            double x = in[inOffset + i];
+            // ln(0) is -Infinity; the bulk contract reports every domain error as NaN
+            boolean failed = x <= 0;
+            out[outOffset + i] = failed ? Double.NaN : kernel.ln(x);
+            if (failed) {
+                failures++;
+            }
+            if (errors != null) {
+                errors[outOffset + i] = failed;
+            }
+        }
+        return failures;
+    }
+
+    public int log(double[] in, double[] out, boolean[] errors) {
+        return log(in, 0, out, 0, in.length, errors);
+    }
+
+    public int log(double[] in, int inOffset, double[] out, int outOffset, int length, boolean[] errors) {
+        checkRange(in, inOffset, length);
+        checkRange(out, outOffset, length);
+        checkMask(errors, outOffset, length);
+        int failures = 0;
+        for (int i = 0; i < length; i++) {
+            double x = in[inOffset + i];
+            // log10(0) is -Infinity; the bulk contract reports every domain error as NaN
+            boolean failed = x <= 0;
+            out[outOffset + i] = failed ? Double.NaN : kernel.log10(x);
+            if (failed) {
+                failures++;
+            }
+            if (errors != null) {
+                errors[outOffset + i] = failed;
+            }
+        }
+        return failures;
+    }
+
+    public void exp(double[] in, double[] out) {
+        exp(in, 0, out, 0, in.length);
+    }
+
+    public void exp(double[] in, int inOffset, double[] out, int outOffset, int length) {
+        checkRange(in, inOffset, length);
+        checkRange(out, outOffset, length);
+        for (int i = 0; i < length; i++) {
+            out[outOffset + i] = kernel.exp(in[inOffset + i]);
+        }
+    }
+
+    private static void checkRange(double[] array, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, array.length);
+    }
+
+    private static void checkMask(boolean[] errors, int offset, int length) {
+        if (errors != null) {
+            Objects.checkFromIndexSize(offset, length, errors.length);
+        }
     }
 }
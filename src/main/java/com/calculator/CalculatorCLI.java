@@ -1,15 +1,30 @@
 package com.calculator;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Scanner;
 
 public class CalculatorCLI {
     
     private Calculator calculator;
     private Scanner scanner;
+    private final ResultFormatter formatter = ResultFormatter.DISPLAY;
+    private final StringBuilder line = new StringBuilder();
+    private CalculationHistory history;
     
     public CalculatorCLI() {
-        calculator = new Calculator();
+        calculator = new InstrumentedCalculator();
         scanner = new Scanner(System.in);
+        history = CalculationHistory.openConfigured();
     }
     
     public void run() {
@@ -33,6 +48,9 @@ public class CalculatorCLI {
         }
         
         scanner.close();
+        if (history != null) {
+            history.close();
+        }
     }
     
     private void displayMenu() {
@@ -52,6 +70,8 @@ public class CalculatorCLI {
         System.out.println("│   8. Natural Logarithm (ln)         │");
         System.out.println("│   9. Common Logarithm (log)         │");
         System.out.println("│  10. Exponential (e^x)              │");
+        System.out.println("│  11. Expression (e.g. 2^3+ln(5))    │");
+        System.out.println("│  12. History (last 10)              │");
         System.out.println("│                                     │");
         System.out.println("│   0. Exit                           │");
         System.out.println("└─────────────────────────────────────┘");
@@ -60,7 +80,7 @@ public class CalculatorCLI {
     
     private int getChoice() {
         try {
-            int choice = scanner.nextInt();
+            int choice = NumberParser.parseInt(scanner.next());
             if (scanner.hasNextLine()) {
                 scanner.nextLine(); // Consume the newline if available
             }
@@ -76,7 +96,7 @@ public class CalculatorCLI {
     private double getNumber(String prompt) {
         System.out.print(prompt);
         try {
-            return scanner.nextDouble();
+            return NumberParser.parseDouble(scanner.next());
         } catch (Exception e) {
             scanner.nextLine();
             throw new IllegalArgumentException("Invalid number format");
@@ -86,13 +106,58 @@ public class CalculatorCLI {
     private int getInteger(String prompt) {
         System.out.print(prompt);
         try {
-            return scanner.nextInt();
+            return NumberParser.parseInt(scanner.next());
         } catch (Exception e) {
             scanner.nextLine();
             throw new IllegalArgumentException("Invalid integer format");
         }
     }
     
+    private StringBuilder resultLine() {
+        line.setLength(0);
+        return line.append("\n✓ Result: ");
+    }
+    
+    private void printResult(double a, String operator, double b, double result) {
+        formatter.format(a, resultLine()).append(operator);
+        formatter.format(b, line).append(" = ");
+        System.out.println(formatter.format(result, line));
+    }
+    
+    private void printResult(String prefix, double x, String suffix, double result) {
+        formatter.format(x, resultLine().append(prefix)).append(suffix).append(" = ");
+        System.out.println(formatter.format(result, line));
+    }
+    
+    private void record(Operation operation, double a, double b, double result) {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.append(operation, a, b, result);
+        } catch (IOException e) {
+            System.out.println("\n✗ History disabled: " + e.getMessage());
+            history.close();
+            history = null;
+        }
+    }
+    
+    private void showHistory() {
+        if (history == null) {
+            System.out.println("\n✗ History is not available.");
+            return;
+        }
+        List<HistoryEntry> entries = history.recent(10);
+        if (entries.isEmpty()) {
+            System.out.println("\nNo calculations yet.");
+            return;
+        }
+        System.out.println();
+        for (HistoryEntry entry : entries) {
+            System.out.println("  #" + entry.sequence() + "  " + entry);
+        }
+    }
+    
     private void processChoice(int choice) {
         try {
             double result = 0;
@@ -104,70 +169,93 @@ public class CalculatorCLI {
                     double a1 = getNumber("Enter first number: ");
                     double b1 = getNumber("Enter second number: ");
                     result = calculator.add(a1, b1);
-                    System.out.println("\n✓ Result: " + a1 + " + " + b1 + " = " + result);
+                    record(Operation.ADD, a1, b1, result);
+                    printResult(a1, " + ", b1, result);
                     break;
                     
                 case 2:
                     double a2 = getNumber("Enter first number: ");
                     double b2 = getNumber("Enter second number: ");
                     result = calculator.subtract(a2, b2);
-                    System.out.println("\n✓ Result: " + a2 + " - " + b2 + " = " + result);
+                    record(Operation.SUBTRACT, a2, b2, result);
+                    printResult(a2, " - ", b2, result);
                     break;
                     
                 case 3:
                     double a3 = getNumber("Enter first number: ");
                     double b3 = getNumber("Enter second number: ");
                     result = calculator.multiply(a3, b3);
-                    System.out.println("\n✓ Result: " + a3 + " × " + b3 + " = " + result);
+                    record(Operation.MULTIPLY, a3, b3, result);
+                    printResult(a3, " × ", b3, result);
                     break;
                     
                 case 4:
                     double a4 = getNumber("Enter numerator: ");
                     double b4 = getNumber("Enter denominator: ");
                     result = calculator.divide(a4, b4);
-                    System.out.println("\n✓ Result: " + a4 + " ÷ " + b4 + " = " + result);
+                    record(Operation.DIVIDE, a4, b4, result);
+                    printResult(a4, " ÷ ", b4, result);
                     break;
                     
                 case 5:
                     double x = getNumber("Enter number: ");
                     result = calculator.sqrt(x);
-                    System.out.println("\n✓ Result: √" + x + " = " + result);
+                    record(Operation.SQRT, x, 0, result);
+                    printResult("√", x, "", result);
                     break;
                     
                 case 6:
                     double base = getNumber("Enter base: ");
                     double exponent = getNumber("Enter exponent: ");
                     result = calculator.power(base, exponent);
-                    System.out.println("\n✓ Result: " + base + "^" + exponent + " = " + result);
+                    record(Operation.POWER, base, exponent, result);
+                    printResult(base, "^", exponent, result);
                     break;
                     
                 case 7:
                     int n = getInteger("Enter non-negative integer: ");
                     factorialResult = calculator.factorial(n);
+                    record(Operation.FACTORIAL, n, 0, factorialResult);
                     isFactorial = true;
-                    System.out.println("\n✓ Result: " + n + "! = " + factorialResult);
+                    resultLine().append(n).append("! = ");
+                    System.out.println(formatter.format(factorialResult, line));
                     break;
                     
                 case 8:
                     double lnX = getNumber("Enter positive number: ");
                     result = calculator.ln(lnX);
-                    System.out.println("\n✓ Result: ln(" + lnX + ") = " + result);
+                    record(Operation.LN, lnX, 0, result);
+                    printResult("ln(", lnX, ")", result);
                     break;
                     
                 case 9:
                     double logX = getNumber("Enter positive number: ");
                     result = calculator.log(logX);
-                    System.out.println("\n✓ Result: log(" + logX + ") = " + result);
+                    record(Operation.LOG, logX, 0, result);
+                    printResult("log(", logX, ")", result);
                     break;
                     
                 case 10:
                     double expX = getNumber("Enter exponent: ");
                     result = calculator.exp(expX);
-                    System.out.println("\n✓ Result: e^" + expX + " = " + result);
+                    record(Operation.EXP, expX, 0, result);
+                    printResult("e^", expX, "", result);
+                    break;
+                    
+                case 11:
+                    System.out.print("Enter expression: ");
+                    String text = scanner.nextLine();
+                    result = Expression.parse(text).evaluate();
+                    resultLine().append(text.trim()).append(" = ");
+                    System.out.println(formatter.format(result, line));
+                    break;
+                    
+                case 12:
+                    showHistory();
                     break;
                     
                 default:
-                    System.out.println("\n✗ Invalid choice! Please select a number from 0-10.");
+                    System.out.println("\n✗ Invalid choice! Please select a number from 0-12.");
                     break;
             }
             
@@ -181,6 +269,54 @@ public class CalculatorCLI {
         }
     }
     
+    /**
+     * Non-interactive mode: evaluates the operations in {@code inputPath} (or standard input
+     * for {@code null} or "-") and writes one result per line to {@code outputPath} (or
+     * standard output for {@code null}). See {@link BatchProcessor} for the line format.
+     */
+    public static long runBatch(String inputPath, String outputPath) throws IOException {
+        Reader input = inputPath == null || inputPath.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(inputPath), StandardCharsets.UTF_8);
+        Writer output = outputPath == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedWriter(Paths.get(outputPath), StandardCharsets.UTF_8);
+        try (input; output) {
+            return new BatchProcessor().processPipelined(input, output);
+        }
+    }
+    
+    /**
+     * Non-interactive columnar mode: applies {@code operation} to column {@code a} (and
+     * {@code b} for binary operations) of the {@link ColumnFile} at {@code inputPath}, writing
+     * column {@code result} of a new file at {@code outputPath}.
+     *
+     * @return the number of rows that failed with a domain error
+     * @throws IllegalArgumentException if the operation or an operand column is unknown, or
+     *                                  the output is the input file, which creating it would wipe
+     */
+    public static long runColumns(String operation, String inputPath, String outputPath) throws IOException {
+        Operation op = Operation.fromToken(operation);
+        Path in = Paths.get(inputPath);
+        Path out = Paths.get(outputPath);
+        if (Files.exists(out) && Files.isSameFile(in, out)) {
+            throw new IllegalArgumentException("Output file must differ from the input file");
+        }
+        try (ColumnFile input = ColumnFile.open(in, false)) {
+            // check the operands before the output file is created
+            input.columnIndex("a");
+            String b = op.arity() == 2 ? "b" : null;
+            if (b != null) {
+                input.columnIndex(b);
+            }
+            try (ColumnFile output = ColumnFile.create(out, input.getRowCount(), ColumnFile.Column.doubles("result"))) {
+                long failures = ColumnFile.apply(new Calculator(), op, input, "a", b, output, "result");
+                System.out.println(input.getRowCount() + " rows, " + failures + " failed");
+                return failures;
+            }
+        }
+    }
+
     public static void main(String[] args) {
         CalculatorCLI cli = new CalculatorCLI();
         cli.run();
@@ -4,23 +4,43 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * Swing front end. Calculations run on background threads through {@link SwingWorker}, so
+ * the window stays responsive during long ones (large factorials): a progress bar appears
+ * after a short delay, C or Esc cancels, and presses made meanwhile are queued and
+ * replayed once the result is in. The operand/operator state is an immutable
+ * {@link SessionState}, replaced on every press.
+ */
 public class CalculatorGUI extends JFrame implements ActionListener {
+
+    // 1,000,000! has 5.5 million digits and takes seconds; larger inputs are refused
+    private static final int MAX_FACTORIAL = 1_000_000;
+    private static final int PROGRESS_DELAY_MILLIS = 150;
     
     private Calculator calculator;
     private JTextField display;
-    private StringBuilder currentInput;
-    private double operand1;
-    private String lastOperation;
-    private boolean newInput;
+    private SessionState state = SessionState.INITIAL;
+    private CalculationHistory history;
+    private JProgressBar progressBar;
+    private Timer progressDelay;
+    private SwingWorker<Computation, Void> computation;
+    private final Deque<String> pendingCommands = new ArrayDeque<>();
+    private String lastCommand = "";
 
     public CalculatorGUI() {
-        calculator = new Calculator();
-        currentInput = new StringBuilder("0");
-        operand1 = 0;
-        lastOperation = "";
-        newInput = true;
-        
+        calculator = new InstrumentedCalculator();
+        history = CalculationHistory.openConfigured();
         initializeUI();
     }
 
@@ -29,6 +49,22 @@ public class CalculatorGUI extends JFrame implements ActionListener {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
         setResizable(false);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (history != null) {
+                    history.close();
+                }
+            }
+        });
+
+        JMenuBar menuBar = new JMenuBar();
+        JMenu historyMenu = new JMenu("History");
+        JMenuItem showHistory = new JMenuItem("Show Recent");
+        showHistory.addActionListener(e -> showHistory());
+        historyMenu.add(showHistory);
+        menuBar.add(historyMenu);
+        setJMenuBar(menuBar);
 
         display = new JTextField("0");
         display.setFont(new Font("Arial", Font.BOLD, 24));
@@ -80,6 +116,24 @@ public class CalculatorGUI extends JFrame implements ActionListener {
 
         add(buttonPanel, BorderLayout.CENTER);
 
+        progressBar = new JProgressBar();
+        progressBar.setPreferredSize(new Dimension(400, 6));
+        progressBar.setBorderPainted(false);
+        add(progressBar, BorderLayout.SOUTH);
+        // only show progress for computations that are not instant
+        progressDelay = new Timer(PROGRESS_DELAY_MILLIS, e -> progressBar.setIndeterminate(true));
+        progressDelay.setRepeats(false);
+
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "clear");
+        getRootPane().getActionMap().put("clear", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cancelComputation();
+                clearAll();
+            }
+        });
+
         pack();
         setLocationRelativeTo(null);
     }
@@ -87,14 +141,23 @@ public class CalculatorGUI extends JFrame implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         String command = e.getActionCommand();
-        
+        if (command.equals("C")) {
+            cancelComputation();
+            clearAll();
+        } else if (computation != null) {
+            enqueue(command);
+        } else {
+            dispatch(command);
+        }
+    }
+
+    private void dispatch(String command) {
+        lastCommand = command;
         try {
             if (command.matches("[0-9]")) {
                 handleDigit(command);
             } else if (command.equals(".")) {
                 handleDecimal();
-            } else if (command.equals("C")) {
-                clearAll();
             } else if (command.equals("CE")) {
                 clearEntry();
             } else if (command.equals("←")) {
@@ -103,7 +166,7 @@ public class CalculatorGUI extends JFrame implements ActionListener {
                        command.equals("×") || command.equals("÷") || command.equals("x^y")) {
                 handleOperation(command);
             } else if (command.equals("=")) {
-                calculateResult();
+                calculateResult(null);
             } else if (command.equals("√")) {
                 handleSqrt();
             } else if (command.equals("n!")) {
@@ -118,94 +181,151 @@ public class CalculatorGUI extends JFrame implements ActionListener {
         }
     }
 
-    private void handleDigit(String digit) {
-        if (newInput) {
-            currentInput = new StringBuilder(digit);
-            newInput = false;
-        } else {
-            currentInput.append(digit);
+    /**
+     * Queues a press that arrives while a computation is running, to be replayed in order
+     * once it finishes. A repeated {@code =} or binary operator collapses into one, since
+     * pressing it again changes nothing; everything else, including the unary functions
+     * (16 √ √ is 2, not 4), is replayed in full.
+     */
+    private void enqueue(String command) {
+        String previous = pendingCommands.isEmpty() ? lastCommand : pendingCommands.peekLast();
+        boolean idempotent = command.equals("=") || SessionState.binaryOperation(command) != null;
+        if (!idempotent || !command.equals(previous)) {
+            pendingCommands.addLast(command);
         }
-        display.setText(currentInput.toString());
     }
 
-    private void handleDecimal() {
-        if (newInput) {
-            currentInput = new StringBuilder("0.");
-            newInput = false;
-        } else if (!currentInput.toString().contains(".")) {
-            currentInput.append(".");
+    /**
+     * Runs {@code operation} on a background thread; the result is displayed, recorded and
+     * followed by {@code then} back on the event dispatch thread.
+     */
+    private void compute(Operation operation, double a, double b, Runnable then) {
+        SwingWorker<Computation, Void> worker = new SwingWorker<Computation, Void>() {
+            @Override
+            protected Computation doInBackground() {
+                return evaluate(operation, a, b);
+            }
+
+            @Override
+            protected void done() {
+                finish(this, then);
+            }
+        };
+        computation = worker;
+        progressDelay.restart();
+        worker.execute();
+    }
+
+    private Computation evaluate(Operation operation, double a, double b) {
+        if (operation == Operation.FACTORIAL && a > Factorials.MAX_LONG_FACTORIAL) {
+            BigInteger result = calculator.bigFactorial((int) a);
+            if (Thread.currentThread().isInterrupted()) {
+                // cancelled after the product finished; skip formatting its millions of digits
+                throw new CancellationException("Factorial cancelled");
+            }
+            String text = ResultFormatter.DISPLAY.format(result, new StringBuilder()).toString();
+            return new Computation(operation, a, b, result.doubleValue(), text);
         }
-        display.setText(currentInput.toString());
+        if (operation == Operation.FACTORIAL) {
+            long result = calculator.factorial((int) a);
+            return new Computation(operation, a, b, result, String.valueOf(result));
+        }
+        double result = operation.apply(calculator, a, b);
+        return new Computation(operation, a, b, result, formatResult(result));
+    }
+
+    private void finish(SwingWorker<Computation, Void> worker, Runnable then) {
+        if (worker != computation) {
+            return; // cancelled
+        }
+        stopProgress();
+        try {
+            Computation result = worker.get();
+            state = state.withResult(result.text);
+            display.setText(result.text);
+            record(result.operation, result.a, result.b, result.value);
+            if (then != null) {
+                then.run();
+            }
+        } catch (ExecutionException e) {
+            showError(e.getCause().getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        while (computation == null && !pendingCommands.isEmpty()) {
+            dispatch(pendingCommands.pollFirst());
+        }
+    }
+
+    /**
+     * Abandons the running computation, if any, and every press queued behind it.
+     */
+    private void cancelComputation() {
+        if (computation != null) {
+            computation.cancel(true);
+            stopProgress();
+        }
+        pendingCommands.clear();
+    }
+
+    private void stopProgress() {
+        computation = null;
+        progressDelay.stop();
+        progressBar.setIndeterminate(false);
+    }
+
+    private void handleDigit(String digit) {
+        state = state.digit(digit.charAt(0));
+        display.setText(state.input());
+    }
+
+    private void handleDecimal() {
+        state = state.decimal();
+        display.setText(state.input());
     }
 
     private void clearAll() {
-        currentInput = new StringBuilder("0");
-        display.setText("0");
-        operand1 = 0;
-        lastOperation = "";
-        newInput = true;
+        state = state.clear();
+        display.setText(state.input());
     }
 
     private void clearEntry() {
-        currentInput = new StringBuilder("0");
-        display.setText("0");
-        newInput = true;
+        state = state.clearEntry();
+        display.setText(state.input());
     }
 
     private void backspace() {
-        if (!newInput && currentInput.length() > 0) {
-            currentInput.deleteCharAt(currentInput.length() - 1);
-            if (currentInput.length() == 0 || currentInput.toString().equals("-")) {
-                currentInput = new StringBuilder("0");
-            }
-            display.setText(currentInput.toString());
-        }
+        state = state.backspace();
+        display.setText(state.input());
     }
 
     private void handleOperation(String op) {
-        if (!lastOperation.isEmpty() && !newInput) {
-            calculateResult();
+        Operation operation = SessionState.binaryOperation(op);
+        if (state.pending() != null && !state.isNewInput()) {
+            calculateResult(() -> state = state.startOperation(operation));
+        } else {
+            state = state.startOperation(operation);
         }
-        operand1 = getCurrentValue();
-        lastOperation = op;
-        newInput = true;
     }
 
-    private void calculateResult() {
-        if (!lastOperation.isEmpty()) {
-            double operand2 = getCurrentValue();
-            double result = 0;
-
-            switch (lastOperation) {
-                case "+":
-                    result = calculator.add(operand1, operand2);
-                    break;
-                case "-":
-                    result = calculator.subtract(operand1, operand2);
-                    break;
-                case "×":
-                    result = calculator.multiply(operand1, operand2);
-                    break;
-                case "÷":
-                    result = calculator.divide(operand1, operand2);
-                    break;
-                case "x^y":
-                    result = calculator.power(operand1, operand2);
-                    break;
+    private void calculateResult(Runnable then) {
+        Operation operation = state.pending();
+        if (operation == null) {
+            if (then != null) {
+                then.run();
             }
-
-            displayResult(result);
-            lastOperation = "";
-            operand1 = 0;
-            newInput = true;
+            return;
         }
+        double left = state.operand();
+        double operand2 = state.value();
+        state = state.withoutPending();
+        compute(operation, left, operand2, then);
     }
 
     private void handleSqrt() {
-        double value = getCurrentValue();
-        double result = calculator.sqrt(value);
-        displayResult(result);
-        newInput = true;
+        compute(Operation.SQRT, getCurrentValue(), 0, null);
     }
 
     private void handleFactorial() {
@@ -213,66 +333,96 @@ public class CalculatorGUI extends JFrame implements ActionListener {
         if (value != (int) value || value < 0) {
             throw new IllegalArgumentException("Factorial only defined for non-negative integers");
         }
-        long result = calculator.factorial((int) value);
-        displayResult(result);
-        newInput = true;
+        if (value > MAX_FACTORIAL) {
+            throw new IllegalArgumentException("Factorial too large to compute (n > " + MAX_FACTORIAL + ")");
+        }
+        compute(Operation.FACTORIAL, value, 0, null);
     }
 
     private void handleLn() {
-        double value = getCurrentValue();
-        double result = calculator.ln(value);
-        displayResult(result);
-        newInput = true;
+        compute(Operation.LN, getCurrentValue(), 0, null);
     }
 
     private void handleSignChange() {
-        if (!currentInput.toString().equals("0")) {
-            if (currentInput.charAt(0) == '-') {
-                currentInput.deleteCharAt(0);
-            } else {
-                currentInput.insert(0, '-');
-            }
-            display.setText(currentInput.toString());
-        }
+        state = state.negate();
+        display.setText(state.input());
     }
 
     private double getCurrentValue() {
-        try {
-            return Double.parseDouble(currentInput.toString());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+        return state.value();
     }
 
-    private void displayResult(double result) {
-        String formatted = formatResult(result);
-        currentInput = new StringBuilder(formatted);
-        display.setText(formatted);
+    static String formatResult(double result) {
+        return ResultFormatter.DISPLAY.format(result);
     }
 
-    private void displayResult(long result) {
-        String formatted = String.valueOf(result);
-        currentInput = new StringBuilder(formatted);
-        display.setText(formatted);
+    private void record(Operation operation, double a, double b, double result) {
+        if (history == null || operation == null) {
+            return;
+        }
+        try {
+            history.append(operation, a, b, result);
+        } catch (IOException e) {
+            history.close();
+            history = null;
+            JOptionPane.showMessageDialog(this, "History disabled: " + e.getMessage(), "History",
+                    JOptionPane.WARNING_MESSAGE);
+        }
     }
 
-    private String formatResult(double result) {
-        if (result == (long) result) {
-            return String.format("%d", (long) result);
-        } else {
-            return String.format("%.10f", result).replaceAll("0*$", "").replaceAll("\\.$", "");
+    private void showHistory() {
+        if (history == null) {
+            JOptionPane.showMessageDialog(this, "History is not available.", "History",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        List<HistoryEntry> entries = history.recent(20);
+        StringBuilder text = new StringBuilder();
+        for (HistoryEntry entry : entries) {
+            text.append('#').append(entry.sequence()).append("  ").append(entry).append('\n');
         }
+        JTextArea area = new JTextArea(entries.isEmpty() ? "No calculations yet." : text.toString());
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "History", JOptionPane.PLAIN_MESSAGE);
     }
 
     private void showError(String message) {
+        cancelComputation();
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
         clearAll();
     }
 
-    public static void main(String[] args) {
+    /**
+     * Outcome of a background computation, handed back to the event dispatch thread.
+     */
+    private static final class Computation {
+        final Operation operation;
+        final double a;
+        final double b;
+        final double value;
+        final String text;
+
+        Computation(Operation operation, double a, double b, double value, String text) {
+            this.operation = operation;
+            this.a = a;
+            this.b = b;
+            this.value = value;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Opens the calculator window on the event dispatch thread.
+     */
+    public static void launch() {
         SwingUtilities.invokeLater(() -> {
             CalculatorGUI calculator = new CalculatorGUI();
             calculator.setVisible(true);
         });
     }
+
+    public static void main(String[] args) {
+        launch();
+    }
 }
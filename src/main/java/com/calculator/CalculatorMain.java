@@ -1,12 +1,53 @@
 package com.calculator;
 
-import javax.swing.SwingUtilities;
+import java.io.IOException;
 import java.util.Scanner;
 
+/**
+ * Entry point. The mode can be given directly ({@code cli}, {@code gui},
+ * {@code server [port]}, {@code batch [input|-] [output]},
+ * {@code columns <operation> <input> <output>} or {@code worker [port]}); without arguments a menu
+ * asks for it. Swing is only loaded when the GUI is chosen, so the other modes start
+ * without paying for AWT initialization.
+ */
 public class CalculatorMain {
     // helloawdawd
     //iwuahdawiudhb
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            switch (args[0]) {
+                case "cli":
+                    new CalculatorCLI().run();
+                    return;
+                case "gui":
+                    CalculatorGUI.launch();
+                    return;
+                case "server":
+                    startServer(args.length > 1 ? parsePort(args[1]) : CalculatorServer.DEFAULT_PORT);
+                    return;
+                case "batch":
+                    CalculatorCLI.runBatch(args.length > 1 ? args[1] : null, args.length > 2 ? args[2] : null);
+                    return;
+                case "columns":
+                    if (args.length == 4) {
+                        try {
+                            CalculatorCLI.runColumns(args[1], args[2], args[3]);
+                        } catch (IllegalArgumentException | IOException e) {
+                            System.err.println("Error: " + e.getMessage());
+                            System.exit(2);
+                        }
+                        return;
+                    }
+                    break;
+                case "worker":
+                    startWorker(args.length > 1 ? parsePort(args[1]) : BatchWorker.DEFAULT_PORT);
+                    return;
+                default:
+                    break;
+            }
+            exitWithUsage();
+        }
+        
         System.out.println("╔════════════════════════════════════════╗");
         System.out.println("║     Scientific Calculator v1.0         ║");
         System.out.println("║         Choose Your Mode               ║");
@@ -15,8 +56,9 @@ public class CalculatorMain {
         System.out.println("Select calculator mode:");
         System.out.println("  1. CLI Mode (Command Line Interface)");
         System.out.println("  2. GUI Mode (Graphical User Interface)");
+        System.out.println("  3. Server Mode (HTTP on port " + CalculatorServer.DEFAULT_PORT + ")");
         System.out.println();
-        System.out.print("Enter your choice (1 or 2): ");
+        System.out.print("Enter your choice (1, 2 or 3): ");
         
         Scanner scanner = new Scanner(System.in);
         int choice = 0;
@@ -25,7 +67,7 @@ public class CalculatorMain {
             choice = scanner.nextInt();
         } catch (Exception e) {
             System.out.println("\n✗ Invalid input! Exiting.");
-            choice = 3;
+            choice = -1;
         }
         
         System.out.println();
@@ -38,17 +80,50 @@ public class CalculatorMain {
         } else if (choice == 2) {
             System.out.println("Starting GUI Mode...\n");
             scanner.close();
-            SwingUtilities.invokeLater(() -> {
-                CalculatorGUI calculator = new CalculatorGUI();
-                calculator.setVisible(true);
-            });
-        } else if(choice == 3){
+            CalculatorGUI.launch();
+        } else if (choice == 3) {
+            scanner.close();
+            startServer(CalculatorServer.DEFAULT_PORT);
+        } else if(choice == -1){
             // Exit on invalid input
             System.out.println("Exiting application.");
             scanner.close();
         } else {
-            System.out.println("✗ Invalid choice! Please run again and select 1 or 2.");
+            System.out.println("✗ Invalid choice! Please run again and select 1, 2 or 3.");
             scanner.close();
         }
     }
+    
+    private static void exitWithUsage() {
+        System.err.println("Usage: java -jar scientific-calculator.jar "
+                + "[cli | gui | server [port] | batch [input|-] [output] | columns <operation> <input> <output>"
+                + " | worker [port]]");
+        System.exit(2);
+    }
+
+    private static int parsePort(String text) {
+        try {
+            int port = Integer.parseInt(text);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Invalid port: " + text);
+        exitWithUsage();
+        return -1;
+    }
+
+    private static void startServer(int port) throws IOException {
+        CalculatorServer server = new CalculatorServer(port);
+        server.start();
+        System.out.println("Scientific Calculator server listening on port " + server.getPort());
+    }
+
+    private static void startWorker(int port) throws IOException {
+        BatchWorker worker = new BatchWorker(port);
+        worker.start();
+        BatchWorker.announce(worker.getPort());
+    }
 }
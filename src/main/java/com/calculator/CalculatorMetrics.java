@@ -0,0 +1,196 @@
+package com.calculator;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Per-operation call counts, error counts and latency histograms, recorded by
+ * {@link InstrumentedCalculator}. Recording is off unless enabled (at startup with
+ * {@code -Dcalculator.metrics=true}, or at runtime through JMX); while off, an instrumented
+ * call costs a single volatile read.
+ */
+public class CalculatorMetrics implements CalculatorMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.calculator:type=CalculatorMetrics";
+
+    static final long DISABLED = Long.MIN_VALUE;
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private static volatile CalculatorMetrics global;
+
+    private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] errors = new LongAdder[OPERATIONS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private volatile boolean enabled;
+
+    public CalculatorMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            calls[i] = new LongAdder();
+            errors[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * The process-wide instance shared by the CLI, GUI and server. It starts enabled when
+     * the {@code calculator.metrics} system property is true, and is registered with the
+     * platform MBean server either way, so a JMX client can switch it on later.
+     */
+    public static CalculatorMetrics global() {
+        CalculatorMetrics metrics = global;
+        if (metrics == null) {
+            synchronized (CalculatorMetrics.class) {
+                metrics = global;
+                if (metrics == null) {
+                    metrics = new CalculatorMetrics(Boolean.getBoolean("calculator.metrics"));
+                    metrics.registerMBean();
+                    global = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Registers this instance with the platform MBean server; does nothing if an instance
+     * is already registered under {@link #OBJECT_NAME}.
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return a start timestamp to pass to {@link #succeeded} or {@link #failed}, or
+     *         {@link #DISABLED} when not recording
+     */
+    long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    void succeeded(Operation operation, long start) {
+        if (start != DISABLED) {
+            long elapsed = System.nanoTime() - start;
+            calls[operation.ordinal()].increment();
+            latencies[operation.ordinal()].record(elapsed);
+        }
+    }
+
+    void failed(Operation operation, long start) {
+        if (start != DISABLED) {
+            errors[operation.ordinal()].increment();
+            succeeded(operation, start);
+        }
+    }
+
+    public long getCount(Operation operation) {
+        return calls[operation.ordinal()].sum();
+    }
+
+    public long getErrors(Operation operation) {
+        return errors[operation.ordinal()].sum();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public long getLatencyNanos(Operation operation, double percentile) {
+        return latencies[operation.ordinal()].percentile(percentile);
+    }
+
+    @Override
+    public long getTotalOperations() {
+        long total = 0;
+        for (LongAdder adder : calls) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (LongAdder adder : errors) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            counts.put(operation.token(), getCount(operation));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            counts.put(operation.token(), getErrors(operation));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        Map<String, Long> latency = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            latency.put(operation.token(), getLatencyNanos(operation, 99));
+        }
+        return latency;
+    }
+
+    /**
+     * Plain-text table of every operation's counts and latency percentiles in nanoseconds.
+     */
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-10s %12s %10s %10s %10s %10s %10s %12s%n",
+                "operation", "count", "errors", "mean_ns", "p50_ns", "p99_ns", "p999_ns", "max_ns"));
+        for (Operation operation : OPERATIONS) {
+            LatencyHistogram histogram = latencies[operation.ordinal()];
+            report.append(String.format(Locale.ROOT, "%-10s %12d %10d %10.0f %10d %10d %10d %12d%n",
+                    operation.token(), getCount(operation), getErrors(operation), histogram.mean(),
+                    histogram.percentile(50), histogram.percentile(99), histogram.percentile(99.9),
+                    histogram.max()));
+        }
+        report.append("enabled: ").append(enabled).append('\n');
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            calls[i].reset();
+            errors[i].reset();
+            latencies[i].reset();
+        }
+    }
+}
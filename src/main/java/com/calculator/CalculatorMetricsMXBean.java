@@ -0,0 +1,27 @@
+package com.calculator;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link CalculatorMetrics}, registered as {@value CalculatorMetrics#OBJECT_NAME}.
+ */
+public interface CalculatorMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getTotalOperations();
+
+    long getTotalErrors();
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getErrorCounts();
+
+    Map<String, Long> getP99LatencyNanos();
+
+    String getReport();
+
+    void reset();
+}
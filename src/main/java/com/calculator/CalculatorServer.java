@@ -0,0 +1,201 @@
+package com.calculator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless HTTP front end for {@link Calculator}, built on the JDK's {@code com.sun.net.httpserver}.
+ *
+ * <pre>
+ * GET  /api/{operation}?a=..&amp;b=..   single operation, e.g. /api/power?a=2&amp;b=10
+ * POST /api/batch                     one "operation,a[,b]" per line, see {@link BatchProcessor}
+ * GET  /health                        liveness probe
+ * GET  /metrics                       operation counts and latencies, see {@link CalculatorMetrics}
+ * </pre>
+ *
+ * Every response carries a Content-Length so connections stay alive between requests,
+ * and requests pipelined on one connection are answered in order. Requests run on
+ * virtual threads when the runtime has them (JDK 21+) and on a fixed pool otherwise.
+ */
+public class CalculatorServer {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String TEXT_PLAIN = "text/plain; charset=utf-8";
+
+    private final Calculator calculator;
+    private final BatchProcessor batchProcessor;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public CalculatorServer(int port) throws IOException {
+        this(port, new InstrumentedCalculator());
+    }
+
+    public CalculatorServer(int port, Calculator calculator) throws IOException {
+        this.calculator = calculator;
+        this.batchProcessor = new BatchProcessor(calculator);
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handleApi);
+        server.createContext("/health", exchange -> respond(exchange, 200, "OK"));
+        server.createContext("/metrics", this::handleMetrics);
+        if (calculator instanceof InstrumentedCalculator) {
+            ((InstrumentedCalculator) calculator).getMetrics().registerMBean();
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        String name = exchange.getRequestURI().getPath().substring("/api/".length());
+        try {
+            if (name.equals("batch")) {
+                handleBatch(exchange);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("GET")) {
+                drain(exchange.getRequestBody());
+                respond(exchange, 405, "Method not allowed");
+                return;
+            }
+            Operation operation = Operation.fromToken(name);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            double a = parseParameter(query, "a");
+            double b = operation.arity() == 2 ? parseParameter(query, "b") : 0;
+            respond(exchange, 200, evaluate(operation, a, b));
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            respond(exchange, 400, "Error: " + e.getMessage());
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        drain(exchange.getRequestBody());
+        if (!(calculator instanceof InstrumentedCalculator)) {
+            respond(exchange, 404, "Metrics not available");
+            return;
+        }
+        respond(exchange, 200, ((InstrumentedCalculator) calculator).getMetrics().getReport());
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            drain(exchange.getRequestBody());
+            respond(exchange, 405, "Method not allowed");
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            batchProcessor.process(reader, writer);
+        }
+        respond(exchange, 200, buffer.toByteArray());
+    }
+
+    private String evaluate(Operation operation, double a, double b) {
+        if (operation == Operation.FACTORIAL) {
+            // keep all 19 digits of 20!, which a double cannot represent
+            return Long.toString(calculator.factorial(Operation.toFactorialArgument(a)));
+        }
+        return NumberFormatter.formatDouble(operation.apply(calculator, a, b));
+    }
+
+    private static double parseParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter '" + name + "'");
+        }
+        try {
+            return NumberParser.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number format for '" + name + "'");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", TEXT_PLAIN);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void drain(InputStream body) throws IOException {
+        // unread request bodies would otherwise force the connection closed
+        body.transferTo(OutputStream.nullOutputStream());
+    }
+
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        }
+    }
+
+    /**
+     * Same as {@code CalculatorMain server [port]}, including its port validation.
+     */
+    public static void main(String[] args) throws IOException {
+        String[] serverArgs = new String[args.length + 1];
+        serverArgs[0] = "server";
+        System.arraycopy(args, 0, serverArgs, 1, args.length);
+        CalculatorMain.main(serverArgs);
+    }
+}
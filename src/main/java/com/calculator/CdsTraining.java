@@ -0,0 +1,62 @@
+package com.calculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Training run for the class-data-sharing archive ({@code mvn -Pcds package}): the batch
+ * workload in {@code src/cds/training.txt}, then a server on a free port answering one
+ * request of each kind before it stops, so the archive covers both the {@code batch} and the
+ * {@code server} startup paths.
+ *
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=app.jsa -cp app.jar com.calculator.CdsTraining input output
+ * </pre>
+ */
+final class CdsTraining {
+
+    private CdsTraining() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CdsTraining <batch input> <batch output>");
+            System.exit(2);
+        }
+        CalculatorCLI.runBatch(args[0], args[1]);
+
+        CalculatorServer server = new CalculatorServer(0);
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getPort();
+            request(base + "/api/power?a=2&b=10", null);
+            request(base + "/api/sqrt?a=-1", null);
+            request(base + "/api/batch", "add,1,2\nfactorial,5\nln,0\n");
+            request(base + "/health", null);
+            request(base + "/metrics", null);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void request(String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+    }
+}
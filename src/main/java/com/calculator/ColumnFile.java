@@ -0,0 +1,327 @@
+package com.calculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Binary columnar file of fixed-width numeric columns, read and written through memory
+ * mappings so batch jobs never parse text and can process files larger than the heap.
+ *
+ * <pre>
+ * file       = header, columnCount * descriptor, columnCount * column
+ * header     = int magic "CCOL", short version, short column count, long row count  (16 bytes)
+ * descriptor = byte type (1 = double, 2 = long), byte name length,
+ *              14 bytes ASCII name, zero-padded                                     (16 bytes)
+ * column     = row count * 8-byte values, in descriptor order
+ * </pre>
+ *
+ * All values are little-endian, and every column starts on an 8-byte boundary. Columns
+ * are mapped in windows of at most {@link #MAX_WINDOW_ROWS} rows; the returned buffers
+ * view the page cache directly, without copying.
+ */
+public class ColumnFile implements Closeable {
+
+    public static final int MAX_WINDOW_ROWS = 1 << 20;
+
+    static final int HEADER_SIZE = 16;
+    static final int DESCRIPTOR_SIZE = 16;
+    static final int MAX_NAME_LENGTH = 14;
+
+    private static final int MAGIC = 0x4C_4F_43_43; // "CCOL" little-endian
+    private static final short VERSION = 1;
+
+    /**
+     * Element type of a column.
+     */
+    public enum Type {
+        DOUBLE(1),
+        LONG(2);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) throws IOException {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IOException("Unknown column type " + code);
+        }
+    }
+
+    /**
+     * Name and type of a column, for {@link #create}.
+     */
+    public static final class Column {
+        private final String name;
+        private final Type type;
+
+        private Column(String name, Type type) {
+            if (name.isEmpty() || name.length() > MAX_NAME_LENGTH
+                    || !StandardCharsets.US_ASCII.newEncoder().canEncode(name)) {
+                throw new IllegalArgumentException("Column names must be 1-" + MAX_NAME_LENGTH + " ASCII characters");
+            }
+            this.name = name;
+            this.type = type;
+        }
+
+        public static Column doubles(String name) {
+            return new Column(name, Type.DOUBLE);
+        }
+
+        public static Column longs(String name) {
+            return new Column(name, Type.LONG);
+        }
+    }
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final long rowCount;
+    private final String[] names;
+    private final Type[] types;
+
+    private ColumnFile(FileChannel channel, boolean writable, long rowCount, String[] names, Type[] types) {
+        this.channel = channel;
+        this.writable = writable;
+        this.rowCount = rowCount;
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * Creates (or replaces) a file with the given columns, all values zero, open for
+     * reading and writing.
+     */
+    public static ColumnFile create(Path path, long rowCount, Column... columns) throws IOException {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("Row count must be non-negative");
+        }
+        if (columns.length == 0 || columns.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("A column file needs 1-" + Short.MAX_VALUE + " columns");
+        }
+        String[] names = new String[columns.length];
+        Type[] types = new Type[columns.length];
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + columns.length * DESCRIPTOR_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) columns.length).putLong(rowCount);
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = columns[i].name;
+            types[i] = columns[i].type;
+            byte[] name = names[i].getBytes(StandardCharsets.US_ASCII);
+            header.put(types[i].code).put((byte) name.length).put(name);
+            header.position(HEADER_SIZE + (i + 1) * DESCRIPTOR_SIZE);
+        }
+        header.flip();
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            long size = dataOffset(columns.length) + columns.length * rowCount * Long.BYTES;
+            if (size > channel.size()) {
+                // extend the file (sparsely, where supported) to its full size
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new ColumnFile(channel, true, rowCount, names, types);
+    }
+
+    /**
+     * Opens an existing file, read-only unless {@code writable}.
+     */
+    public static ColumnFile open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a column file: " + path);
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported column file version " + version + ": " + path);
+            }
+            int columnCount = header.getShort();
+            long rowCount = header.getLong();
+            if (columnCount < 1 || rowCount < 0) {
+                throw new IOException("Corrupt column file header: " + path);
+            }
+            String[] names = new String[columnCount];
+            Type[] types = new Type[columnCount];
+            ByteBuffer descriptors = read(channel, HEADER_SIZE, columnCount * DESCRIPTOR_SIZE);
+            for (int i = 0; i < columnCount; i++) {
+                descriptors.position(i * DESCRIPTOR_SIZE);
+                types[i] = Type.of(descriptors.get());
+                int nameLength = descriptors.get();
+                if (nameLength < 1 || nameLength > MAX_NAME_LENGTH) {
+                    throw new IOException("Corrupt column descriptor " + i + ": " + path);
+                }
+                byte[] name = new byte[nameLength];
+                descriptors.get(name);
+                names[i] = new String(name, StandardCharsets.US_ASCII);
+            }
+            long size;
+            try {
+                size = Math.addExact(dataOffset(columnCount),
+                        Math.multiplyExact(Math.multiplyExact((long) columnCount, rowCount), Long.BYTES));
+            } catch (ArithmeticException e) {
+                throw new IOException("Corrupt column file header: " + path);
+            }
+            if (channel.size() < size) {
+                throw new IOException("Truncated column file: " + path);
+            }
+            return new ColumnFile(channel, writable, rowCount, names, types);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    public Type getColumnType(int column) {
+        return types[column];
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no column with that name
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column named " + name);
+    }
+
+    /**
+     * Maps rows {@code [firstRow, firstRow + rows)} of a double column; writes go straight to
+     * the file when it is open for writing.
+     */
+    public DoubleBuffer doubles(int column, long firstRow, int rows) throws IOException {
+        return map(column, Type.DOUBLE, firstRow, rows).asDoubleBuffer();
+    }
+
+    /**
+     * Maps rows {@code [firstRow, firstRow + rows)} of a long column.
+     */
+    public LongBuffer longs(int column, long firstRow, int rows) throws IOException {
+        return map(column, Type.LONG, firstRow, rows).asLongBuffer();
+    }
+
+    MappedByteBuffer map(int column, Type type, long firstRow, int rows) throws IOException {
+        Objects.checkIndex(column, names.length);
+        if (types[column] != type) {
+            throw new IllegalArgumentException("Column " + names[column] + " holds " + types[column] + " values");
+        }
+        if (rows < 0 || rows > MAX_WINDOW_ROWS || firstRow < 0 || firstRow > rowCount - rows) {
+            throw new IndexOutOfBoundsException("Rows [" + firstRow + ", " + firstRow + " + " + rows
+                    + ") out of bounds for " + rowCount + " rows (at most " + MAX_WINDOW_ROWS + " per window)");
+        }
+        long offset = dataOffset(names.length) + (column * rowCount + firstRow) * Long.BYTES;
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                offset, (long) rows * Long.BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Applies {@code operation} row by row to double columns of {@code source}, writing each
+     * result (NaN for a domain error) into a double column of {@code target}, one mapped
+     * window at a time. Both files may be the same.
+     *
+     * @param b second operand column, or null for unary operations
+     * @return the number of rows that failed with a domain error
+     */
+    public static long apply(Calculator calculator, Operation operation, ColumnFile source, String a, String b,
+                             ColumnFile target, String result) throws IOException {
+        return apply(calculator, operation, source, a, b, target, result, MAX_WINDOW_ROWS);
+    }
+
+    static long apply(Calculator calculator, Operation operation, ColumnFile source, String a, String b,
+                      ColumnFile target, String result, int windowRows) throws IOException {
+        if (operation.arity() == 2 && b == null) {
+            throw new IllegalArgumentException(operation.token() + " expects 2 argument(s)");
+        }
+        if (!target.writable) {
+            throw new IllegalArgumentException("Target column file is read-only");
+        }
+        if (target.rowCount != source.rowCount) {
+            throw new IllegalArgumentException("Row counts differ: " + source.rowCount + " and " + target.rowCount);
+        }
+        int aColumn = source.columnIndex(a);
+        int bColumn = b == null ? -1 : source.columnIndex(b);
+        int resultColumn = target.columnIndex(result);
+        CalculationResult holder = new CalculationResult();
+        long failures = 0;
+        for (long firstRow = 0; firstRow < source.rowCount; firstRow += windowRows) {
+            int rows = (int) Math.min(windowRows, source.rowCount - firstRow);
+            DoubleBuffer first = source.doubles(aColumn, firstRow, rows);
+            DoubleBuffer second = bColumn < 0 ? null : source.doubles(bColumn, firstRow, rows);
+            MappedByteBuffer window = target.map(resultColumn, Type.DOUBLE, firstRow, rows);
+            DoubleBuffer out = window.asDoubleBuffer();
+            for (int i = 0; i < rows; i++) {
+                if (!operation.tryApply(calculator, first.get(i), second == null ? 0 : second.get(i), holder).isOk()) {
+                    failures++;
+                }
+                out.put(i, holder.value());
+            }
+            window.force();
+        }
+        return failures;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static long dataOffset(int columnCount) {
+        return HEADER_SIZE + (long) columnCount * DESCRIPTOR_SIZE;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated column file header");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,335 @@
+package com.calculator;
+
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Single-pass summary statistics over a column of doubles: count, sum, mean, variance,
+ * min/max and geometric mean, without boxing.
+ *
+ * The sum and the sum of logarithms use Neumaier's compensated summation, so adding
+ * values of very different magnitude loses no more than the final rounding. The variance
+ * uses Welford's update, which avoids the cancellation of the sum-of-squares formula.
+ * Partial results merge exactly (Chan et al.), which is how {@link #parallel(double[])}
+ * reduces large columns across cores. Logarithms, exponentials and square roots go
+ * through the {@link Calculator} given at construction.
+ *
+ * An accumulator is not thread-safe; give each thread its own and {@link #combine} them.
+ * Statistics of an empty column are NaN.
+ */
+public final class ColumnStatistics {
+
+    static final int PARALLEL_GRAIN = 1 << 14;
+
+    // arrays are summarized in blocks that stay in L1 cache for the second (variance) pass;
+    // 256 mantissas in [1, 2) multiply to less than 2^256, far from overflow
+    private static final int BLOCK_SIZE = 256;
+    private static final long EXPONENT_BIAS = 1023;
+    private static final long MANTISSA_MASK = 0x000F_FFFF_FFFF_FFFFL;
+    private static final long ONE_BITS = Double.doubleToRawLongBits(1.0);
+    private static final double LN_2 = Math.log(2);
+
+    private final Calculator calculator;
+    private long count;
+    private double sum;
+    private double sumCompensation;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double logSum;
+    private double logCompensation;
+    private long logExponents;
+    private long nonPositive;
+
+    public ColumnStatistics() {
+        this(new Calculator());
+    }
+
+    public ColumnStatistics(Calculator calculator) {
+        this.calculator = calculator;
+    }
+
+    public static ColumnStatistics of(double[] column) {
+        ColumnStatistics statistics = new ColumnStatistics();
+        statistics.accept(column);
+        return statistics;
+    }
+
+    /**
+     * Summarizes the column with a fork-join reduction on the common pool.
+     */
+    public static ColumnStatistics parallel(double[] column) {
+        return parallel(DoubleBuffer.wrap(column), new Calculator());
+    }
+
+    /**
+     * Summarizes the buffer's remaining elements with a fork-join reduction on the common
+     * pool. The buffer's position is not changed.
+     */
+    public static ColumnStatistics parallel(DoubleBuffer column, Calculator calculator) {
+        Reduction reduction = new Reduction(column, calculator, column.position(), column.limit());
+        return column.remaining() <= PARALLEL_GRAIN ? reduction.compute() : ForkJoinPool.commonPool().invoke(reduction);
+    }
+
+    public void accept(double value) {
+        count++;
+        addToSum(value);
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value > 0) {
+            addToLogSum(calculator.ln(value));
+        } else {
+            nonPositive++;
+        }
+    }
+
+    public void accept(double[] column) {
+        accept(column, 0, column.length);
+    }
+
+    public void accept(double[] column, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, column.length);
+        for (int start = offset, end = offset + length; start < end; start += BLOCK_SIZE) {
+            acceptBlock(column, start, Math.min(end, start + BLOCK_SIZE));
+        }
+    }
+
+    /**
+     * Accepts the buffer's remaining elements without changing its position; works on heap,
+     * direct and memory-mapped buffers alike.
+     */
+    public void accept(DoubleBuffer column) {
+        if (column.hasArray()) {
+            accept(column.array(), column.arrayOffset() + column.position(), column.remaining());
+            return;
+        }
+        for (int i = column.position(), end = column.limit(); i < end; i++) {
+            accept(column.get(i));
+        }
+    }
+
+    /**
+     * Merges another accumulator's values into this one, as if they had been accepted here.
+     *
+     * @return this accumulator
+     */
+    public ColumnStatistics combine(ColumnStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            sumCompensation = other.sumCompensation;
+            mean = other.mean;
+            squaredDeviations = other.squaredDeviations;
+            min = other.min;
+            max = other.max;
+            logSum = other.logSum;
+            logCompensation = other.logCompensation;
+            logExponents = other.logExponents;
+            nonPositive = other.nonPositive;
+            return this;
+        }
+        merge(other.count, other.mean, other.squaredDeviations);
+        addToSum(other.sum);
+        addToSum(other.sumCompensation);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        addToLogSum(other.logSum);
+        addToLogSum(other.logCompensation);
+        logExponents += other.logExponents;
+        nonPositive += other.nonPositive;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the compensated sum; 0 for an empty column
+     */
+    public double getSum() {
+        double total = sum + sumCompensation;
+        // an infinite sum makes the compensation NaN
+        return Double.isNaN(total) && !Double.isNaN(sum) ? sum : total;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : getSum() / count;
+    }
+
+    /**
+     * @return the population variance (divided by n)
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDeviations / count;
+    }
+
+    /**
+     * @return the sample variance (divided by n - 1); NaN for fewer than two values
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * @return the population standard deviation
+     */
+    public double getStandardDeviation() {
+        return count == 0 ? Double.NaN : calculator.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return exp(mean of ln x); NaN if the column is empty or holds a non-positive value
+     */
+    public double getGeometricMean() {
+        if (count == 0 || nonPositive > 0) {
+            return Double.NaN;
+        }
+        double total = logSum + logCompensation;
+        if (Double.isNaN(total) && !Double.isNaN(logSum)) {
+            total = logSum;
+        }
+        return calculator.exp((total + logExponents * LN_2) / count);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{count=" + count + ", sum=" + getSum() + ", mean=" + getMean()
+                + ", variance=" + getVariance() + ", min=" + getMin() + ", max=" + getMax()
+                + ", geometricMean=" + getGeometricMean() + '}';
+    }
+
+    /**
+     * Two passes over a cache-resident block: the first accumulates the compensated sum,
+     * min/max and the product of the values' mantissas (their binary exponents are summed
+     * exactly), so a block costs one logarithm instead of one per value; the second sums
+     * squared deviations from the block mean, which is then merged like a partial state.
+     */
+    private void acceptBlock(double[] column, int from, int to) {
+        double blockSum = 0;
+        double blockCompensation = 0;
+        double blockMin = Double.POSITIVE_INFINITY;
+        double blockMax = Double.NEGATIVE_INFINITY;
+        double mantissas = 1;
+        long exponents = 0;
+        for (int i = from; i < to; i++) {
+            double value = column[i];
+            double total = blockSum + value;
+            if (Math.abs(blockSum) >= Math.abs(value)) {
+                blockCompensation += (blockSum - total) + value;
+            } else {
+                blockCompensation += (value - total) + blockSum;
+            }
+            blockSum = total;
+            blockMin = Math.min(blockMin, value);
+            blockMax = Math.max(blockMax, value);
+            if (value >= Double.MIN_NORMAL && value <= Double.MAX_VALUE) {
+                long bits = Double.doubleToRawLongBits(value);
+                exponents += (bits >>> 52) - EXPONENT_BIAS;
+                mantissas *= Double.longBitsToDouble((bits & MANTISSA_MASK) | ONE_BITS);
+            } else if (value > 0) {
+                // subnormal or infinite
+                addToLogSum(calculator.ln(value));
+            } else {
+                nonPositive++;
+            }
+        }
+        int n = to - from;
+        double blockMean = (blockSum + blockCompensation) / n;
+        double blockSquaredDeviations = 0;
+        for (int i = from; i < to; i++) {
+            double deviation = column[i] - blockMean;
+            blockSquaredDeviations += deviation * deviation;
+        }
+        merge(n, blockMean, blockSquaredDeviations);
+        addToSum(blockSum);
+        addToSum(blockCompensation);
+        min = Math.min(min, blockMin);
+        max = Math.max(max, blockMax);
+        addToLogSum(calculator.ln(mantissas));
+        logExponents += exponents;
+    }
+
+    /**
+     * Chan et al.'s update of count, mean and squared deviations with another partial state.
+     */
+    private void merge(long otherCount, double otherMean, double otherSquaredDeviations) {
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        squaredDeviations += otherSquaredDeviations + delta * delta * ((double) count * otherCount / total);
+        mean += delta * otherCount / total;
+        count = total;
+    }
+
+    private void addToSum(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            sumCompensation += (sum - total) + value;
+        } else {
+            sumCompensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+
+    private void addToLogSum(double value) {
+        double total = logSum + value;
+        if (Math.abs(logSum) >= Math.abs(value)) {
+            logCompensation += (logSum - total) + value;
+        } else {
+            logCompensation += (value - total) + logSum;
+        }
+        logSum = total;
+    }
+
+    private static final class Reduction extends RecursiveTask<ColumnStatistics> {
+        private final DoubleBuffer column;
+        private final Calculator calculator;
+        private final int from;
+        private final int to;
+
+        Reduction(DoubleBuffer column, Calculator calculator, int from, int to) {
+            this.column = column;
+            this.calculator = calculator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ColumnStatistics compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                ColumnStatistics statistics = new ColumnStatistics(calculator);
+                // absolute reads only, so slices can share one buffer without duplicating it
+                if (column.hasArray()) {
+                    statistics.accept(column.array(), column.arrayOffset() + from, to - from);
+                } else {
+                    for (int i = from; i < to; i++) {
+                        statistics.accept(column.get(i));
+                    }
+                }
+                return statistics;
+            }
+            int middle = (from + to) >>> 1;
+            Reduction low = new Reduction(column, calculator, from, middle);
+            low.fork();
+            ColumnStatistics high = new Reduction(column, calculator, middle, to).compute();
+            return low.join().combine(high);
+        }
+    }
+}
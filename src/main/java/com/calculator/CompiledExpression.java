@@ -0,0 +1,15 @@
+package com.calculator;
+
+/**
+ * An expression compiled into a tree of closures. Evaluation reads the variable values
+ * by slot from the supplied array and allocates nothing, so a compiled expression can be
+ * evaluated repeatedly (and concurrently) against different bindings.
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /**
+     * @param variables values of the variables, in the order given to {@link Expression#compile}
+     */
+    double evaluate(double[] variables);
+}
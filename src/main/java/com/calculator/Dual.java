@@ -0,0 +1,65 @@
+package com.calculator;
+
+/**
+ * A dual number {@code value + derivative·ε} with {@code ε² = 0}: a value together with its
+ * derivative along one direction, for forward-mode differentiation with a
+ * {@link DualCalculator}.
+ */
+public final class Dual {
+
+    private final double value;
+    private final double derivative;
+
+    private Dual(double value, double derivative) {
+        this.value = value;
+        this.derivative = derivative;
+    }
+
+    public static Dual of(double value, double derivative) {
+        return new Dual(value, derivative);
+    }
+
+    /**
+     * A quantity that does not vary with the differentiation variable.
+     */
+    public static Dual constant(double value) {
+        return new Dual(value, 0);
+    }
+
+    /**
+     * The differentiation variable itself, at {@code value}.
+     */
+    public static Dual variable(double value) {
+        return new Dual(value, 1);
+    }
+
+    public double value() {
+        return value;
+    }
+
+    public double derivative() {
+        return derivative;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Dual)) {
+            return false;
+        }
+        Dual other = (Dual) o;
+        return Double.compare(value, other.value) == 0 && Double.compare(derivative, other.derivative) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(value) + Double.hashCode(derivative);
+    }
+
+    @Override
+    public String toString() {
+        return value + " + " + derivative + "ε";
+    }
+}
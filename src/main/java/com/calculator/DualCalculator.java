@@ -0,0 +1,89 @@
+package com.calculator;
+
+import java.util.Objects;
+
+/**
+ * Forward-mode automatic differentiation: every {@link Calculator} operation lifted to
+ * {@link Dual} numbers. Values are computed by the wrapped calculator, with its domain
+ * errors and function kernel; derivatives follow by the chain rule.
+ */
+public class DualCalculator {
+
+    private static final double LN_10 = Math.log(10);
+
+    private final Calculator calculator;
+
+    public DualCalculator() {
+        this(new Calculator());
+    }
+
+    public DualCalculator(Calculator calculator) {
+        this.calculator = Objects.requireNonNull(calculator, "calculator");
+    }
+
+    public Dual add(Dual a, Dual b) {
+        return Dual.of(calculator.add(a.value(), b.value()), a.derivative() + b.derivative());
+    }
+
+    public Dual subtract(Dual a, Dual b) {
+        return Dual.of(calculator.subtract(a.value(), b.value()), a.derivative() - b.derivative());
+    }
+
+    public Dual multiply(Dual a, Dual b) {
+        return Dual.of(calculator.multiply(a.value(), b.value()),
+                a.derivative() * b.value() + a.value() * b.derivative());
+    }
+
+    public Dual divide(Dual a, Dual b) {
+        double quotient = calculator.divide(a.value(), b.value());
+        return Dual.of(quotient, (a.derivative() - quotient * b.derivative()) / b.value());
+    }
+
+    public Dual negate(Dual a) {
+        return Dual.of(-a.value(), -a.derivative());
+    }
+
+    public Dual sqrt(Dual a) {
+        double root = calculator.sqrt(a.value());
+        // a constant stays constant, even at 0 where the slope is infinite
+        return Dual.of(root, a.derivative() == 0 ? 0 : a.derivative() / (2 * root));
+    }
+
+    public Dual power(Dual base, Dual exponent) {
+        double x = base.value();
+        double y = exponent.value();
+        double power = calculator.power(x, y);
+        double derivative = 0;
+        if (base.derivative() != 0) {
+            derivative += base.derivative() * GradientTape.powerBaseDerivative(x, y, power);
+        }
+        if (exponent.derivative() != 0) {
+            derivative += exponent.derivative() * GradientTape.powerExponentDerivative(x, power);
+        }
+        return Dual.of(power, derivative);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the argument varies, as the factorial is only
+     *                                  defined on integers
+     */
+    public Dual factorial(Dual a) {
+        if (a.derivative() != 0) {
+            throw new IllegalArgumentException("Factorial is not differentiable");
+        }
+        return Dual.constant(calculator.factorial(Operation.toFactorialArgument(a.value())));
+    }
+
+    public Dual ln(Dual a) {
+        return Dual.of(calculator.ln(a.value()), a.derivative() / a.value());
+    }
+
+    public Dual log(Dual a) {
+        return Dual.of(calculator.log(a.value()), a.derivative() / (a.value() * LN_10));
+    }
+
+    public Dual exp(Dual a) {
+        double exp = calculator.exp(a.value());
+        return Dual.of(exp, a.derivative() * exp);
+    }
+}
@@ -0,0 +1,431 @@
+package com.calculator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Abstract syntax tree of an infix expression such as {@code 2^3 + ln(5)/sqrt(x)}.
+ * Parse once with {@link #parse(String)}, then {@link #compile(String...)} into a
+ * {@link CompiledExpression} for repeated evaluation, or {@link #gradient(String...)} into a
+ * {@link GradientTape} that also yields the partial derivatives. {@link #derivative(String)}
+ * differentiates symbolically.
+ */
+public abstract class Expression {
+
+    private static final double[] NO_VARIABLES = new double[0];
+    private static final double LN_10 = Math.log(10);
+
+    Expression() {
+    }
+
+    public static Expression parse(String text) {
+        return new ExpressionParser(text).parse();
+    }
+
+    /**
+     * Variable names in order of first appearance.
+     */
+    public List<String> variables() {
+        Set<String> names = new LinkedHashSet<>();
+        collectVariables(names);
+        return new ArrayList<>(names);
+    }
+
+    public CompiledExpression compile(String... variableNames) {
+        return compile(new Calculator(), variableNames);
+    }
+
+    /**
+     * Compiles the expression against the given calculator. Variables are bound to array
+     * slots in the order of {@code variableNames}; when none are given the order of
+     * {@link #variables()} is used.
+     */
+    public CompiledExpression compile(Calculator calculator, String... variableNames) {
+        return fold(calculator).toClosure(calculator, bind(variableNames));
+    }
+
+    public GradientTape gradient(String... variableNames) {
+        return gradient(new Calculator(), variableNames);
+    }
+
+    /**
+     * Compiles the expression into a reverse-mode gradient tape; variables are bound as in
+     * {@link #compile(Calculator, String...)}.
+     *
+     * @throws IllegalArgumentException if a factorial's argument depends on a variable
+     */
+    public GradientTape gradient(Calculator calculator, String... variableNames) {
+        Map<String, Integer> slots = bind(variableNames);
+        GradientTape.Builder builder = new GradientTape.Builder();
+        int root = fold(calculator).record(builder, slots);
+        return builder.build(calculator, slots.size(), root);
+    }
+
+    /**
+     * Symbolic derivative with respect to {@code variable}, with constant subtrees folded.
+     *
+     * @throws IllegalArgumentException if a factorial's argument depends on the variable
+     */
+    public Expression derivative(String variable) {
+        Calculator calculator = new Calculator();
+        return fold(calculator).differentiate(variable).fold(calculator);
+    }
+
+    private Map<String, Integer> bind(String... variableNames) {
+        List<String> names = variableNames.length == 0 ? variables() : List.of(variableNames);
+        Map<String, Integer> slots = new HashMap<>();
+        for (String name : names) {
+            if (slots.put(name, slots.size()) != null) {
+                throw new IllegalArgumentException("Duplicate variable: " + name);
+            }
+        }
+        for (String name : variables()) {
+            if (!slots.containsKey(name)) {
+                throw new IllegalArgumentException("Unbound variable: " + name);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Convenience for one-off evaluation of an expression without variables.
+     */
+    public double evaluate() {
+        List<String> names = variables();
+        if (!names.isEmpty()) {
+            throw new IllegalArgumentException("Unbound variable: " + names.get(0));
+        }
+        return compile().evaluate(NO_VARIABLES);
+    }
+
+    abstract void collectVariables(Set<String> names);
+
+    /**
+     * Returns an equivalent tree with every variable-free subtree replaced by its value.
+     * Subtrees that fail to evaluate are kept so the error surfaces at evaluation time.
+     */
+    abstract Expression fold(Calculator calculator);
+
+    abstract CompiledExpression toClosure(Calculator calculator, Map<String, Integer> slots);
+
+    abstract Expression differentiate(String variable);
+
+    /**
+     * Appends this subtree to the tape in evaluation order.
+     *
+     * @return the builder's reference to this node
+     */
+    abstract int record(GradientTape.Builder builder, Map<String, Integer> slots);
+
+    // builders that drop the additive and multiplicative identities, keeping derivatives small
+
+    static Expression sum(Expression a, Expression b) {
+        if (isConstant(a, 0)) {
+            return b;
+        }
+        return isConstant(b, 0) ? a : new Call(Operation.ADD, a, b);
+    }
+
+    static Expression difference(Expression a, Expression b) {
+        if (isConstant(b, 0)) {
+            return a;
+        }
+        return isConstant(a, 0) ? new Negation(b) : new Call(Operation.SUBTRACT, a, b);
+    }
+
+    static Expression product(Expression a, Expression b) {
+        if (isConstant(a, 0) || isConstant(b, 0)) {
+            return new Constant(0);
+        }
+        if (isConstant(a, 1)) {
+            return b;
+        }
+        return isConstant(b, 1) ? a : new Call(Operation.MULTIPLY, a, b);
+    }
+
+    static Expression quotient(Expression a, Expression b) {
+        if (isConstant(a, 0)) {
+            return a;
+        }
+        return isConstant(b, 1) ? a : new Call(Operation.DIVIDE, a, b);
+    }
+
+    private static boolean isConstant(Expression expression, double value) {
+        return expression instanceof Constant && ((Constant) expression).value == value;
+    }
+
+    static final class Constant extends Expression {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        void collectVariables(Set<String> names) {
+        }
+
+        @Override
+        Expression fold(Calculator calculator) {
+            return this;
+        }
+
+        @Override
+        CompiledExpression toClosure(Calculator calculator, Map<String, Integer> slots) {
+            double v = value;
+            return variables -> v;
+        }
+
+        @Override
+        Expression differentiate(String variable) {
+            return new Constant(0);
+        }
+
+        @Override
+        int record(GradientTape.Builder builder, Map<String, Integer> slots) {
+            return builder.constant(value);
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    static final class Variable extends Expression {
+        final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        void collectVariables(Set<String> names) {
+            names.add(name);
+        }
+
+        @Override
+        Expression fold(Calculator calculator) {
+            return this;
+        }
+
+        @Override
+        CompiledExpression toClosure(Calculator calculator, Map<String, Integer> slots) {
+            int slot = slots.get(name);
+            return variables -> variables[slot];
+        }
+
+        @Override
+        Expression differentiate(String variable) {
+            return new Constant(name.equals(variable) ? 1 : 0);
+        }
+
+        @Override
+        int record(GradientTape.Builder builder, Map<String, Integer> slots) {
+            return builder.variable(slots.get(name));
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class Negation extends Expression {
+        final Expression operand;
+
+        Negation(Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void collectVariables(Set<String> names) {
+            operand.collectVariables(names);
+        }
+
+        @Override
+        Expression fold(Calculator calculator) {
+            Expression folded = operand.fold(calculator);
+            if (folded instanceof Constant) {
+                return new Constant(-((Constant) folded).value);
+            }
+            return new Negation(folded);
+        }
+
+        @Override
+        CompiledExpression toClosure(Calculator calculator, Map<String, Integer> slots) {
+            CompiledExpression inner = operand.toClosure(calculator, slots);
+            return variables -> -inner.evaluate(variables);
+        }
+
+        @Override
+        Expression differentiate(String variable) {
+            return difference(new Constant(0), operand.differentiate(variable));
+        }
+
+        @Override
+        int record(GradientTape.Builder builder, Map<String, Integer> slots) {
+            return builder.unary(GradientTape.NEGATE, operand.record(builder, slots));
+        }
+
+        @Override
+        public String toString() {
+            return "-(" + operand + ")";
+        }
+    }
+
+    static final class Call extends Expression {
+        final Operation operation;
+        final Expression left;
+        final Expression right;
+
+        Call(Operation operation, Expression left, Expression right) {
+            this.operation = operation;
+            this.left = left;
+            this.right = right;
+        }
+
+        Call(Operation operation, Expression operand) {
+            this(operation, operand, null);
+        }
+
+        @Override
+        void collectVariables(Set<String> names) {
+            left.collectVariables(names);
+            if (right != null) {
+                right.collectVariables(names);
+            }
+        }
+
+        @Override
+        Expression fold(Calculator calculator) {
+            Expression l = left.fold(calculator);
+            Expression r = right == null ? null : right.fold(calculator);
+            if (l instanceof Constant && (r == null || r instanceof Constant)) {
+                try {
+                    double b = r == null ? 0 : ((Constant) r).value;
+                    return new Constant(operation.apply(calculator, ((Constant) l).value, b));
+                } catch (RuntimeException e) {
+                    // leave it to evaluation time to report the error
+                }
+            }
+            return new Call(operation, l, r);
+        }
+
+        @Override
+        CompiledExpression toClosure(Calculator calculator, Map<String, Integer> slots) {
+            CompiledExpression a = left.toClosure(calculator, slots);
+            if (right == null) {
+                switch (operation) {
+                    case SQRT:
+                        return variables -> calculator.sqrt(a.evaluate(variables));
+                    case LN:
+                        return variables -> calculator.ln(a.evaluate(variables));
+                    case LOG:
+                        return variables -> calculator.log(a.evaluate(variables));
+                    case EXP:
+                        return variables -> calculator.exp(a.evaluate(variables));
+                    case FACTORIAL:
+                        return variables -> calculator.factorial(Operation.toFactorialArgument(a.evaluate(variables)));
+                    default:
+                        throw new IllegalStateException("Not a unary operation: " + operation);
+                }
+            }
+            if (right instanceof Constant) {
+                double b = ((Constant) right).value;
+                switch (operation) {
+                    case ADD:
+                        return variables -> calculator.add(a.evaluate(variables), b);
+                    case SUBTRACT:
+                        return variables -> calculator.subtract(a.evaluate(variables), b);
+                    case MULTIPLY:
+                        return variables -> calculator.multiply(a.evaluate(variables), b);
+                    case DIVIDE:
+                        return variables -> calculator.divide(a.evaluate(variables), b);
+                    case POWER:
+                        return variables -> calculator.power(a.evaluate(variables), b);
+                    default:
+                        throw new IllegalStateException("Not a binary operation: " + operation);
+                }
+            }
+            CompiledExpression b = right.toClosure(calculator, slots);
+            switch (operation) {
+                case ADD:
+                    return variables -> calculator.add(a.evaluate(variables), b.evaluate(variables));
+                case SUBTRACT:
+                    return variables -> calculator.subtract(a.evaluate(variables), b.evaluate(variables));
+                case MULTIPLY:
+                    return variables -> calculator.multiply(a.evaluate(variables), b.evaluate(variables));
+                case DIVIDE:
+                    return variables -> calculator.divide(a.evaluate(variables), b.evaluate(variables));
+                case POWER:
+                    return variables -> calculator.power(a.evaluate(variables), b.evaluate(variables));
+                default:
+                    throw new IllegalStateException("Not a binary operation: " + operation);
+            }
+        }
+
+        @Override
+        Expression differentiate(String variable) {
+            Expression da = left.differentiate(variable);
+            Expression db = right == null ? null : right.differentiate(variable);
+            switch (operation) {
+                case ADD:
+                    return sum(da, db);
+                case SUBTRACT:
+                    return difference(da, db);
+                case MULTIPLY:
+                    return sum(product(da, right), product(left, db));
+                case DIVIDE:
+                    // (a/b)' = (a' - (a/b) b') / b
+                    return quotient(difference(da, product(this, db)), right);
+                case POWER:
+                    if (right instanceof Constant) {
+                        double exponent = ((Constant) right).value;
+                        Expression lowered = new Call(Operation.POWER, left, new Constant(exponent - 1));
+                        return product(product(new Constant(exponent), lowered), da);
+                    }
+                    // (a^b)' = a^b (b' ln a + b a'/a)
+                    return product(this, sum(product(db, new Call(Operation.LN, left)), quotient(product(right, da), left)));
+                case SQRT:
+                    return quotient(da, product(new Constant(2), this));
+                case LN:
+                    return quotient(da, left);
+                case LOG:
+                    return quotient(da, product(left, new Constant(LN_10)));
+                case EXP:
+                    return product(this, da);
+                case FACTORIAL:
+                    if (da instanceof Constant && ((Constant) da).value == 0) {
+                        return da;
+                    }
+                    throw new IllegalArgumentException("Factorial is not differentiable");
+                default:
+                    throw new IllegalStateException("Unknown operation: " + operation);
+            }
+        }
+
+        @Override
+        int record(GradientTape.Builder builder, Map<String, Integer> slots) {
+            int a = left.record(builder, slots);
+            if (right == null) {
+                if (operation == Operation.FACTORIAL && !left.variables().isEmpty()) {
+                    throw new IllegalArgumentException("Factorial is not differentiable");
+                }
+                return builder.unary(GradientTape.opcode(operation), a);
+            }
+            return builder.binary(GradientTape.opcode(operation), a, right.record(builder, slots));
+        }
+
+        @Override
+        public String toString() {
+            return right == null
+                    ? operation.token() + "(" + left + ")"
+                    : operation.token() + "(" + left + ", " + right + ")";
+        }
+    }
+}
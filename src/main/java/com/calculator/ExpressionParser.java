@@ -0,0 +1,198 @@
+package com.calculator;
+
+/**
+ * Recursive-descent parser for calculator expressions.
+ *
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := unary (('*' | '/' | '×' | '÷') unary)*
+ * unary      := ('-' | '+') unary | power
+ * power      := postfix ('^' unary)?
+ * postfix    := primary '!'*
+ * primary    := number | name | name '(' expression ')' | '√' postfix | '(' expression ')'
+ * </pre>
+ *
+ * Function names are {@code sqrt}, {@code ln}, {@code log}, {@code exp} and
+ * {@code factorial}; {@code pi} and {@code e} are constants and any other name is a variable.
+ */
+final class ExpressionParser {
+
+    private final String text;
+    private int position;
+
+    ExpressionParser(String text) {
+        this.text = text;
+    }
+
+    Expression parse() {
+        Expression expression = parseExpression();
+        skipWhitespace();
+        if (position < text.length()) {
+            throw error("Unexpected '" + text.charAt(position) + "'");
+        }
+        return expression;
+    }
+
+    private Expression parseExpression() {
+        Expression left = parseTerm();
+        while (true) {
+            if (accept('+')) {
+                left = new Expression.Call(Operation.ADD, left, parseTerm());
+            } else if (accept('-')) {
+                left = new Expression.Call(Operation.SUBTRACT, left, parseTerm());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseTerm() {
+        Expression left = parseUnary();
+        while (true) {
+            if (accept('*') || accept('×')) {
+                left = new Expression.Call(Operation.MULTIPLY, left, parseUnary());
+            } else if (accept('/') || accept('÷')) {
+                left = new Expression.Call(Operation.DIVIDE, left, parseUnary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expression parseUnary() {
+        if (accept('-')) {
+            return new Expression.Negation(parseUnary());
+        }
+        if (accept('+')) {
+            return parseUnary();
+        }
+        return parsePower();
+    }
+
+    private Expression parsePower() {
+        Expression base = parsePostfix();
+        if (accept('^')) {
+            // right associative, and binds tighter than a leading minus: -2^2 == -4
+            return new Expression.Call(Operation.POWER, base, parseUnary());
+        }
+        return base;
+    }
+
+    private Expression parsePostfix() {
+        Expression operand = parsePrimary();
+        while (accept('!')) {
+            operand = new Expression.Call(Operation.FACTORIAL, operand);
+        }
+        return operand;
+    }
+
+    private Expression parsePrimary() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end of expression");
+        }
+        char c = text.charAt(position);
+        if (accept('(')) {
+            Expression inner = parseExpression();
+            expect(')');
+            return inner;
+        }
+        if (accept('√')) {
+            return new Expression.Call(Operation.SQRT, parsePostfix());
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c)) {
+            return parseName();
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private Expression parseNumber() {
+        int start = position;
+        while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+            position++;
+        }
+        if (position < text.length() && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            int mark = position++;
+            if (position < text.length() && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+                position++;
+            }
+            if (position < text.length() && Character.isDigit(text.charAt(position))) {
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+            } else {
+                // not an exponent after all; leave the 'e' for the caller to reject
+                position = mark;
+            }
+        }
+        try {
+            return new Expression.Constant(NumberParser.parseDouble(text, start, position));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + text.substring(start, position) + "'");
+        }
+    }
+
+    private Expression parseName() {
+        int start = position;
+        while (position < text.length()
+                && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+            position++;
+        }
+        String name = text.substring(start, position);
+        switch (name) {
+            case "pi":
+                return new Expression.Constant(Math.PI);
+            case "e":
+                return new Expression.Constant(Math.E);
+            case "sqrt":
+                return new Expression.Call(Operation.SQRT, parseArgument(name));
+            case "ln":
+                return new Expression.Call(Operation.LN, parseArgument(name));
+            case "log":
+                return new Expression.Call(Operation.LOG, parseArgument(name));
+            case "exp":
+                return new Expression.Call(Operation.EXP, parseArgument(name));
+            case "factorial":
+                return new Expression.Call(Operation.FACTORIAL, parseArgument(name));
+            default:
+                return new Expression.Variable(name);
+        }
+    }
+
+    private Expression parseArgument(String function) {
+        if (!accept('(')) {
+            throw error("Expected '(' after " + function);
+        }
+        Expression argument = parseExpression();
+        expect(')');
+        return argument;
+    }
+
+    private boolean accept(char expected) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " in \"" + text + "\"");
+    }
+}
@@ -0,0 +1,202 @@
+package com.calculator;
+
+import java.math.BigInteger;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Factorial kernels behind {@link Calculator#factorial(int)} and its big/approximate variants.
+ *
+ * Exact results come from a precomputed {@code long} table up to 20!, a lazily memoized
+ * {@link BigInteger} table up to {@value #MEMO_LIMIT}!, and beyond that a binary-splitting
+ * product tree, which keeps the operands of each multiplication balanced so the
+ * sub-quadratic {@code BigInteger} multiplication algorithms kick in. Above
+ * {@value #PARALLEL_THRESHOLD} the product tree is evaluated with fork-join.
+ *
+ * Interrupting the calling thread abandons a product tree in progress: {@link #big(int)}
+ * then throws {@link CancellationException} with the interrupt flag still set.
+ */
+final class Factorials {
+
+    static final int MAX_LONG_FACTORIAL = 20;
+    static final int MEMO_LIMIT = 1024;
+    static final int PARALLEL_THRESHOLD = 20_000;
+
+    // leaves of the product tree below this many factors are multiplied sequentially
+    private static final int SEQUENTIAL_SPAN = 64;
+    // fork-join subtasks below this many factors are not split any further
+    private static final int PARALLEL_GRAIN = 4096;
+
+    private static final long[] LONG_TABLE = new long[MAX_LONG_FACTORIAL + 1];
+    private static final AtomicReferenceArray<BigInteger> MEMO = new AtomicReferenceArray<>(MEMO_LIMIT + 1);
+
+    private static final double[] LN_TABLE = new double[MAX_LONG_FACTORIAL + 1];
+    private static final double HALF_LN_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+
+    static {
+        LONG_TABLE[0] = 1;
+        for (int i = 1; i <= MAX_LONG_FACTORIAL; i++) {
+            LONG_TABLE[i] = LONG_TABLE[i - 1] * i;
+        }
+        for (int i = 0; i <= MAX_LONG_FACTORIAL; i++) {
+            LN_TABLE[i] = Math.log(LONG_TABLE[i]);
+        }
+    }
+
+    private Factorials() {
+    }
+
+    static long exact(int n) {
+        requireNonNegative(n);
+        if (n > MAX_LONG_FACTORIAL) {
+            throw new ArithmeticException("Factorial overflows long for n > " + MAX_LONG_FACTORIAL);
+        }
+        return LONG_TABLE[n];
+    }
+
+    /**
+     * @throws CancellationException if the calling thread is interrupted while the product
+     *                               tree is evaluated
+     */
+    static BigInteger big(int n) {
+        requireNonNegative(n);
+        if (n <= MAX_LONG_FACTORIAL) {
+            return BigInteger.valueOf(LONG_TABLE[n]);
+        }
+        if (n <= MEMO_LIMIT) {
+            BigInteger cached = MEMO.get(n);
+            if (cached == null) {
+                cached = BigInteger.valueOf(LONG_TABLE[MAX_LONG_FACTORIAL]).multiply(product(MAX_LONG_FACTORIAL + 1, n));
+                MEMO.compareAndSet(n, null, cached);
+            }
+            return cached;
+        }
+        BigInteger tail = n >= PARALLEL_THRESHOLD
+                ? parallelProduct(MEMO_LIMIT + 1, n)
+                : product(MEMO_LIMIT + 1, n, Thread.currentThread()::isInterrupted);
+        return big(MEMO_LIMIT).multiply(tail);
+    }
+
+    /**
+     * Evaluates the product tree in the common pool while the caller waits interruptibly.
+     * Joining a fork-join task directly would not do: the caller may end up running the tree
+     * itself, and a join clears the caller's interrupt flag while it waits.
+     */
+    private static BigInteger parallelProduct(int from, int to) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<BigInteger> product = CompletableFuture.supplyAsync(
+                () -> new ProductTask(from, to, cancelled::get).invoke(), ForkJoinPool.commonPool());
+        try {
+            return product.get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Factorial cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    static double ln(int n) {
+        requireNonNegative(n);
+        if (n <= MAX_LONG_FACTORIAL) {
+            return LN_TABLE[n];
+        }
+        // Stirling series for ln Γ(n + 1); the first omitted term is below 1e-15 for n > 20
+        double x = n;
+        double inverse = 1 / x;
+        double inverseSquared = inverse * inverse;
+        double series = inverse * (1.0 / 12 - inverseSquared * (1.0 / 360 - inverseSquared * (1.0 / 1260 - inverseSquared / 1680)));
+        return x * Math.log(x) - x + 0.5 * Math.log(x) + HALF_LN_TWO_PI + series;
+    }
+
+    static double approximate(int n) {
+        requireNonNegative(n);
+        if (n <= MAX_LONG_FACTORIAL) {
+            return LONG_TABLE[n];
+        }
+        return Math.exp(ln(n));
+    }
+
+    /**
+     * Product of all integers in {@code [from, to]} by binary splitting.
+     */
+    static BigInteger product(int from, int to) {
+        return product(from, to, () -> false);
+    }
+
+    /**
+     * @param cancelled checked before every node of the tree; once true the product is
+     *                  abandoned with a {@link CancellationException}
+     */
+    private static BigInteger product(int from, int to, BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Factorial cancelled");
+        }
+        if (from > to) {
+            return BigInteger.ONE;
+        }
+        if (to - from < SEQUENTIAL_SPAN) {
+            return sequentialProduct(from, to);
+        }
+        int middle = (from + to) >>> 1;
+        return product(from, middle, cancelled).multiply(product(middle + 1, to, cancelled));
+    }
+
+    private static BigInteger sequentialProduct(int from, int to) {
+        BigInteger result = BigInteger.ONE;
+        long partial = 1;
+        for (int i = from; i <= to; i++) {
+            // accumulate in a long while it cannot overflow (both factors below 2^31)
+            if (partial > Integer.MAX_VALUE) {
+                result = result.multiply(BigInteger.valueOf(partial));
+                partial = 1;
+            }
+            partial *= i;
+        }
+        return result.multiply(BigInteger.valueOf(partial));
+    }
+
+    private static void requireNonNegative(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Factorial not defined for negative numbers");
+        }
+    }
+
+    private static final class ProductTask extends RecursiveTask<BigInteger> {
+        private final int from;
+        private final int to;
+        private final BooleanSupplier cancelled;
+
+        ProductTask(int from, int to, BooleanSupplier cancelled) {
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from < PARALLEL_GRAIN) {
+                return product(from, to, cancelled);
+            }
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Factorial cancelled");
+            }
+            int middle = (from + to) >>> 1;
+            ProductTask low = new ProductTask(from, middle, cancelled);
+            low.fork();
+            BigInteger high = new ProductTask(middle + 1, to, cancelled).compute();
+            return low.join().multiply(high);
+        }
+    }
+}
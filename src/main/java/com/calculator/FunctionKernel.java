@@ -0,0 +1,120 @@
+package com.calculator;
+
+/**
+ * Implementations of the elementary functions behind {@link Calculator}'s {@code sqrt},
+ * {@code power}, {@code ln}, {@code log} and {@code exp}, trading accuracy for speed.
+ * Domain checks stay in the calculator; a kernel only computes values, with {@link Math}'s
+ * results for special values (NaN, infinities, zero and negative arguments).
+ */
+public enum FunctionKernel {
+
+    /**
+     * {@link StrictMath}: the fdlibm algorithms, under 1 ulp of error and bit-for-bit
+     * identical on every platform.
+     */
+    STRICT {
+        @Override
+        public double sqrt(double x) {
+            return StrictMath.sqrt(x);
+        }
+
+        @Override
+        public double pow(double base, double exponent) {
+            return StrictMath.pow(base, exponent);
+        }
+
+        @Override
+        public double ln(double x) {
+            return StrictMath.log(x);
+        }
+
+        @Override
+        public double log10(double x) {
+            return StrictMath.log10(x);
+        }
+
+        @Override
+        public double exp(double x) {
+            return StrictMath.exp(x);
+        }
+    },
+
+    /**
+     * {@link Math}: within 1 ulp, using the JIT's intrinsics where the platform has them.
+     * Results may differ in the last bit between platforms. Small integral exponents are
+     * raised by exponentiation by squaring, correctly rounded and faster than {@code Math.pow}.
+     */
+    DEFAULT {
+        @Override
+        public double sqrt(double x) {
+            return Math.sqrt(x);
+        }
+
+        @Override
+        public double pow(double base, double exponent) {
+            double squared = Powers.bySquaring(base, exponent);
+            return squared == squared ? squared : Math.pow(base, exponent);
+        }
+
+        @Override
+        public double ln(double x) {
+            return Math.log(x);
+        }
+
+        @Override
+        public double log10(double x) {
+            return Math.log10(x);
+        }
+
+        @Override
+        public double exp(double x) {
+            return Math.exp(x);
+        }
+    },
+
+    /**
+     * Table-driven polynomial approximations for bulk work. Error bounds over the whole
+     * domain: {@code exp} and {@code ln} 2 ulps, {@code log10} 4 ulps (so exact powers of
+     * ten may come out a few ulps off), and {@code pow} {@code 2 + 3|y ln x|} ulps, which
+     * grows to a relative error of about 5e-13 when the result nears overflow or underflow;
+     * small integral exponents are squared as in {@link #DEFAULT} and correctly rounded.
+     * {@code sqrt} is the hardware instruction and correctly rounded.
+     */
+    FAST {
+        @Override
+        public double sqrt(double x) {
+            return Math.sqrt(x);
+        }
+
+        @Override
+        public double pow(double base, double exponent) {
+            double squared = Powers.bySquaring(base, exponent);
+            return squared == squared ? squared : ApproximateMath.pow(base, exponent);
+        }
+
+        @Override
+        public double ln(double x) {
+            return ApproximateMath.ln(x);
+        }
+
+        @Override
+        public double log10(double x) {
+            return ApproximateMath.log10(x);
+        }
+
+        @Override
+        public double exp(double x) {
+            return ApproximateMath.exp(x);
+        }
+    };
+
+    public abstract double sqrt(double x);
+
+    public abstract double pow(double base, double exponent);
+
+    public abstract double ln(double x);
+
+    public abstract double log10(double x);
+
+    public abstract double exp(double x);
+}
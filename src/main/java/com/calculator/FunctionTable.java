@@ -0,0 +1,352 @@
+package com.calculator;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A precomputed lookup table for {@code sqrt}, {@code ln}, {@code log} or {@code exp} over a
+ * bounded domain, for workloads that call one function on confined inputs very many times.
+ *
+ * The domain is split into equal intervals, and each interval stores the coefficients of a
+ * polynomial in the position within it: the chord for {@link Interpolation#LINEAR}, or the
+ * cubic Hermite interpolant matching value and slope at both ends for
+ * {@link Interpolation#CUBIC}. A lookup is one multiply to locate the interval and a short
+ * Horner evaluation over coefficients that share a cache line. Arguments outside the domain
+ * (and NaN) fall back to the exact {@link Calculator} method, domain errors included.
+ *
+ * {@link #getMaxError()} is a guaranteed bound on the absolute error inside the domain: the
+ * interpolation remainder, bounded interval by interval from the function's derivatives
+ * (all monotone in magnitude over the supported domains), plus an allowance for rounding in
+ * the evaluation. Tables can be saved and later memory-mapped back in, which is faster than
+ * rebuilding a large one. Instances are immutable and safe to share between threads.
+ *
+ * <pre>
+ * file   = header, intervals * (degree + 1) coefficients
+ * header = int magic "CTAB", short version, byte function (0 sqrt, 1 ln, 2 log, 3 exp),
+ *          byte degree (1 or 3), int intervals, int reserved,
+ *          double lower, double upper, double max error                         (40 bytes)
+ * </pre>
+ *
+ * All values are little-endian.
+ */
+public final class FunctionTable {
+
+    public static final int MAX_INTERVALS = 1 << 24;
+
+    static final int HEADER_SIZE = 40;
+
+    private static final int MAGIC = 0x42_41_54_43; // "CTAB" little-endian
+    private static final short VERSION = 1;
+    private static final Operation[] FUNCTIONS = {Operation.SQRT, Operation.LN, Operation.LOG, Operation.EXP};
+    private static final double LN_10 = Math.log(10);
+
+    /**
+     * How values between the sample points are interpolated.
+     */
+    public enum Interpolation {
+        /**
+         * Piecewise linear; error below {@code h²/8 max|f''|} for interval width {@code h}.
+         */
+        LINEAR(1),
+        /**
+         * Piecewise cubic Hermite; error below {@code h⁴/384 max|f''''|}, so far fewer
+         * intervals reach a given accuracy.
+         */
+        CUBIC(3);
+
+        private final int degree;
+
+        Interpolation(int degree) {
+            this.degree = degree;
+        }
+
+        static Interpolation of(int degree) throws IOException {
+            for (Interpolation interpolation : values()) {
+                if (interpolation.degree == degree) {
+                    return interpolation;
+                }
+            }
+            throw new IOException("Unknown interpolation degree " + degree);
+        }
+    }
+
+    private final Calculator calculator;
+    private final Operation function;
+    private final Interpolation interpolation;
+    private final double lower;
+    private final double upper;
+    private final int intervals;
+    private final double scale;
+    private final double maxError;
+    private final double[] coefficients;
+
+    private FunctionTable(Calculator calculator, Operation function, Interpolation interpolation,
+                          double lower, double upper, int intervals, double maxError, double[] coefficients) {
+        this.calculator = calculator;
+        this.function = function;
+        this.interpolation = interpolation;
+        this.lower = lower;
+        this.upper = upper;
+        this.intervals = intervals;
+        this.scale = intervals / (upper - lower);
+        this.maxError = maxError;
+        this.coefficients = coefficients;
+    }
+
+    public static FunctionTable build(Operation function, double lower, double upper, int intervals,
+                                      Interpolation interpolation) {
+        return build(new Calculator(), function, lower, upper, intervals, interpolation);
+    }
+
+    /**
+     * Tabulates {@code function} on {@code [lower, upper]}, sampling {@code calculator}, which
+     * also serves arguments outside that range.
+     *
+     * @throws IllegalArgumentException if the function cannot be tabulated, or the domain is
+     *                                  empty, not finite, or not inside the function's smooth
+     *                                  domain (positive arguments for sqrt, ln and log)
+     */
+    public static FunctionTable build(Calculator calculator, Operation function, double lower, double upper,
+                                      int intervals, Interpolation interpolation) {
+        Objects.requireNonNull(calculator, "calculator");
+        Objects.requireNonNull(interpolation, "interpolation");
+        code(function);
+        if (!(lower < upper) || Double.isInfinite(lower) || Double.isInfinite(upper)) {
+            throw new IllegalArgumentException("Table domain must be a finite, non-empty range");
+        }
+        if (function != Operation.EXP && lower <= 0) {
+            throw new IllegalArgumentException("Cannot tabulate " + function.token() + " at non-positive arguments");
+        }
+        if (intervals < 1 || intervals > MAX_INTERVALS) {
+            throw new IllegalArgumentException("A table needs 1-" + MAX_INTERVALS + " intervals");
+        }
+
+        DualCalculator dual = new DualCalculator(calculator);
+        double width = (upper - lower) / intervals;
+        int stride = interpolation.degree + 1;
+        double[] coefficients = new double[intervals * stride];
+        double location = 4 * Math.ulp(upper - lower) + 2 * Math.ulp(Math.max(Math.abs(lower), Math.abs(upper)));
+        double maxError = 0;
+        Dual start = value(dual, function, lower);
+        for (int i = 0; i < intervals; i++) {
+            double x0 = lower + i * width;
+            double x1 = i == intervals - 1 ? upper : lower + (i + 1) * width;
+            Dual end = value(dual, function, x1);
+            double f0 = start.value();
+            double f1 = end.value();
+            int base = i * stride;
+            double remainder;
+            if (interpolation == Interpolation.LINEAR) {
+                coefficients[base] = f0;
+                coefficients[base + 1] = f1 - f0;
+                remainder = width * width / 8 * derivativeBound(function, 2, x0, x1);
+            } else {
+                // Hermite basis rewritten in powers of the position t in [0, 1]
+                double m0 = width * start.derivative();
+                double m1 = width * end.derivative();
+                coefficients[base] = f0;
+                coefficients[base + 1] = m0;
+                coefficients[base + 2] = 3 * (f1 - f0) - 2 * m0 - m1;
+                coefficients[base + 3] = 2 * (f0 - f1) + m0 + m1;
+                double square = width * width;
+                remainder = square * square / 384 * derivativeBound(function, 4, x0, x1);
+            }
+            // rounding: a few ulps of the terms summed, plus the slope times the error in
+            // locating x, which grows with the magnitude of the arguments and of the domain
+            double terms = 0;
+            for (int j = 0; j < stride; j++) {
+                terms += Math.abs(coefficients[base + j]);
+            }
+            double rounding = 4 * Math.ulp(terms) + derivativeBound(function, 1, x0, x1) * location;
+            maxError = Math.max(maxError, remainder + rounding);
+            start = end;
+        }
+        return new FunctionTable(calculator, function, interpolation, lower, upper, intervals, maxError, coefficients);
+    }
+
+    public Operation getFunction() {
+        return function;
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public int getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * @return an upper bound on the absolute error of {@link #evaluate(double)} inside the domain
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    public boolean contains(double x) {
+        return x >= lower && x <= upper;
+    }
+
+    /**
+     * @throws IllegalArgumentException for arguments outside the domain that are outside the
+     *                                  function's domain too, as the calculator does
+     */
+    public double evaluate(double x) {
+        double position = (x - lower) * scale;
+        if (!(position >= 0 && position <= intervals)) {
+            return function.apply(calculator, x, 0);
+        }
+        int i = Math.min((int) position, intervals - 1);
+        double t = position - i;
+        double[] c = coefficients;
+        if (interpolation == Interpolation.LINEAR) {
+            int base = i << 1;
+            return c[base] + t * c[base + 1];
+        }
+        int base = i << 2;
+        return c[base] + t * (c[base + 1] + t * (c[base + 2] + t * c[base + 3]));
+    }
+
+    /**
+     * Bulk variant of {@link #evaluate(double)}; arguments outside both domains yield NaN
+     * instead of throwing.
+     */
+    public void evaluate(double[] in, double[] out) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("Output array is shorter than the input");
+        }
+        CalculationResult holder = new CalculationResult();
+        for (int i = 0; i < in.length; i++) {
+            double x = in[i];
+            if (contains(x)) {
+                out[i] = evaluate(x);
+            } else {
+                function.tryApply(calculator, x, 0, holder);
+                out[i] = holder.value();
+            }
+        }
+    }
+
+    /**
+     * Writes the table in the format described above, replacing any existing file.
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) coefficients.length * Double.BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putShort(VERSION).put(code(function)).put((byte) interpolation.degree)
+                    .putInt(intervals).putInt(0)
+                    .putDouble(lower).putDouble(upper).putDouble(maxError);
+            buffer.asDoubleBuffer().put(coefficients);
+            buffer.force();
+        }
+    }
+
+    public static FunctionTable load(Path path) throws IOException {
+        return load(new Calculator(), path);
+    }
+
+    /**
+     * Memory-maps a saved table and copies its coefficients straight out of the page cache,
+     * with no parsing or recomputation.
+     *
+     * @param calculator serves arguments outside the table's domain
+     */
+    public static FunctionTable load(Calculator calculator, Path path) throws IOException {
+        Objects.requireNonNull(calculator, "calculator");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a function table: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a function table: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported function table version " + version + ": " + path);
+            }
+            int code = buffer.get();
+            if (code < 0 || code >= FUNCTIONS.length) {
+                throw new IOException("Unknown tabulated function " + code + ": " + path);
+            }
+            Interpolation interpolation = Interpolation.of(buffer.get());
+            int intervals = buffer.getInt();
+            buffer.getInt();
+            double lower = buffer.getDouble();
+            double upper = buffer.getDouble();
+            double maxError = buffer.getDouble();
+            if (intervals < 1 || intervals > MAX_INTERVALS || !(lower < upper)) {
+                throw new IOException("Corrupt function table header: " + path);
+            }
+            double[] coefficients = new double[intervals * (interpolation.degree + 1)];
+            if (channel.size() != HEADER_SIZE + (long) coefficients.length * Double.BYTES) {
+                throw new IOException("Truncated function table: " + path);
+            }
+            buffer.asDoubleBuffer().get(coefficients);
+            return new FunctionTable(calculator, FUNCTIONS[code], interpolation, lower, upper, intervals, maxError,
+                    coefficients);
+        }
+    }
+
+    private static byte code(Operation function) {
+        for (int i = 0; i < FUNCTIONS.length; i++) {
+            if (FUNCTIONS[i] == function) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Only sqrt, ln, log and exp can be tabulated");
+    }
+
+    private static Dual value(DualCalculator dual, Operation function, double x) {
+        Dual variable = Dual.variable(x);
+        switch (function) {
+            case SQRT:
+                return dual.sqrt(variable);
+            case LN:
+                return dual.ln(variable);
+            case LOG:
+                return dual.log(variable);
+            default:
+                return dual.exp(variable);
+        }
+    }
+
+    /**
+     * @return the largest magnitude of the {@code order}-th derivative on {@code [x0, x1]},
+     *         which for these functions is reached at one of the ends
+     */
+    static double derivativeBound(Operation function, int order, double x0, double x1) {
+        switch (function) {
+            case EXP:
+                return Math.exp(x1);
+            case SQRT:
+                // |d^k/dx^k sqrt(x)| = |(1/2)(-1/2)...(3/2 - k)| x^(1/2 - k)
+                double coefficient = 1;
+                for (int k = 0; k < order; k++) {
+                    coefficient *= Math.abs(0.5 - k);
+                }
+                return coefficient * Math.pow(x0, 0.5 - order);
+            default:
+                // |d^k/dx^k ln(x)| = (k - 1)! / x^k
+                double bound = Factorials.exact(order - 1) / Math.pow(x0, order);
+                return function == Operation.LOG ? bound / LN_10 : bound;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.calculator;
+
+import java.util.Arrays;
+
+/**
+ * An expression compiled for reverse-mode automatic differentiation: the value and every
+ * partial derivative in one forward and one backward sweep, whatever the number of
+ * variables.
+ *
+ * The expression graph is flattened into parallel primitive arrays: node values live in
+ * one array laid out as variables, then constants, then operations in evaluation order, and
+ * each operation is an opcode and two operand indices into it. Only operations are
+ * interpreted; leaves are copied in or preset. Node values and adjoints are scratch arrays
+ * allocated once, so {@link #evaluate} allocates nothing. Because of that scratch space an
+ * instance must not be evaluated by several threads at once; compile one per thread
+ * instead. Domain errors throw as in {@link CompiledExpression}.
+ */
+public final class GradientTape {
+
+    static final int NEGATE = 0;
+    static final int ADD = 1;
+    static final int SUBTRACT = 2;
+    static final int MULTIPLY = 3;
+    static final int DIVIDE = 4;
+    static final int POWER = 5;
+    static final int SQRT = 6;
+    static final int LN = 7;
+    static final int LOG = 8;
+    static final int EXP = 9;
+    static final int FACTORIAL = 10;
+
+    private static final double LN_10 = Math.log(10);
+
+    private final Calculator calculator;
+    private final int variableCount;
+    private final int firstOperation;
+    private final int root;
+    private final int[] opcodes;
+    private final int[] left;
+    private final int[] right;
+    private final double[] values;
+    private final double[] adjoints;
+
+    private GradientTape(Calculator calculator, int variableCount, double[] constants, int[] opcodes,
+                         int[] left, int[] right, int root) {
+        this.calculator = calculator;
+        this.variableCount = variableCount;
+        this.firstOperation = variableCount + constants.length;
+        this.root = root;
+        this.opcodes = opcodes;
+        this.left = left;
+        this.right = right;
+        this.values = new double[firstOperation + opcodes.length];
+        this.adjoints = new double[values.length];
+        // constants keep their slots for good
+        System.arraycopy(constants, 0, values, variableCount, constants.length);
+    }
+
+    static int opcode(Operation operation) {
+        switch (operation) {
+            case ADD:
+                return ADD;
+            case SUBTRACT:
+                return SUBTRACT;
+            case MULTIPLY:
+                return MULTIPLY;
+            case DIVIDE:
+                return DIVIDE;
+            case POWER:
+                return POWER;
+            case SQRT:
+                return SQRT;
+            case LN:
+                return LN;
+            case LOG:
+                return LOG;
+            case EXP:
+                return EXP;
+            case FACTORIAL:
+                return FACTORIAL;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Number of operations on the tape.
+     */
+    public int size() {
+        return opcodes.length;
+    }
+
+    /**
+     * Evaluates the expression and stores its partial derivatives in {@code gradient}.
+     *
+     * @param variables values of the variables, in the order given to {@link Expression#gradient}
+     * @param gradient  receives the derivative with respect to each variable, in the same order
+     * @return the value of the expression
+     */
+    public double evaluate(double[] variables, double[] gradient) {
+        if (variables.length != variableCount || gradient.length != variableCount) {
+            throw new IllegalArgumentException("Expected " + variableCount + " variable(s)");
+        }
+        double[] v = values;
+        System.arraycopy(variables, 0, v, 0, variableCount);
+        int offset = firstOperation;
+        int size = opcodes.length;
+        for (int k = 0; k < size; k++) {
+            int i = offset + k;
+            int a = left[k];
+            int b = right[k];
+            switch (opcodes[k]) {
+                case NEGATE:
+                    v[i] = -v[a];
+                    break;
+                case ADD:
+                    v[i] = calculator.add(v[a], v[b]);
+                    break;
+                case SUBTRACT:
+                    v[i] = calculator.subtract(v[a], v[b]);
+                    break;
+                case MULTIPLY:
+                    v[i] = calculator.multiply(v[a], v[b]);
+                    break;
+                case DIVIDE:
+                    v[i] = calculator.divide(v[a], v[b]);
+                    break;
+                case POWER:
+                    v[i] = calculator.power(v[a], v[b]);
+                    break;
+                case SQRT:
+                    v[i] = calculator.sqrt(v[a]);
+                    break;
+                case LN:
+                    v[i] = calculator.ln(v[a]);
+                    break;
+                case LOG:
+                    v[i] = calculator.log(v[a]);
+                    break;
+                case EXP:
+                    v[i] = calculator.exp(v[a]);
+                    break;
+                case FACTORIAL:
+                    v[i] = calculator.factorial(Operation.toFactorialArgument(v[a]));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode: " + opcodes[k]);
+            }
+        }
+
+        double[] adjoint = adjoints;
+        Arrays.fill(adjoint, 0);
+        adjoint[root] = 1;
+        for (int k = size - 1; k >= 0; k--) {
+            int i = offset + k;
+            double d = adjoint[i];
+            if (d == 0) {
+                continue;
+            }
+            int a = left[k];
+            int b = right[k];
+            switch (opcodes[k]) {
+                case NEGATE:
+                    adjoint[a] -= d;
+                    break;
+                case ADD:
+                    adjoint[a] += d;
+                    adjoint[b] += d;
+                    break;
+                case SUBTRACT:
+                    adjoint[a] += d;
+                    adjoint[b] -= d;
+                    break;
+                case MULTIPLY:
+                    adjoint[a] += d * v[b];
+                    adjoint[b] += d * v[a];
+                    break;
+                case DIVIDE:
+                    adjoint[a] += d / v[b];
+                    adjoint[b] -= d * v[i] / v[b];
+                    break;
+                case POWER:
+                    adjoint[a] += d * powerBaseDerivative(v[a], v[b], v[i]);
+                    if (b < variableCount || b >= offset) {
+                        // constant exponents, by far the common case, need no logarithm
+                        adjoint[b] += d * powerExponentDerivative(v[a], v[i]);
+                    }
+                    break;
+                case SQRT:
+                    adjoint[a] += d / (2 * v[i]);
+                    break;
+                case LN:
+                    adjoint[a] += d / v[a];
+                    break;
+                case LOG:
+                    adjoint[a] += d / (v[a] * LN_10);
+                    break;
+                case EXP:
+                    adjoint[a] += d * v[i];
+                    break;
+                default:
+                    // factorials only ever have constant arguments
+                    break;
+            }
+        }
+        System.arraycopy(adjoint, 0, gradient, 0, variableCount);
+        return v[root];
+    }
+
+    /**
+     * d(x^y)/dx = y x^(y-1), taken from the already computed power {@code x^y} when that is a
+     * normal number, saving a second {@code pow}. When {@code x^y} overflowed or underflowed,
+     * y x^(y-1) may still be representable, so it is computed directly.
+     */
+    static double powerBaseDerivative(double base, double exponent, double power) {
+        if (exponent == 0) {
+            return 0;
+        }
+        double magnitude = Math.abs(power);
+        if (base != 0 && magnitude >= Double.MIN_NORMAL && magnitude <= Double.MAX_VALUE) {
+            return exponent * power / base;
+        }
+        return exponent * Math.pow(base, exponent - 1);
+    }
+
+    /**
+     * d(x^y)/dy = x^y ln x; zero for a zero base and undefined for a negative one.
+     */
+    static double powerExponentDerivative(double base, double power) {
+        if (base > 0) {
+            return power * Math.log(base);
+        }
+        return base == 0 ? 0 : Double.NaN;
+    }
+
+    /**
+     * Records operations in evaluation order into growing primitive arrays. Operands are
+     * references: a variable slot, {@code ~index} of a constant, or {@code OPERATION + index}
+     * of an earlier operation; {@link #build} resolves them to the final layout.
+     */
+    static final class Builder {
+        private static final int OPERATION = 1 << 30;
+
+        private int[] opcodes = new int[16];
+        private int[] left = new int[16];
+        private int[] right = new int[16];
+        private int size;
+        private double[] constants = new double[16];
+        private int constantCount;
+
+        int constant(double value) {
+            if (constantCount == constants.length) {
+                constants = Arrays.copyOf(constants, constantCount * 2);
+            }
+            constants[constantCount] = value;
+            return ~constantCount++;
+        }
+
+        int variable(int slot) {
+            return slot;
+        }
+
+        int unary(int opcode, int operand) {
+            return binary(opcode, operand, operand);
+        }
+
+        int binary(int opcode, int a, int b) {
+            if (size == opcodes.length) {
+                int capacity = size * 2;
+                opcodes = Arrays.copyOf(opcodes, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+            opcodes[size] = opcode;
+            left[size] = a;
+            right[size] = b;
+            return OPERATION + size++;
+        }
+
+        GradientTape build(Calculator calculator, int variableCount, int root) {
+            int[] resolvedLeft = new int[size];
+            int[] resolvedRight = new int[size];
+            for (int i = 0; i < size; i++) {
+                resolvedLeft[i] = resolve(left[i], variableCount);
+                resolvedRight[i] = resolve(right[i], variableCount);
+            }
+            return new GradientTape(calculator, variableCount, Arrays.copyOf(constants, constantCount),
+                    Arrays.copyOf(opcodes, size), resolvedLeft, resolvedRight, resolve(root, variableCount));
+        }
+
+        private int resolve(int reference, int variableCount) {
+            if (reference < 0) {
+                return variableCount + ~reference;
+            }
+            return reference >= OPERATION ? variableCount + constantCount + reference - OPERATION : reference;
+        }
+    }
+}
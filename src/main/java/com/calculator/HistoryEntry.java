@@ -0,0 +1,81 @@
+package com.calculator;
+
+/**
+ * One recorded calculation in a {@link CalculationHistory}.
+ */
+public final class HistoryEntry {
+
+    private final long sequence;
+    private final long timestamp;
+    private final Operation operation;
+    private final CalculationStatus status;
+    private final double a;
+    private final double b;
+    private final double result;
+
+    HistoryEntry(long sequence, long timestamp, Operation operation, CalculationStatus status,
+                 double a, double b, double result) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.operation = operation;
+        this.status = status;
+        this.a = a;
+        this.b = b;
+        this.result = result;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return milliseconds since the epoch
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public Operation operation() {
+        return operation;
+    }
+
+    public CalculationStatus status() {
+        return status;
+    }
+
+    public double a() {
+        return a;
+    }
+
+    /**
+     * @return the second operand; 0 for unary operations
+     */
+    public double b() {
+        return b;
+    }
+
+    /**
+     * @return the result; NaN when the status is an error
+     */
+    public double result() {
+        return result;
+    }
+
+    /**
+     * @return e.g. {@code "power(2, 10) = 1024"} or {@code "divide(1, 0) = Error: Cannot divide by zero"}
+     */
+    @Override
+    public String toString() {
+        ResultFormatter formatter = ResultFormatter.DISPLAY;
+        StringBuilder text = new StringBuilder(operation.token()).append('(');
+        formatter.format(a, text);
+        if (operation.arity() == 2) {
+            formatter.format(b, text.append(", "));
+        }
+        text.append(") = ");
+        if (status != CalculationStatus.OK) {
+            return text.append("Error: ").append(status.message()).toString();
+        }
+        return formatter.format(result, text).toString();
+    }
+}
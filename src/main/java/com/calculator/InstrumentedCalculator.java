@@ -0,0 +1,208 @@
+package com.calculator;
+
+/**
+ * A {@link Calculator} that records each scalar operation's count, failures and latency in
+ * a {@link CalculatorMetrics}, including failures reported by the exception-free
+ * {@code tryXxx} variants. Bulk array operations are not recorded individually.
+ */
+public class InstrumentedCalculator extends Calculator {
+
+    private final CalculatorMetrics metrics;
+
+    public InstrumentedCalculator() {
+        this(CalculatorMetrics.global());
+    }
+
+    public InstrumentedCalculator(CalculatorMetrics metrics) {
+        this(metrics, FunctionKernel.DEFAULT);
+    }
+
+    public InstrumentedCalculator(CalculatorMetrics metrics, FunctionKernel kernel) {
+        super(kernel);
+        this.metrics = metrics;
+    }
+
+    public CalculatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public double add(double a, double b) {
+        long start = metrics.start();
+        try {
+            double result = super.add(a, b);
+            metrics.succeeded(Operation.ADD, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.ADD, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double subtract(double a, double b) {
+        long start = metrics.start();
+        try {
+            double result = super.subtract(a, b);
+            metrics.succeeded(Operation.SUBTRACT, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SUBTRACT, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double multiply(double a, double b) {
+        long start = metrics.start();
+        try {
+            double result = super.multiply(a, b);
+            metrics.succeeded(Operation.MULTIPLY, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.MULTIPLY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double divide(double a, double b) {
+        long start = metrics.start();
+        try {
+            double result = super.divide(a, b);
+            metrics.succeeded(Operation.DIVIDE, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.DIVIDE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double sqrt(double x) {
+        long start = metrics.start();
+        try {
+            double result = super.sqrt(x);
+            metrics.succeeded(Operation.SQRT, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.SQRT, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double power(double base, double exponent) {
+        long start = metrics.start();
+        try {
+            double result = super.power(base, exponent);
+            metrics.succeeded(Operation.POWER, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.POWER, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long factorial(int n) {
+        long start = metrics.start();
+        try {
+            long result = super.factorial(n);
+            metrics.succeeded(Operation.FACTORIAL, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.FACTORIAL, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double ln(double x) {
+        long start = metrics.start();
+        try {
+            double result = super.ln(x);
+            metrics.succeeded(Operation.LN, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.LN, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double log(double x) {
+        long start = metrics.start();
+        try {
+            double result = super.log(x);
+            metrics.succeeded(Operation.LOG, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.LOG, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public double exp(double x) {
+        long start = metrics.start();
+        try {
+            double result = super.exp(x);
+            metrics.succeeded(Operation.EXP, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failed(Operation.EXP, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public CalculationStatus tryDivide(double a, double b, CalculationResult result) {
+        long start = metrics.start();
+        CalculationStatus status = super.tryDivide(a, b, result);
+        if (status != CalculationStatus.OK) {
+            metrics.failed(Operation.DIVIDE, start);
+        }
+        return status;
+    }
+
+    @Override
+    public CalculationStatus trySqrt(double x, CalculationResult result) {
+        long start = metrics.start();
+        CalculationStatus status = super.trySqrt(x, result);
+        if (status != CalculationStatus.OK) {
+            metrics.failed(Operation.SQRT, start);
+        }
+        return status;
+    }
+
+    @Override
+    public CalculationStatus tryFactorial(int n, CalculationResult result) {
+        long start = metrics.start();
+        CalculationStatus status = super.tryFactorial(n, result);
+        if (status != CalculationStatus.OK) {
+            metrics.failed(Operation.FACTORIAL, start);
+        }
+        return status;
+    }
+
+    @Override
+    public CalculationStatus tryLn(double x, CalculationResult result) {
+        long start = metrics.start();
+        CalculationStatus status = super.tryLn(x, result);
+        if (status != CalculationStatus.OK) {
+            metrics.failed(Operation.LN, start);
+        }
+        return status;
+    }
+
+    @Override
+    public CalculationStatus tryLog(double x, CalculationResult result) {
+        long start = metrics.start();
+        CalculationStatus status = super.tryLog(x, result);
+        if (status != CalculationStatus.OK) {
+            metrics.failed(Operation.LOG, start);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,209 @@
+package com.calculator;
+
+import java.math.BigInteger;
+
+/**
+ * Formats doubles with the fewest decimal digits that still parse back to the same value,
+ * appending straight to a caller-supplied {@link StringBuilder}. The counterpart of
+ * {@link NumberParser} for batch and server output.
+ *
+ * The digits are chosen with Giulietti's Schubfach algorithm: the rounding interval of the
+ * double is scaled by a 126-bit approximation of a power of ten, and the shortest decimal
+ * in it (the one closest to the value, on ties the even one) is read off with a few
+ * multiplications. The layout is the one of {@link Double#toString(double)} ({@code 3.0},
+ * {@code 0.001}, {@code 1.0E7}, {@code 4.9E-324}); unlike this JDK's {@code Double.toString},
+ * the digits are always the shortest, so {@code 2.0E23} is not printed as
+ * {@code 2.0000000000000002E23}.
+ */
+public final class NumberFormatter {
+
+    private static final int SIGNIFICAND_BITS = 53;
+    private static final int MIN_EXPONENT = -1074;
+    private static final long MIN_SIGNIFICAND = 1L << (SIGNIFICAND_BITS - 1);
+    private static final long FRACTION_MASK = MIN_SIGNIFICAND - 1;
+    private static final int EXPONENT_MASK = 0x7FF;
+    // subnormal significands below this have fewer than two digits and are scaled up by ten
+    private static final long TINY_SIGNIFICAND = 3;
+    private static final long MASK_63 = -1L >>> 1;
+
+    private static final int SMALLEST_POWER_OF_TEN = -324;
+    private static final int LARGEST_POWER_OF_TEN = 292;
+
+    private NumberFormatter() {
+    }
+
+    public static String formatDouble(double value) {
+        return formatDouble(value, new StringBuilder(24)).toString();
+    }
+
+    public static StringBuilder formatDouble(double value, StringBuilder out) {
+        long bits = Double.doubleToRawLongBits(value);
+        int biasedExponent = (int) (bits >>> (SIGNIFICAND_BITS - 1)) & EXPONENT_MASK;
+        if (biasedExponent == EXPONENT_MASK) {
+            return out.append(value);
+        }
+        if (bits < 0) {
+            out.append('-');
+        }
+        long fraction = bits & FRACTION_MASK;
+        if (biasedExponent == 0) {
+            if (fraction == 0) {
+                return out.append("0.0");
+            }
+            return fraction < TINY_SIGNIFICAND
+                    ? shortest(MIN_EXPONENT, 10 * fraction, -1, out)
+                    : shortest(MIN_EXPONENT, fraction, 0, out);
+        }
+        int shift = -MIN_EXPONENT + 1 - biasedExponent;
+        long significand = MIN_SIGNIFICAND | fraction;
+        if (0 < shift && shift < SIGNIFICAND_BITS) {
+            // integers below 2^53 are their own shortest form
+            long integer = significand >> shift;
+            if (integer << shift == significand) {
+                return appendDecimal(integer, 0, out);
+            }
+        }
+        return shortest(-shift, significand, 0, out);
+    }
+
+    /**
+     * Appends the shortest decimal in the rounding interval of {@code c 2^q}; {@code dk}
+     * undoes the scaling of tiny subnormals.
+     */
+    private static StringBuilder shortest(int q, long c, int dk, StringBuilder out) {
+        // the interval is closed when the significand is even
+        int open = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != MIN_SIGNIFICAND || q == MIN_EXPONENT) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // at a power of two the gap to the next smaller double is half as wide
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        long g1 = PowersOfTen.TABLE[2 * (k - SMALLEST_POWER_OF_TEN)];
+        long g0 = PowersOfTen.TABLE[2 * (k - SMALLEST_POWER_OF_TEN) + 1];
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit less first: s' = floor(s / 10)
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upIn = vbl + open <= sp10 << 2;
+            boolean wpIn = (tp10 << 2) + open <= vbr;
+            if (upIn != wpIn) {
+                return appendDecimal(upIn ? sp10 : tp10, k, out);
+            }
+        }
+        long t = s + 1;
+        boolean uIn = vbl + open <= s << 2;
+        boolean wIn = (t << 2) + open <= vbr;
+        if (uIn != wIn) {
+            return appendDecimal(uIn ? s : t, k + dk, out);
+        }
+        // both candidates round trip: take the closer one, the even one on a tie
+        long cmp = vb - (s + t << 1);
+        return appendDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, out);
+    }
+
+    /**
+     * {@code g cp / 2^127} rounded to odd, where {@code g = g1 2^63 + g0}.
+     */
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Appends {@code digits 10^exponent} in the layout of {@link Double#toString(double)}:
+     * plain from 1e-3 up to 1e7, scientific otherwise, always with a fraction digit.
+     */
+    private static StringBuilder appendDecimal(long digits, int exponent, StringBuilder out) {
+        while (digits % 10 == 0 && digits != 0) {
+            digits /= 10;
+            exponent++;
+        }
+        int start = out.length();
+        if (digits == 0) {
+            return out.append("0.0");
+        }
+        out.append(digits);
+        int length = out.length() - start;
+        int scientificExponent = exponent + length - 1;
+        if (scientificExponent < -3 || scientificExponent >= 7) {
+            out.insert(start + 1, '.');
+            if (length == 1) {
+                out.append('0');
+            }
+            return out.append('E').append(scientificExponent);
+        }
+        if (scientificExponent < 0) {
+            out.insert(start, "0.");
+            for (int zeros = -scientificExponent - 1; zeros > 0; zeros--) {
+                out.insert(start + 2, '0');
+            }
+            return out;
+        }
+        int integerDigits = scientificExponent + 1;
+        if (length > integerDigits) {
+            return out.insert(start + integerDigits, '.');
+        }
+        for (int zeros = integerDigits - length; zeros > 0; zeros--) {
+            out.append('0');
+        }
+        return out.append(".0");
+    }
+
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * For k in [-324, 292], {@code g = floor(10^-k 2^-r) + 1} with r chosen so that
+     * {@code 2^125 <= 10^-k 2^-r < 2^126}, as its high and low 63 bits. Built on first use.
+     */
+    private static final class PowersOfTen {
+        static final long[] TABLE = build();
+
+        private static long[] build() {
+            long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+            BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+            for (int k = SMALLEST_POWER_OF_TEN; k <= LARGEST_POWER_OF_TEN; k++) {
+                BigInteger g;
+                if (k <= 0) {
+                    BigInteger power = BigInteger.TEN.pow(-k);
+                    int r = power.bitLength() - 126;
+                    g = (r >= 0 ? power.shiftRight(r) : power.shiftLeft(-r)).add(BigInteger.ONE);
+                } else {
+                    BigInteger power = BigInteger.TEN.pow(k);
+                    g = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power).add(BigInteger.ONE);
+                }
+                int index = 2 * (k - SMALLEST_POWER_OF_TEN);
+                table[index] = g.shiftRight(63).longValue();
+                table[index + 1] = g.and(mask).longValue();
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.calculator;
+
+import java.math.BigInteger;
+
+/**
+ * Parses numbers straight out of a {@link CharSequence} range, without the regular
+ * expressions of {@link java.util.Scanner} or the intermediate {@code String} that
+ * {@link Double#parseDouble(String)} needs.
+ *
+ * Decimal input is converted with Clinger's exact fast path when the significand and
+ * power of ten are small enough, and with the Eisel-Lemire algorithm otherwise. The rare
+ * inputs neither can decide (more than 19 significant digits straddling a rounding
+ * boundary), and non-decimal forms such as {@code NaN}, {@code Infinity} or hexadecimal
+ * literals, are handed to {@link Double#parseDouble(String)}, so results are always
+ * identical to it.
+ */
+public final class NumberParser {
+
+    private static final int MAX_DIGITS = 19;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+    private static final int MANTISSA_EXPLICIT_BITS = 52;
+    private static final int MINIMUM_EXPONENT = -1023;
+    private static final int INFINITE_POWER = 0x7FF;
+    private static final long PRECISION_MASK = -1L >>> (MANTISSA_EXPLICIT_BITS + 3);
+    private static final long UNDECIDED = -1;
+
+    private NumberParser() {
+    }
+
+    public static double parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+
+    public static double parseDouble(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        long exponent = 0;
+        boolean truncated = false;
+        boolean anyDigit = false;
+        while (i < end && isDigit(text.charAt(i))) {
+            int digit = text.charAt(i++) - '0';
+            anyDigit = true;
+            if (digits < MAX_DIGITS) {
+                if (mantissa != 0 || digit != 0) {
+                    mantissa = mantissa * 10 + digit;
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= digit != 0;
+            }
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                int digit = text.charAt(i++) - '0';
+                anyDigit = true;
+                if (digits < MAX_DIGITS) {
+                    if (mantissa != 0 || digit != 0) {
+                        mantissa = mantissa * 10 + digit;
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= digit != 0;
+                }
+            }
+        }
+        if (!anyDigit) {
+            return fallback(text, start, end);
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            if (i == end || !isDigit(text.charAt(i))) {
+                return fallback(text, start, end);
+            }
+            long explicit = 0;
+            while (i < end && isDigit(text.charAt(i))) {
+                // anything this large already under- or overflows; stop growing to avoid wrap-around
+                if (explicit < 1_000_000) {
+                    explicit = explicit * 10 + (text.charAt(i) - '0');
+                }
+                i++;
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (i != end) {
+            // type suffixes (1.5d, 2f) and garbage alike are left to the JDK to accept or reject
+            return fallback(text, start, end);
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (!truncated && mantissa > 0 && mantissa <= MAX_EXACT_MANTISSA
+                && exponent >= -22 && exponent <= 22) {
+            // both the significand and the power of ten are exact doubles, so one
+            // correctly rounded multiplication or division gives the correctly rounded result
+            double value = mantissa;
+            value = exponent < 0 ? value / EXACT_POWERS_OF_TEN[(int) -exponent] : value * EXACT_POWERS_OF_TEN[(int) exponent];
+            return negative ? -value : value;
+        }
+        long bits = eiselLemire(exponent, mantissa);
+        if (truncated && bits != UNDECIDED && bits != eiselLemire(exponent, mantissa + 1)) {
+            bits = UNDECIDED;
+        }
+        if (bits == UNDECIDED) {
+            return fallback(text, start, end);
+        }
+        double value = Double.longBitsToDouble(bits);
+        return negative ? -value : value;
+    }
+
+    public static long parseLong(CharSequence text) {
+        return parseLong(text, 0, text.length());
+    }
+
+    public static long parseLong(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw invalid(text, start, end);
+        }
+        // accumulate negatively so that Long.MIN_VALUE is representable
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        while (i < end) {
+            char c = text.charAt(i++);
+            if (!isDigit(c)) {
+                throw invalid(text, start, end);
+            }
+            int digit = c - '0';
+            if (result < limit / 10 || result * 10 < limit + digit) {
+                throw invalid(text, start, end);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    public static int parseInt(CharSequence text) {
+        return parseInt(text, 0, text.length());
+    }
+
+    public static int parseInt(CharSequence text, int start, int end) {
+        long value = parseLong(text, start, end);
+        if (value != (int) value) {
+            throw invalid(text, start, end);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Eisel-Lemire: the correctly rounded binary64 bits of {@code w * 10^q} for an unsigned
+     * 64-bit {@code w > 0}, or {@link #UNDECIDED} when the 128-bit approximation is not
+     * precise enough to decide the rounding.
+     */
+    static long eiselLemire(long q, long w) {
+        if (q < SMALLEST_POWER_OF_TEN) {
+            return 0;
+        }
+        if (q > LARGEST_POWER_OF_TEN) {
+            return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+        }
+        int power = (int) q;
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+
+        int index = 2 * (power - SMALLEST_POWER_OF_TEN);
+        long[] powersOfFive = PowersOfFive.TABLE;
+        long high = unsignedMultiplyHigh(w, powersOfFive[index]);
+        long low = w * powersOfFive[index];
+        if ((high & PRECISION_MASK) == PRECISION_MASK) {
+            long secondHigh = unsignedMultiplyHigh(w, powersOfFive[index + 1]);
+            low += secondHigh;
+            if (Long.compareUnsigned(secondHigh, low) > 0) {
+                high++;
+            }
+        }
+        if (low == -1L && (power < -27 || power > 55)) {
+            return UNDECIDED;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+        long mantissa = high >>> shift;
+        int power2 = (((152170 + 65536) * power) >> 16) + 63 + upperBit - leadingZeros - MINIMUM_EXPONENT;
+
+        if (power2 <= 0) {
+            // subnormal result
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << MANTISSA_EXPLICIT_BITS) ? 0 : 1;
+            return ((long) power2 << MANTISSA_EXPLICIT_BITS) | (mantissa & ((1L << MANTISSA_EXPLICIT_BITS) - 1));
+        }
+
+        if ((low == 0 || low == 1) && power >= -4 && power <= 23 && (mantissa & 3) == 1
+                && (mantissa << shift) == high) {
+            // exactly halfway between two doubles: round to even rather than up
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_EXPLICIT_BITS)) {
+            mantissa = 1L << MANTISSA_EXPLICIT_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_EXPLICIT_BITS);
+        if (power2 >= INFINITE_POWER) {
+            return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+        }
+        return ((long) power2 << MANTISSA_EXPLICIT_BITS) | mantissa;
+    }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static double fallback(CharSequence text, int start, int end) {
+        return Double.parseDouble(text.subSequence(start, end).toString());
+    }
+
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("For input string: \"" + text.subSequence(start, end) + "\"");
+    }
+
+    /**
+     * 128-bit approximations of 5^q for q in [-342, 308], high word first, normalized so
+     * the top bit is set. Built on first use so that callers that only ever hit the fast
+     * path do not pay for it.
+     */
+    private static final class PowersOfFive {
+        static final long[] TABLE = build();
+
+        private static long[] build() {
+            long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+            BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+            BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+                BigInteger value;
+                if (q < 0) {
+                    BigInteger power = BigInteger.valueOf(5).pow(-q);
+                    int z = power.bitLength();
+                    int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                    while (value.compareTo(two128) >= 0) {
+                        value = value.shiftRight(1);
+                    }
+                } else {
+                    value = BigInteger.valueOf(5).pow(q);
+                    value = value.bitLength() > 128
+                            ? value.shiftRight(value.bitLength() - 128)
+                            : value.shiftLeft(128 - value.bitLength());
+                }
+                int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+                table[index] = value.shiftRight(64).longValue();
+                table[index + 1] = value.and(mask).longValue();
+            }
+            return table;
+        }
+    }
+}
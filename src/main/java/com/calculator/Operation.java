@@ -0,0 +1,170 @@
+package com.calculator;
+
+import java.util.Locale;
+
+/**
+ * The operations offered by {@link Calculator}, addressable by name so they can be
+ * driven from expressions, batch files and other non-interactive front ends.
+ */
+public enum Operation {
+
+    ADD("add", 2) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.add(a, b);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryAdd(a, b, result);
+        }
+    },
+    SUBTRACT("subtract", 2) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.subtract(a, b);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.trySubtract(a, b, result);
+        }
+    },
+    MULTIPLY("multiply", 2) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.multiply(a, b);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryMultiply(a, b, result);
+        }
+    },
+    DIVIDE("divide", 2) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.divide(a, b);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryDivide(a, b, result);
+        }
+    },
+    SQRT("sqrt", 1) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.sqrt(a);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.trySqrt(a, result);
+        }
+    },
+    POWER("power", 2) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.power(a, b);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryPower(a, b, result);
+        }
+    },
+    FACTORIAL("factorial", 1) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.factorial(toFactorialArgument(a));
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            if (a != (int) a || a < 0) {
+                return result.fail(CalculationStatus.NON_INTEGER_FACTORIAL);
+            }
+            return calculator.tryFactorial((int) a, result);
+        }
+    },
+    LN("ln", 1) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.ln(a);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryLn(a, result);
+        }
+    },
+    LOG("log", 1) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.log(a);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryLog(a, result);
+        }
+    },
+    EXP("exp", 1) {
+        @Override
+        public double apply(Calculator calculator, double a, double b) {
+            return calculator.exp(a);
+        }
+
+        @Override
+        public CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result) {
+            return calculator.tryExp(a, result);
+        }
+    };
+
+    private static final Operation[] VALUES = values();
+
+    private final String token;
+    private final int arity;
+
+    Operation(String token, int arity) {
+        this.token = token;
+        this.arity = arity;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * Applies the operation; unary operations ignore {@code b}.
+     */
+    public abstract double apply(Calculator calculator, double a, double b);
+
+    /**
+     * Applies the operation without throwing on domain errors: the value (or NaN) is
+     * stored in {@code result} and the status returned. Unary operations ignore {@code b}.
+     */
+    public abstract CalculationStatus tryApply(Calculator calculator, double a, double b, CalculationResult result);
+
+    public static Operation fromToken(String token) {
+        String normalized = token.trim().toLowerCase(Locale.ROOT);
+        for (Operation operation : VALUES) {
+            if (operation.token.equals(normalized)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + token);
+    }
+
+    static int toFactorialArgument(double value) {
+        if (value != (int) value || value < 0) {
+            throw new IllegalArgumentException("Factorial only defined for non-negative integers");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,254 @@
+package com.calculator;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates large batches of operations across all cores. The batch is given as parallel
+ * arrays (operation, first operand, second operand) and is split recursively into index
+ * ranges until a range is no larger than the grain size; each range writes its results
+ * into the same positions of the output arrays, so output order always matches input
+ * order. Failed elements get a NaN result and their error message in {@code errors}.
+ *
+ * A batch can also be a {@link List} of {@link Request}s, which is split through its
+ * {@link Spliterator} instead, so lists without cheap random access split as well as
+ * their spliterator allows.
+ */
+public class ParallelBatchExecutor {
+
+    public static final int DEFAULT_GRAIN_SIZE = 4096;
+
+    private final Calculator calculator;
+    private final ForkJoinPool pool;
+    private final int grainSize;
+
+    public ParallelBatchExecutor() {
+        this(new Calculator(), ForkJoinPool.commonPool(), DEFAULT_GRAIN_SIZE);
+    }
+
+    public ParallelBatchExecutor(Calculator calculator, ForkJoinPool pool, int grainSize) {
+        if (grainSize < 1) {
+            throw new IllegalArgumentException("Grain size must be positive");
+        }
+        this.calculator = calculator;
+        this.pool = pool;
+        this.grainSize = grainSize;
+    }
+
+    /**
+     * Applies one operation to every element.
+     *
+     * @param b second operands, or {@code null} for unary operations
+     * @param errors receives the error message of each failed element, may be {@code null}
+     * @return the number of failed elements
+     */
+    public int execute(Operation operation, double[] a, double[] b, double[] results, String[] errors) {
+        Objects.requireNonNull(operation, "operation");
+        return execute(null, operation, a, b, results, errors);
+    }
+
+    /**
+     * Applies {@code operations[i]} to {@code a[i]} and {@code b[i]} for every element.
+     *
+     * @param b second operands, or {@code null} if every operation is unary
+     * @param errors receives the error message of each failed element, may be {@code null}
+     * @return the number of failed elements
+     */
+    public int execute(Operation[] operations, double[] a, double[] b, double[] results, String[] errors) {
+        Objects.requireNonNull(operations, "operations");
+        return execute(operations, null, a, b, results, errors);
+    }
+
+    /**
+     * Evaluates {@code requests} into the same positions of {@code results}.
+     *
+     * @param errors receives the error message of each failed element, may be {@code null}
+     * @return the number of failed elements
+     */
+    public int execute(List<Request> requests, double[] results, String[] errors) {
+        int length = requests.size();
+        if (results.length != length || (errors != null && errors.length != length)) {
+            throw new IllegalArgumentException("Batch arrays must all have the same length");
+        }
+        Part batch = new Part(requests.spliterator(), 0, results, errors);
+        return length <= grainSize ? batch.compute() : pool.invoke(batch);
+    }
+
+    /**
+     * Evaluates one element into {@code results[i]} and {@code errors[i]}.
+     *
+     * @param hasSecond whether a second operand was given at all
+     * @return whether the element failed
+     */
+    private boolean evaluate(Operation op, double a, boolean hasSecond, double b, double[] results,
+                             String[] errors, int i, CalculationResult result) {
+        if (op.arity() == 2 && !hasSecond) {
+            results[i] = Double.NaN;
+            if (errors != null) {
+                errors[i] = op.token() + " expects 2 argument(s)";
+            }
+            return true;
+        }
+        CalculationStatus status = op.tryApply(calculator, a, b, result);
+        results[i] = result.value();
+        if (errors != null) {
+            errors[i] = status.message();
+        }
+        return status != CalculationStatus.OK;
+    }
+
+    private int execute(Operation[] operations, Operation operation, double[] a, double[] b,
+                        double[] results, String[] errors) {
+        int length = a.length;
+        if ((operations != null && operations.length != length) || (b != null && b.length != length)
+                || results.length != length || (errors != null && errors.length != length)) {
+            throw new IllegalArgumentException("Batch arrays must all have the same length");
+        }
+        Slice batch = new Slice(operations, operation, a, b, results, errors, 0, length);
+        return length <= grainSize ? batch.compute() : pool.invoke(batch);
+    }
+
+    private final class Slice extends RecursiveTask<Integer> {
+        private final Operation[] operations;
+        private final Operation operation;
+        private final double[] a;
+        private final double[] b;
+        private final double[] results;
+        private final String[] errors;
+        private final int from;
+        private final int to;
+
+        Slice(Operation[] operations, Operation operation, double[] a, double[] b, double[] results,
+              String[] errors, int from, int to) {
+            this.operations = operations;
+            this.operation = operation;
+            this.a = a;
+            this.b = b;
+            this.results = results;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= grainSize) {
+                return evaluate();
+            }
+            int middle = (from + to) >>> 1;
+            Slice low = new Slice(operations, operation, a, b, results, errors, from, middle);
+            low.fork();
+            int failures = new Slice(operations, operation, a, b, results, errors, middle, to).compute();
+            return failures + low.join();
+        }
+
+        private int evaluate() {
+            CalculationResult result = new CalculationResult();
+            int failures = 0;
+            for (int i = from; i < to; i++) {
+                Operation op = operations == null ? operation : operations[i];
+                if (ParallelBatchExecutor.this.evaluate(op, a[i], b != null, b == null ? 0 : b[i],
+                        results, errors, i, result)) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+    }
+
+    /**
+     * A run of list elements starting at {@code from}. Splits its spliterator while it is
+     * larger than the grain size; a split-off prefix must report its exact size, so that the
+     * rest knows where its results start.
+     */
+    private final class Part extends RecursiveTask<Integer> {
+        private final Spliterator<Request> requests;
+        private final int from;
+        private final double[] results;
+        private final String[] errors;
+        private final CalculationResult result = new CalculationResult();
+        private int next;
+        private int failures;
+
+        Part(Spliterator<Request> requests, int from, double[] results, String[] errors) {
+            this.requests = requests;
+            this.from = from;
+            this.results = results;
+            this.errors = errors;
+        }
+
+        @Override
+        protected Integer compute() {
+            next = from;
+            if (requests.estimateSize() > grainSize) {
+                Spliterator<Request> prefix = requests.trySplit();
+                if (prefix != null) {
+                    long size = prefix.getExactSizeIfKnown();
+                    if (size >= 0) {
+                        Part low = new Part(prefix, from, results, errors);
+                        low.fork();
+                        int high = new Part(requests, from + (int) size, results, errors).compute();
+                        return high + low.join();
+                    }
+                    // without its size the prefix has to be evaluated before the rest
+                    prefix.forEachRemaining(this::evaluate);
+                }
+            }
+            requests.forEachRemaining(this::evaluate);
+            return failures;
+        }
+
+        private void evaluate(Request request) {
+            if (ParallelBatchExecutor.this.evaluate(request.operation, request.a, request.hasSecond, request.b,
+                    results, errors, next++, result)) {
+                failures++;
+            }
+        }
+    }
+
+    /**
+     * One element of a list batch: an operation and its operands.
+     */
+    public static final class Request {
+        private final Operation operation;
+        private final double a;
+        private final double b;
+        private final boolean hasSecond;
+
+        /**
+         * A request without a second operand; it fails if the operation is binary.
+         */
+        public Request(Operation operation, double a) {
+            this(operation, a, 0, false);
+        }
+
+        public Request(Operation operation, double a, double b) {
+            this(operation, a, b, true);
+        }
+
+        private Request(Operation operation, double a, double b, boolean hasSecond) {
+            this.operation = Objects.requireNonNull(operation, "operation");
+            this.a = a;
+            this.b = b;
+            this.hasSecond = hasSecond;
+        }
+
+        public Operation operation() {
+            return operation;
+        }
+
+        public double a() {
+            return a;
+        }
+
+        /**
+         * @return the second operand; 0 if none was given
+         */
+        public double b() {
+            return b;
+        }
+    }
+}
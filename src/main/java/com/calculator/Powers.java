@@ -0,0 +1,129 @@
+package com.calculator;
+
+import java.math.BigInteger;
+
+/**
+ * Integer-exponent power kernels behind {@link Calculator#power(double, double)} and its
+ * exact, big and modular variants.
+ *
+ * Floating-point integral exponents up to {@value #SQUARING_LIMIT} in magnitude are raised by
+ * repeated squaring in double-double arithmetic (each product is kept as an unevaluated sum
+ * of two doubles, with {@link Math#fma} recovering the rounding error), so the result is
+ * rounded once, at the end, and stays correctly rounded instead of losing about an ulp per
+ * squaring. Beyond that limit {@code Math.pow} is faster.
+ */
+final class Powers {
+
+    static final int SQUARING_LIMIT = 32;
+
+    // largest modulus whose residues can be multiplied without overflowing a long
+    static final long DIRECT_MODULUS_LIMIT = 3_037_000_499L;
+
+    private Powers() {
+    }
+
+    /**
+     * @return {@code base^exponent} for integral exponents within {@link #SQUARING_LIMIT},
+     *         or NaN when the exponent is not one or the result would not be a normal
+     *         double (zero, subnormal, overflow), so the caller can fall back to {@code pow}
+     */
+    static double bySquaring(double base, double exponent) {
+        int n = (int) exponent;
+        if (n != exponent || n == 0 || n > SQUARING_LIMIT || n < -SQUARING_LIMIT) {
+            return Double.NaN;
+        }
+        int remaining = Math.abs(n);
+        double resultHigh = 1;
+        double resultLow = 0;
+        double squareHigh = base;
+        double squareLow = 0;
+        while (true) {
+            if ((remaining & 1) != 0) {
+                double product = resultHigh * squareHigh;
+                double error = Math.fma(resultHigh, squareHigh, -product)
+                        + (resultHigh * squareLow + resultLow * squareHigh);
+                resultHigh = product + error;
+                resultLow = error - (resultHigh - product);
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            double product = squareHigh * squareHigh;
+            double error = Math.fma(squareHigh, squareHigh, -product) + 2 * squareHigh * squareLow;
+            squareHigh = product + error;
+            squareLow = error - (squareHigh - product);
+        }
+        if (!(Math.abs(resultHigh) >= Double.MIN_NORMAL && Math.abs(resultHigh) <= Double.MAX_VALUE)) {
+            return Double.NaN;
+        }
+        if (n > 0) {
+            return resultHigh;
+        }
+        double inverse = 1 / resultHigh;
+        double correction = Math.fma(-resultHigh, inverse, 1) - resultLow * inverse;
+        double result = inverse + inverse * correction;
+        return Math.abs(result) >= Double.MIN_NORMAL ? result : Double.NaN;
+    }
+
+    static long exact(long base, int exponent) {
+        requireNonNegative(exponent);
+        long result = 1;
+        long square = base;
+        int remaining = exponent;
+        try {
+            while (remaining != 0) {
+                if ((remaining & 1) != 0) {
+                    result = Math.multiplyExact(result, square);
+                }
+                remaining >>>= 1;
+                // once more bits remain, the next square is a factor of the result
+                if (remaining != 0) {
+                    square = Math.multiplyExact(square, square);
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new ArithmeticException("Power overflows long: " + base + "^" + exponent);
+        }
+        return result;
+    }
+
+    static BigInteger big(long base, int exponent) {
+        requireNonNegative(exponent);
+        return BigInteger.valueOf(base).pow(exponent);
+    }
+
+    /**
+     * Right-to-left binary modular exponentiation; moduli above
+     * {@link #DIRECT_MODULUS_LIMIT}, whose residue products overflow a long, go through
+     * {@link BigInteger#modPow}.
+     */
+    static long mod(long base, long exponent, long modulus) {
+        if (modulus <= 0) {
+            throw new IllegalArgumentException("Modulus must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must be non-negative");
+        }
+        if (modulus > DIRECT_MODULUS_LIMIT) {
+            return BigInteger.valueOf(base)
+                    .modPow(BigInteger.valueOf(exponent), BigInteger.valueOf(modulus))
+                    .longValue();
+        }
+        long result = 1 % modulus;
+        long square = Math.floorMod(base, modulus);
+        for (long remaining = exponent; remaining != 0; remaining >>>= 1) {
+            if ((remaining & 1) != 0) {
+                result = result * square % modulus;
+            }
+            square = square * square % modulus;
+        }
+        return result;
+    }
+
+    private static void requireNonNegative(int exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must be non-negative");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.calculator;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Bounded, thread-safe memo table keyed on (operation, first operand bits, second operand
+ * bits) with raw {@code long} values, so lookups neither box nor allocate.
+ *
+ * The table is set-associative: a key hashes to a set of {@value #WAYS} slots and, when
+ * the set is full, the least recently used slot in it is evicted. Sets are guarded by a
+ * fixed number of striped locks; the value itself is computed outside the lock, so a
+ * slow computation never blocks unrelated lookups.
+ */
+final class ResultCache {
+
+    static final int WAYS = 8;
+    private static final int LOCK_STRIPES = 64;
+
+    private final int setMask;
+    private final int[] operations;
+    private final long[] firstKeys;
+    private final long[] secondKeys;
+    private final long[] values;
+    private final long[] lastUsed;
+    private final long[] clocks;
+    private final Object[] locks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ResultCache(int capacity) {
+        if (capacity < WAYS) {
+            throw new IllegalArgumentException("Cache capacity must be at least " + WAYS);
+        }
+        int sets = Integer.highestOneBit(capacity / WAYS);
+        setMask = sets - 1;
+        int slots = sets * WAYS;
+        operations = new int[slots];
+        firstKeys = new long[slots];
+        secondKeys = new long[slots];
+        values = new long[slots];
+        lastUsed = new long[slots];
+        clocks = new long[sets];
+        locks = new Object[Math.min(LOCK_STRIPES, sets)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    int capacity() {
+        return operations.length;
+    }
+
+    /**
+     * Returns the cached value for the key, computing and caching it on a miss. Exceptions
+     * thrown by {@code compute} propagate and nothing is cached.
+     *
+     * @param operation identifies the function, must not be negative
+     */
+    long get(int operation, long a, long b, LongBinaryOperator compute) {
+        int tag = operation + 1;
+        int set = hash(tag, a, b) & setMask;
+        int base = set * WAYS;
+        Object lock = locks[set % locks.length];
+        synchronized (lock) {
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (operations[slot] == tag && firstKeys[slot] == a && secondKeys[slot] == b) {
+                    lastUsed[slot] = ++clocks[set];
+                    hits.increment();
+                    return values[slot];
+                }
+            }
+        }
+        misses.increment();
+        long value = compute.applyAsLong(a, b);
+        synchronized (lock) {
+            int victim = base;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (operations[slot] == tag && firstKeys[slot] == a && secondKeys[slot] == b) {
+                    // another thread got there first
+                    return value;
+                }
+                if (operations[slot] == 0) {
+                    victim = slot;
+                    break;
+                }
+                if (lastUsed[slot] < lastUsed[victim]) {
+                    victim = slot;
+                }
+            }
+            if (operations[victim] != 0) {
+                evictions.increment();
+            }
+            operations[victim] = tag;
+            firstKeys[victim] = a;
+            secondKeys[victim] = b;
+            values[victim] = value;
+            lastUsed[victim] = ++clocks[set];
+        }
+        return value;
+    }
+
+    void clear() {
+        for (Object lock : locks) {
+            synchronized (lock) {
+                for (int set = 0; set <= setMask; set++) {
+                    if (locks[set % locks.length] == lock) {
+                        for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+                            operations[slot] = 0;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private static int hash(int tag, long a, long b) {
+        long h = a * 0x9E3779B97F4A7C15L + b * 0xC2B2AE3D27D4EB4FL + tag * 0x165667B19E3779F9L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
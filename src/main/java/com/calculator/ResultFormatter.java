@@ -0,0 +1,215 @@
+package com.calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Formats results for display, appending to a caller-supplied {@link StringBuilder}
+ * without regular expressions or temporary objects.
+ *
+ * In fixed notation a value is printed with at most {@code precision} fraction digits (and
+ * at most 16 significant digits) and no trailing zeros ({@code 0.5}, {@code 2.302585093}, {@code 120}). Magnitudes that fixed
+ * notation cannot show sensibly (at or above 1e16, or non-zero but below one unit in the
+ * last place) switch to scientific notation ({@code 1.5E20}), which can also be forced.
+ * Formatters are immutable and safe to share.
+ */
+public final class ResultFormatter {
+
+    public static final int MAX_PRECISION = 17;
+
+    private static final int MAX_SIGNIFICANT_DIGITS = 16;
+    private static final double FIXED_LIMIT = 1e16;
+    private static final BigInteger BIG_FIXED_LIMIT = BigInteger.TEN.pow(16);
+    private static final long[] POWERS_OF_TEN = new long[MAX_PRECISION + 2];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** Ten fraction digits, matching the calculator display. */
+    public static final ResultFormatter DISPLAY = new ResultFormatter(10);
+
+    private final int precision;
+    private final boolean scientific;
+    private final double smallestFixed;
+
+    public ResultFormatter(int precision) {
+        this(precision, false);
+    }
+
+    public ResultFormatter(int precision, boolean scientific) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.scientific = scientific;
+        this.smallestFixed = 1.0 / POWERS_OF_TEN[precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public boolean isScientific() {
+        return scientific;
+    }
+
+    public String format(double value) {
+        return format(value, new StringBuilder(24)).toString();
+    }
+
+    public StringBuilder format(long value, StringBuilder out) {
+        return out.append(value);
+    }
+
+    /**
+     * Formats an exact integer such as a large factorial: in full below 1e16 (unless the
+     * formatter is scientific), otherwise rounded half up in scientific notation.
+     */
+    public StringBuilder format(BigInteger value, StringBuilder out) {
+        if (!scientific && value.abs().compareTo(BIG_FIXED_LIMIT) < 0) {
+            return out.append(value.longValue());
+        }
+        if (value.signum() == 0) {
+            return out.append("0E0");
+        }
+        int digits = Math.min(precision, MAX_SIGNIFICANT_DIGITS - 1);
+        BigDecimal rounded = new BigDecimal(value).round(new MathContext(digits + 1, RoundingMode.HALF_UP));
+        long exponent = (long) rounded.precision() - rounded.scale() - 1;
+        String mantissa = rounded.unscaledValue().abs().toString();
+        int end = mantissa.length();
+        while (end > 1 && mantissa.charAt(end - 1) == '0') {
+            end--;
+        }
+        if (value.signum() < 0) {
+            out.append('-');
+        }
+        out.append(mantissa.charAt(0));
+        if (end > 1) {
+            out.append('.').append(mantissa, 1, end);
+        }
+        return out.append('E').append(exponent);
+    }
+
+    public StringBuilder format(double value, StringBuilder out) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return out.append(value);
+        }
+        double magnitude = Math.abs(value);
+        if (scientific || magnitude >= FIXED_LIMIT || (magnitude < smallestFixed && magnitude != 0)) {
+            return appendScientific(value, magnitude, out);
+        }
+        return appendFixed(value, magnitude, out);
+    }
+
+    private StringBuilder appendFixed(double value, double magnitude, StringBuilder out) {
+        long integerPart = (long) magnitude;
+        // exact: dropping the integer bits of a double leaves a representable fraction
+        double fraction = magnitude - integerPart;
+        // beyond 16 significant digits a double only carries binary noise
+        int digits = Math.max(0, Math.min(precision, MAX_SIGNIFICANT_DIGITS - (integerPart == 0 ? 0 : digitCount(integerPart))));
+        long scale = POWERS_OF_TEN[digits];
+        long fractionDigits = roundScaled(fraction, scale);
+        if (fractionDigits == scale) {
+            integerPart++;
+            fractionDigits = 0;
+        }
+        if (value < 0 && (integerPart != 0 || fractionDigits != 0)) {
+            out.append('-');
+        }
+        out.append(integerPart);
+        appendFraction(fractionDigits, digits, out);
+        return out;
+    }
+
+    private StringBuilder appendScientific(double value, double magnitude, StringBuilder out) {
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            out.append('-');
+        }
+        if (magnitude == 0) {
+            return out.append("0E0");
+        }
+        int exponent = (int) Math.floor(Math.log10(magnitude));
+        double mantissa = scaleByPowerOfTen(magnitude, -exponent);
+        // log10 can be off by one right at powers of ten
+        if (mantissa >= 10) {
+            mantissa /= 10;
+            exponent++;
+        } else if (mantissa < 1) {
+            mantissa *= 10;
+            exponent--;
+        }
+        int digits = Math.min(precision, MAX_SIGNIFICANT_DIGITS - 1);
+        long scale = POWERS_OF_TEN[digits];
+        long integerDigit = (long) mantissa;
+        long fractionDigits = roundScaled(mantissa - integerDigit, scale);
+        if (fractionDigits == scale) {
+            integerDigit++;
+            fractionDigits = 0;
+            if (integerDigit == 10) {
+                integerDigit = 1;
+                exponent++;
+            }
+        }
+        out.append(integerDigit);
+        appendFraction(fractionDigits, digits, out);
+        return out.append('E').append(exponent);
+    }
+
+    /**
+     * Appends {@code '.'} and the given digits left-padded to {@code width}, dropping trailing zeros.
+     */
+    private static void appendFraction(long digits, int width, StringBuilder out) {
+        if (digits == 0) {
+            return;
+        }
+        while (digits % 10 == 0) {
+            digits /= 10;
+            width--;
+        }
+        out.append('.');
+        for (int leadingZeros = width - digitCount(digits); leadingZeros > 0; leadingZeros--) {
+            out.append('0');
+        }
+        out.append(digits);
+    }
+
+    /**
+     * Rounds {@code fraction * scale} half up, as {@code String.format} does on the exact
+     * decimal expansion. The scaling multiplication rounds, so results close to a halfway
+     * point are recomputed exactly.
+     */
+    private static long roundScaled(double fraction, long scale) {
+        double scaled = fraction * scale;
+        double floor = Math.floor(scaled);
+        if (Math.abs(scaled - floor - 0.5) <= Math.ulp(scaled)) {
+            return new BigDecimal(fraction).multiply(BigDecimal.valueOf(scale))
+                    .setScale(0, RoundingMode.HALF_UP).longValue();
+        }
+        return (long) Math.floor(scaled + 0.5);
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (count < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    private static double scaleByPowerOfTen(double value, int power) {
+        // two steps keep 10^power finite for subnormal and near-overflow inputs
+        if (power > 300) {
+            return value * 1e300 * Math.pow(10, power - 300);
+        }
+        if (power < -300) {
+            return value / 1e300 / Math.pow(10, -power - 300);
+        }
+        return power >= 0 ? value * Math.pow(10, power) : value / Math.pow(10, -power);
+    }
+}
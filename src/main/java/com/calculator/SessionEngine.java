@@ -0,0 +1,88 @@
+package com.calculator;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hosts any number of independent calculator sessions for concurrent callers, for example
+ * one per client of a server. Each session is an {@link AtomicReference} to an immutable
+ * {@link SessionState}; a key press computes the next snapshot and installs it with a
+ * compare-and-set, retrying if another thread got there first. Presses to different
+ * sessions never contend, and concurrent presses to one session are each applied exactly
+ * once, in some order. No locks are taken.
+ *
+ * The calculator must be safe to share between threads, as every {@link Calculator} in
+ * this package is. A retried press computes its result again, so calculations should be
+ * cheap; factorials are limited to those that fit a {@code long}.
+ */
+public class SessionEngine {
+
+    private final Calculator calculator;
+    private final ConcurrentHashMap<Long, AtomicReference<SessionState>> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public SessionEngine() {
+        this(new Calculator());
+    }
+
+    public SessionEngine(Calculator calculator) {
+        this.calculator = Objects.requireNonNull(calculator, "calculator");
+    }
+
+    /**
+     * Starts a session in {@link SessionState#INITIAL}.
+     *
+     * @return the new session's id
+     */
+    public long open() {
+        long id = nextId.incrementAndGet();
+        sessions.put(id, new AtomicReference<>(SessionState.INITIAL));
+        return id;
+    }
+
+    /**
+     * Applies one key to a session; see {@link SessionState#press}.
+     *
+     * @return the snapshot the key produced
+     * @throws IllegalArgumentException if there is no such session or the key is unknown
+     */
+    public SessionState press(long id, String key) {
+        AtomicReference<SessionState> session = session(id);
+        while (true) {
+            SessionState current = session.get();
+            SessionState next = current.press(key, calculator);
+            if (session.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public SessionState state(long id) {
+        return session(id).get();
+    }
+
+    /**
+     * @return the session's final state, or null if it was not open
+     */
+    public SessionState close(long id) {
+        AtomicReference<SessionState> session = sessions.remove(id);
+        return session == null ? null : session.get();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private AtomicReference<SessionState> session(long id) {
+        AtomicReference<SessionState> session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("No session " + id);
+        }
+        return session;
+    }
+}
@@ -0,0 +1,242 @@
+package com.calculator;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of one calculator session: the entry being typed, the first operand
+ * and pending binary operation, and whether the next digit starts a new entry. Every key
+ * press yields a new snapshot, so a session can be shared between threads by swapping
+ * snapshots atomically (see {@link SessionEngine}) instead of locking mutable fields.
+ *
+ * Keys are the GUI's button labels ({@code 0}-{@code 9}, {@code .}, {@code ±}, {@code ←},
+ * {@code CE}, {@code C}, {@code +}, {@code -}, {@code ×}, {@code ÷}, {@code x^y},
+ * {@code =}, {@code √}, {@code n!}, {@code ln}); {@code *}, {@code /}, {@code ^},
+ * {@code sqrt} and {@code !} are accepted as well.
+ */
+public final class SessionState {
+
+    public static final SessionState INITIAL = new SessionState("0", 0, null, true, null, 0);
+
+    private static final String ZERO = "0";
+
+    private final String input;
+    private final double operand;
+    private final Operation pending;
+    private final boolean newInput;
+    private final String error;
+    private final long presses;
+
+    private SessionState(String input, double operand, Operation pending, boolean newInput, String error,
+                         long presses) {
+        this.input = input;
+        this.operand = operand;
+        this.pending = pending;
+        this.newInput = newInput;
+        this.error = error;
+        this.presses = presses;
+    }
+
+    /**
+     * @return the text to display: the entry being typed or the last result
+     */
+    public String input() {
+        return input;
+    }
+
+    public double operand() {
+        return operand;
+    }
+
+    /**
+     * @return the binary operation waiting for its second operand, or null
+     */
+    public Operation pending() {
+        return pending;
+    }
+
+    public boolean isNewInput() {
+        return newInput;
+    }
+
+    /**
+     * @return the message of the error the last key caused, or null
+     */
+    public String error() {
+        return error;
+    }
+
+    /**
+     * @return the number of keys applied through {@link #press} since the session started;
+     *         a version number for optimistic concurrency
+     */
+    public long presses() {
+        return presses;
+    }
+
+    /**
+     * @return the entry as a number, or 0 if it does not parse
+     */
+    public double value() {
+        try {
+            return NumberParser.parseDouble(input);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Applies one key, computing any result it completes with {@code calculator}. Failed
+     * calculations yield a cleared state carrying the {@link #error()} instead of throwing.
+     *
+     * @throws IllegalArgumentException if the key is not recognised
+     */
+    public SessionState press(String key, Calculator calculator) {
+        SessionState next = apply(key, calculator);
+        return new SessionState(next.input, next.operand, next.pending, next.newInput, next.error, presses + 1);
+    }
+
+    private SessionState apply(String key, Calculator calculator) {
+        Operation operation = binaryOperation(key);
+        if (operation != null) {
+            if (pending != null && !newInput) {
+                SessionState result = withoutPending().compute(calculator, pending, operand, value());
+                return result.error != null ? result : result.startOperation(operation);
+            }
+            return startOperation(operation);
+        }
+        switch (key) {
+            case ".":
+                return decimal();
+            case "±":
+                return negate();
+            case "←":
+                return backspace();
+            case "CE":
+                return clearEntry();
+            case "C":
+                return clear();
+            case "=":
+                return pending == null ? this : withoutPending().compute(calculator, pending, operand, value());
+            case "√":
+            case "sqrt":
+                return compute(calculator, Operation.SQRT, value(), 0);
+            case "n!":
+            case "!":
+                return compute(calculator, Operation.FACTORIAL, value(), 0);
+            case "ln":
+                return compute(calculator, Operation.LN, value(), 0);
+            default:
+                if (key.length() == 1 && key.charAt(0) >= '0' && key.charAt(0) <= '9') {
+                    return digit(key.charAt(0));
+                }
+                throw new IllegalArgumentException("Unknown key: " + key);
+        }
+    }
+
+    /**
+     * @return the binary operation a key starts, or null if it is not one
+     */
+    static Operation binaryOperation(String key) {
+        switch (key) {
+            case "+":
+                return Operation.ADD;
+            case "-":
+                return Operation.SUBTRACT;
+            case "×":
+            case "*":
+                return Operation.MULTIPLY;
+            case "÷":
+            case "/":
+                return Operation.DIVIDE;
+            case "x^y":
+            case "^":
+                return Operation.POWER;
+            default:
+                return null;
+        }
+    }
+
+    public SessionState digit(char digit) {
+        if (newInput) {
+            return next(String.valueOf(digit), operand, pending, false);
+        }
+        return next(input + digit, operand, pending, false);
+    }
+
+    public SessionState decimal() {
+        if (newInput) {
+            return next("0.", operand, pending, false);
+        }
+        return next(input.contains(".") ? input : input + ".", operand, pending, false);
+    }
+
+    public SessionState negate() {
+        if (input.equals(ZERO)) {
+            return next(input, operand, pending, newInput);
+        }
+        return next(input.charAt(0) == '-' ? input.substring(1) : "-" + input, operand, pending, newInput);
+    }
+
+    public SessionState backspace() {
+        if (newInput || input.isEmpty()) {
+            return next(input, operand, pending, newInput);
+        }
+        String shorter = input.substring(0, input.length() - 1);
+        return next(shorter.isEmpty() || shorter.equals("-") ? ZERO : shorter, operand, pending, false);
+    }
+
+    public SessionState clearEntry() {
+        return next(ZERO, operand, pending, true);
+    }
+
+    public SessionState clear() {
+        return next(ZERO, 0, null, true);
+    }
+
+    /**
+     * Makes the current entry the first operand of {@code operation}.
+     */
+    public SessionState startOperation(Operation operation) {
+        return next(input, value(), Objects.requireNonNull(operation, "operation"), true);
+    }
+
+    /**
+     * @return this state with the pending operation taken off, as it is handed to a
+     *         (possibly asynchronous) calculation
+     */
+    public SessionState withoutPending() {
+        return new SessionState(input, 0, null, newInput, null, presses);
+    }
+
+    /**
+     * @return the state showing a calculation's formatted result
+     */
+    public SessionState withResult(String text) {
+        return new SessionState(text, operand, pending, true, null, presses);
+    }
+
+    /**
+     * Shows the result of {@code operation}, keeping any pending binary operation.
+     */
+    private SessionState compute(Calculator calculator, Operation operation, double a, double b) {
+        String text;
+        try {
+            text = operation == Operation.FACTORIAL
+                    ? String.valueOf(calculator.factorial(Operation.toFactorialArgument(a)))
+                    : ResultFormatter.DISPLAY.format(operation.apply(calculator, a, b));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return new SessionState(ZERO, 0, null, true, e.getMessage(), presses);
+        }
+        return withResult(text);
+    }
+
+    private SessionState next(String input, double operand, Operation pending, boolean newInput) {
+        return new SessionState(input, operand, pending, newInput, null, presses);
+    }
+
+    @Override
+    public String toString() {
+        return error != null ? "Error: " + error
+                : pending == null ? input : ResultFormatter.DISPLAY.format(operand) + " " + pending.token() + " " + input;
+    }
+}
@@ -0,0 +1,77 @@
+package com.calculator;
+
+/**
+ * A {@link Calculator} whose {@code sqrt}, {@code ln}, {@code log} and {@code exp} look
+ * arguments inside a {@link FunctionTable}'s domain up in that table, trading the table's
+ * reported error for speed. Other arguments, functions without a table and the bulk array
+ * variants use the calculator's kernel as usual. Instances are safe to share between threads.
+ */
+public class TabulatedCalculator extends Calculator {
+
+    private final FunctionTable sqrt;
+    private final FunctionTable ln;
+    private final FunctionTable log;
+    private final FunctionTable exp;
+
+    /**
+     * @throws IllegalArgumentException if two tables tabulate the same function
+     */
+    public TabulatedCalculator(FunctionTable... tables) {
+        this(FunctionKernel.DEFAULT, tables);
+    }
+
+    public TabulatedCalculator(FunctionKernel kernel, FunctionTable... tables) {
+        super(kernel);
+        FunctionTable sqrt = null;
+        FunctionTable ln = null;
+        FunctionTable log = null;
+        FunctionTable exp = null;
+        for (FunctionTable table : tables) {
+            switch (table.getFunction()) {
+                case SQRT:
+                    sqrt = unique(sqrt, table);
+                    break;
+                case LN:
+                    ln = unique(ln, table);
+                    break;
+                case LOG:
+                    log = unique(log, table);
+                    break;
+                default:
+                    exp = unique(exp, table);
+                    break;
+            }
+        }
+        this.sqrt = sqrt;
+        this.ln = ln;
+        this.log = log;
+        this.exp = exp;
+    }
+
+    @Override
+    public double sqrt(double x) {
+        return sqrt != null && sqrt.contains(x) ? sqrt.evaluate(x) : super.sqrt(x);
+    }
+
+    @Override
+    public double ln(double x) {
+        return ln != null && ln.contains(x) ? ln.evaluate(x) : super.ln(x);
+    }
+
+    @Override
+    public double log(double x) {
+        return log != null && log.contains(x) ? log.evaluate(x) : super.log(x);
+    }
+
+    @Override
+    public double exp(double x) {
+        return exp != null && exp.contains(x) ? exp.evaluate(x) : super.exp(x);
+    }
+
+    private static FunctionTable unique(FunctionTable existing, FunctionTable table) {
+        if (existing != null) {
+            throw new IllegalArgumentException("More than one table for " + table.getFunction().token());
+        }
+        return table;
+    }
+}
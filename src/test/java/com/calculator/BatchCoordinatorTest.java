@@ -0,0 +1,289 @@
+package com.calculator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for distributed batch evaluation
+ */
+@DisplayName("Batch Coordinator Tests")
+@Timeout(60)
+class BatchCoordinatorTest {
+
+    private final List<BatchWorker> workers = new ArrayList<>();
+    private final List<ServerSocket> fakes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < 2; i++) {
+            BatchWorker worker = new BatchWorker(0);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (BatchWorker worker : workers) {
+            worker.close();
+        }
+        for (ServerSocket fake : fakes) {
+            fake.close();
+        }
+    }
+
+    private List<InetSocketAddress> addresses() {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (BatchWorker worker : workers) {
+            addresses.add(new InetSocketAddress("localhost", worker.getPort()));
+        }
+        return addresses;
+    }
+
+    /**
+     * A worker that accepts connections and reads requests, then either drops the connection
+     * after its first bytes or never answers at all.
+     */
+    private InetSocketAddress fakeWorker(boolean hang) throws IOException {
+        ServerSocket server = new ServerSocket(0);
+        fakes.add(server);
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    InputStream in = socket.getInputStream();
+                    if (!hang) {
+                        in.read();
+                        socket.close();
+                        continue;
+                    }
+                    byte[] sink = new byte[8192];
+                    while (in.read(sink) >= 0) {
+                        // swallow requests
+                    }
+                }
+            } catch (IOException e) {
+                // server closed by tearDown
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return new InetSocketAddress("localhost", server.getLocalPort());
+    }
+
+    private static Operation[] randomOperations(Random random, double[] a, double[] b) {
+        Operation[] operations = Operation.values();
+        Operation[] ops = new Operation[a.length];
+        for (int i = 0; i < a.length; i++) {
+            ops[i] = operations[random.nextInt(operations.length)];
+            a[i] = ops[i] == Operation.FACTORIAL ? random.nextInt(25) - 2 : random.nextDouble() * 20 - 5;
+            b[i] = random.nextInt(10) == 0 ? 0 : random.nextDouble() * 4;
+        }
+        return ops;
+    }
+
+    private static void assertMatchesLocal(Operation[] ops, double[] a, double[] b, double[] results,
+                                           String[] errors, int failures) {
+        double[] expected = new double[a.length];
+        String[] expectedErrors = new String[a.length];
+        int expectedFailures = new ParallelBatchExecutor().execute(ops, a, b, expected, expectedErrors);
+        assertEquals(expectedFailures, failures);
+        assertArrayEquals(expected, results);
+        assertArrayEquals(expectedErrors, errors);
+    }
+
+    @Test
+    @DisplayName("Test mixed batch matches local evaluation in input order")
+    void testMixedBatchOrder() throws IOException {
+        int size = 10_000;
+        double[] a = new double[size];
+        double[] b = new double[size];
+        Operation[] ops = randomOperations(new Random(5), a, b);
+        double[] results = new double[size];
+        String[] errors = new String[size];
+
+        int failures = new BatchCoordinator(addresses(), 333, 10_000).execute(ops, a, b, results, errors);
+
+        assertTrue(failures > 0);
+        assertMatchesLocal(ops, a, b, results, errors, failures);
+    }
+
+    @Test
+    @DisplayName("Test single operation and missing second operands")
+    void testSingleOperation() throws IOException {
+        BatchCoordinator coordinator = new BatchCoordinator(addresses(), 100, 10_000);
+        double[] a = {4, -1, 9, 2.25};
+        double[] results = new double[4];
+        String[] errors = new String[4];
+
+        assertEquals(1, coordinator.execute(Operation.SQRT, a, null, results, errors));
+        assertArrayEquals(new double[]{2, Double.NaN, 3, 1.5}, results);
+        assertNotNull(errors[1]);
+
+        assertEquals(4, coordinator.execute(Operation.ADD, a, null, results, null));
+        assertTrue(Double.isNaN(results[0]));
+    }
+
+    @Test
+    @DisplayName("Test expression evaluation over columns")
+    void testExpression() throws IOException {
+        int size = 5_000;
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i * 0.01;
+            y[i] = i % 7 == 0 ? -1 : i;
+        }
+        double[] results = new double[size];
+        String[] errors = new String[size];
+        BatchCoordinator coordinator = new BatchCoordinator(addresses(), 256, 10_000);
+
+        int failures = coordinator.evaluate("x^2 + sqrt(y)", new String[]{"x", "y"},
+                new double[][]{x, y}, results, errors);
+
+        CompiledExpression local = Expression.parse("x^2 + sqrt(y)").compile("x", "y");
+        assertEquals((size + 6) / 7, failures);
+        for (int i = 0; i < size; i++) {
+            if (i % 7 == 0) {
+                assertTrue(Double.isNaN(results[i]));
+                assertNotNull(errors[i]);
+            } else {
+                assertEquals(local.evaluate(new double[]{x[i], y[i]}), results[i], 0.0, "row " + i);
+                assertNull(errors[i]);
+            }
+        }
+
+        assertEquals(size, coordinator.evaluate("x +", new String[]{"x", "y"},
+                new double[][]{x, y}, results, errors));
+        assertNotNull(errors[size - 1]);
+    }
+
+    @Test
+    @DisplayName("Test partitions of a dying worker are retried elsewhere")
+    void testWorkerDeath() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>(addresses());
+        addresses.add(0, fakeWorker(false));
+        int size = 4_000;
+        double[] a = new double[size];
+        double[] b = new double[size];
+        Operation[] ops = randomOperations(new Random(7), a, b);
+        double[] results = new double[size];
+        String[] errors = new String[size];
+
+        int failures = new BatchCoordinator(addresses, 100, 10_000).execute(ops, a, b, results, errors);
+
+        assertMatchesLocal(ops, a, b, results, errors, failures);
+    }
+
+    @Test
+    @DisplayName("Test idle workers take over partitions held by a stalled worker")
+    void testStalledWorker() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>(addresses());
+        addresses.add(0, fakeWorker(true));
+        int size = 4_000;
+        double[] a = new double[size];
+        double[] b = new double[size];
+        Operation[] ops = randomOperations(new Random(11), a, b);
+        double[] results = new double[size];
+        String[] errors = new String[size];
+
+        // far longer than the test timeout, so only speculative copies can finish the batch
+        int failures = new BatchCoordinator(addresses, 100, 600_000).execute(ops, a, b, results, errors);
+
+        assertMatchesLocal(ops, a, b, results, errors, failures);
+    }
+
+    @Test
+    @DisplayName("Test a batch fails once every worker is gone")
+    void testAllWorkersFailed() throws IOException {
+        double[] a = {1, 2, 3};
+        double[] results = new double[3];
+        List<InetSocketAddress> dying = List.of(fakeWorker(false));
+        IOException failed = assertThrows(IOException.class,
+                () -> new BatchCoordinator(dying, 1, 10_000).execute(Operation.SQRT, a, null, results, null));
+        assertEquals("All workers failed", failed.getMessage());
+
+        List<InetSocketAddress> stalled = List.of(fakeWorker(true));
+        failed = assertThrows(IOException.class,
+                () -> new BatchCoordinator(stalled, 1, 200).execute(Operation.SQRT, a, null, results, null));
+        assertTrue(failed.getCause().getMessage().contains("timed out"));
+    }
+
+    @Test
+    @DisplayName("Test invalid batches are rejected before connecting")
+    void testInvalidArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new BatchCoordinator(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new BatchCoordinator(addresses(), 0, 1000));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchCoordinator(addresses(), BatchProtocol.MAX_ROWS + 1, 1000));
+        BatchCoordinator coordinator = new BatchCoordinator(addresses());
+        assertThrows(IllegalArgumentException.class,
+                () -> coordinator.execute(Operation.ADD, new double[2], new double[3], new double[2], null));
+        assertThrows(IllegalArgumentException.class, () -> coordinator.evaluate("x", new String[]{"x"},
+                new double[0][], new double[2], null));
+        assertEquals(0, coordinator.execute(Operation.ADD, new double[0], new double[0], new double[0], null));
+    }
+
+    @Test
+    @DisplayName("Test a response fits in a frame however long its error messages are")
+    void testResponseSize() {
+        int rows = 20_000;
+        String message = "x".repeat(5_000);
+        String[] errors = new String[rows];
+        Arrays.fill(errors, message);
+
+        ByteBuffer frame = BatchProtocol.response(7, new double[rows], errors);
+
+        assertTrue(frame.getInt() <= BatchProtocol.MAX_FRAME_SIZE);
+        assertEquals(7, frame.getLong());
+        assertEquals(rows, frame.getInt());
+        frame.position(frame.position() + rows * Double.BYTES);
+        assertEquals(rows, frame.getInt());
+        for (int i = 0; i < rows; i++) {
+            assertEquals(i, frame.getInt());
+            String received = BatchProtocol.getString(frame);
+            assertTrue(received.length() < message.length() && message.startsWith(received));
+        }
+        assertFalse(frame.hasRemaining());
+        assertEquals("ab", new String(BatchProtocol.utf8("ab\u00e9", 3), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test local worker processes survive losing one of them")
+    void testLocalProcesses() throws IOException {
+        try (BatchWorker.LocalWorkers local = BatchWorker.launchLocal(2)) {
+            assertEquals(2, local.getAddresses().size());
+            BatchCoordinator coordinator = new BatchCoordinator(local.getAddresses(), 500, 10_000);
+            int size = 3_000;
+            double[] a = new double[size];
+            double[] b = new double[size];
+            Operation[] ops = randomOperations(new Random(13), a, b);
+            double[] results = new double[size];
+            String[] errors = new String[size];
+
+            assertMatchesLocal(ops, a, b, results, errors, coordinator.execute(ops, a, b, results, errors));
+
+            local.kill(0);
+            Arrays.fill(results, 0);
+            Arrays.fill(errors, null);
+            assertMatchesLocal(ops, a, b, results, errors, coordinator.execute(ops, a, b, results, errors));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for streaming batch evaluation
+ */
+@DisplayName("Batch Processor Tests")
+class BatchProcessorTest {
+
+    private BatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new BatchProcessor();
+    }
+
+    @Test
+    @DisplayName("Test one output line per operation")
+    void testProcess() throws IOException {
+        String input = "# comment\nsqrt,16\npower 2 10\n\n  divide, 7, 2\nfactorial,20\nexp;0\n";
+        StringWriter output = new StringWriter();
+
+        assertEquals(5, processor.process(new StringReader(input), output));
+        assertEquals("4.0\n1024.0\n3.5\n2432902008176640000\n1.0\n", output.toString());
+    }
+
+    @Test
+    @DisplayName("Test errors are reported inline without stopping the batch")
+    void testErrors() throws IOException {
+        String input = "divide,1,0\nsqrt,-4\nmodulo,1,2\nadd,1\nadd,1,2,3\nln,abc\nfactorial,2.5\nadd,1,2\n";
+        StringWriter output = new StringWriter();
+
+        processor.process(new StringReader(input), output);
+        String[] lines = output.toString().split("\n");
+        assertEquals(8, lines.length);
+        assertEquals("Error: Cannot divide by zero", lines[0]);
+        assertEquals("Error: Cannot calculate square root of negative number", lines[1]);
+        assertEquals("Error: Unknown operation: modulo", lines[2]);
+        assertEquals("Error: add expects 2 argument(s)", lines[3]);
+        assertEquals("Error: add expects 2 argument(s)", lines[4]);
+        assertEquals("Error: Invalid number format: abc", lines[5]);
+        assertEquals("Error: Factorial only defined for non-negative integers", lines[6]);
+        assertEquals("3.0", lines[7]);
+    }
+
+    @Test
+    @DisplayName("Test pipelined processing preserves order across many blocks")
+    void testPipelinedOrdering() throws IOException {
+        int count = BatchProcessor.BLOCK_SIZE * 5 + 17;
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            input.append("add,").append(i).append(",0.5\n");
+            expected.append(i + 0.5).append('\n');
+        }
+        StringWriter output = new StringWriter();
+
+        assertEquals(count, processor.processPipelined(new StringReader(input.toString()), output));
+        assertEquals(expected.toString(), output.toString());
+    }
+
+    @Test
+    @DisplayName("Test pipelined processing reports reader failures instead of hanging")
+    void testPipelinedReaderFailure() {
+        Duration limit = Duration.ofSeconds(10);
+        IllegalStateException failure = assertTimeoutPreemptively(limit, () -> assertThrows(IllegalStateException.class,
+                () -> processor.processPipelined(failingReader(new IllegalStateException("broken source")),
+                        new StringWriter())));
+        assertEquals("broken source", failure.getMessage());
+
+        assertTimeoutPreemptively(limit, () -> assertThrows(OutOfMemoryError.class,
+                () -> processor.processPipelined(failingReader(new OutOfMemoryError("line too long")),
+                        new StringWriter())));
+    }
+
+    /**
+     * A reader that yields one line and then throws {@code failure}.
+     */
+    private static Reader failingReader(Throwable failure) {
+        return new Reader() {
+            private boolean first = true;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (first) {
+                    first = false;
+                    "add,1,2\n".getChars(0, 8, buffer, offset);
+                    return 8;
+                }
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the arbitrary-precision calculator, against 50-digit reference values
+ */
+@DisplayName("BigDecimal Calculator Tests")
+class BigDecimalCalculatorTest {
+
+    private final BigDecimalCalculator calculator =
+            new BigDecimalCalculator(new MathContext(50, RoundingMode.HALF_EVEN));
+
+    private static BigDecimal d(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    @DisplayName("Test decimal arithmetic has no binary rounding error")
+    void testArithmetic() {
+        assertEquals(d("0.3"), calculator.add(d("0.1"), d("0.2")));
+        assertEquals(d("0.1"), calculator.subtract(d("0.3"), d("0.2")));
+        assertEquals(d("0.0002"), calculator.multiply(d("0.01"), d("0.02")));
+        assertEquals(d("0.33333333333333333333333333333333333333333333333333"), calculator.divide(d("1"), d("3")));
+        assertEquals(d("2.5"), calculator.divide(d("10"), d("4")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "sqrt, 2, 1.4142135623730950488016887242096980785696718753769",
+        "ln, 2, 0.69314718055994530941723212145817656807550013436026",
+        "ln, 10, 2.3025850929940456840179914546843642076011014886288",
+        "ln, 2.5, 0.91629073187415506518352721176801107145010121990826",
+        "ln, 0.001234, -6.6974943534989409806931449280378178528166738807735",
+        "ln, 1.0000001, 9.9999995000000333333308333335333333166666680952380E-8",
+        "ln, 1E+1000, 2302.5850929940456840179914546843642076011014886288",
+        "log, 12345.678, 4.0915149455092012746551105421561146549312760641845",
+        "exp, 1, 2.7182818284590452353602874713526624977572470937000",
+        "exp, 100, 26881171418161354484126255515800135873611118.773742",
+        "exp, -50, 1.9287498479639177830173428165270125747528326512303E-22"
+    })
+    @DisplayName("Test functions are correct to 50 digits")
+    void testFunctions(String function, String argument, String expected) {
+        BigDecimal result = calculator.apply(Operation.fromToken(function), d(argument), null);
+        assertEquals(0, d(expected).compareTo(result), function + "(" + argument + ") = " + result);
+    }
+
+    @Test
+    @DisplayName("Test integral and fractional powers")
+    void testPower() {
+        assertEquals(0, d("1.1293469354568554514462957951343802684357036576426")
+                .compareTo(calculator.power(d("1.5"), d("0.3"))));
+        assertEquals(d("1024"), calculator.power(d("2"), d("10")));
+        assertEquals(d("0.125"), calculator.power(d("2"), d("-3")));
+        assertEquals(d("-27"), calculator.power(d("-3"), d("3.0")));
+        assertEquals(0, calculator.sqrt(d("2")).compareTo(calculator.power(d("2"), d("0.5"))));
+        assertEquals(BigDecimal.ZERO, calculator.power(BigDecimal.ZERO, d("0.5")));
+    }
+
+    @Test
+    @DisplayName("Test integral powers are correctly rounded")
+    void testIntegralPowersRounding() {
+        MathContext mc = calculator.getMathContext();
+        Random random = new Random(17);
+        for (int i = 0; i < 200; i++) {
+            BigDecimal base = new BigDecimal(new BigInteger(100, random), 28).negate();
+            int n = 1 + random.nextInt(120);
+            BigDecimal exact = base.pow(n);
+            assertEquals(exact.round(mc), calculator.power(base, BigDecimal.valueOf(n)), base + "^" + n);
+            assertEquals(BigDecimal.ONE.divide(exact, mc), calculator.power(base, BigDecimal.valueOf(-n)),
+                    base + "^-" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Test exact powers of ten, factorial and e")
+    void testExactValues() {
+        assertEquals(0, d("3").compareTo(calculator.log(d("1000"))));
+        assertEquals(0, d("-2").compareTo(calculator.log(d("0.01"))));
+        assertEquals(d("120"), calculator.factorial(5));
+        assertEquals(new BigDecimal(new Calculator().bigFactorial(30)), calculator.factorial(30));
+        assertEquals(calculator.exp(BigDecimal.ONE), calculator.e());
+        assertEquals(BigDecimal.ZERO, calculator.sqrt(BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("Test domain errors match the double calculator")
+    void testErrors() {
+        assertEquals("Cannot divide by zero",
+                assertThrows(ArithmeticException.class, () -> calculator.divide(d("1"), BigDecimal.ZERO)).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> calculator.sqrt(d("-1")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.ln(BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> calculator.log(d("-5")));
+        assertThrows(IllegalArgumentException.class, () -> calculator.factorial(-1));
+        assertThrows(IllegalArgumentException.class, () -> calculator.power(d("-8"), d("0.5")));
+        assertThrows(ArithmeticException.class, () -> calculator.power(BigDecimal.ZERO, d("-1")));
+        assertEquals("Exponent out of range",
+                assertThrows(ArithmeticException.class, () -> calculator.power(d("-2"), d("1E+10"))).getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.apply(Operation.FACTORIAL, d("2.5"), null));
+        assertThrows(IllegalArgumentException.class, () -> new BigDecimalCalculator(MathContext.UNLIMITED));
+    }
+
+    @Test
+    @DisplayName("Test results agree with the double calculator")
+    void testAgreesWithDouble() {
+        Calculator doubles = new Calculator();
+        BigDecimalCalculator decimal64 = new BigDecimalCalculator(MathContext.DECIMAL64);
+        for (double x : new double[] {1e-300, 0.001, 0.3, 0.999, 1, 1.7, 42, 1e6, 7.5e200}) {
+            BigDecimal value = new BigDecimal(x);
+            assertEquals(doubles.sqrt(x), decimal64.sqrt(value).doubleValue(), Math.ulp(doubles.sqrt(x)) * 2);
+            assertEquals(doubles.ln(x), decimal64.ln(value).doubleValue(), Math.abs(doubles.ln(x)) * 1e-15 + 1e-300);
+            assertEquals(doubles.log(x), decimal64.log(value).doubleValue(), Math.abs(doubles.log(x)) * 1e-15 + 1e-300);
+        }
+        for (double x : new double[] {-700, -1.5, -0.001, 0.5, 3, 88.5, 700}) {
+            assertEquals(doubles.exp(x), decimal64.exp(new BigDecimal(x)).doubleValue(), doubles.exp(x) * 1e-15);
+        }
+    }
+
+    @Test
+    @DisplayName("Test high precision round trips")
+    void testHighPrecision() {
+        BigDecimalCalculator wide = new BigDecimalCalculator(new MathContext(500));
+        BigDecimal root = wide.sqrt(d("2"));
+        assertEquals(500, root.precision());
+        assertTrue(wide.multiply(root, root).subtract(d("2")).abs().compareTo(d("1E-497")) < 0);
+
+        BigDecimal x = d("3.75");
+        BigDecimal roundTrip = wide.exp(wide.ln(x));
+        assertTrue(roundTrip.subtract(x).abs().compareTo(d("1E-496")) < 0);
+        // the cached constants are rounded down for lower precisions
+        assertEquals(0, d("0.69314718055994530941723212145817656807550013436026").compareTo(calculator.ln(d("2"))));
+    }
+}
@@ -0,0 +1,103 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memoizing calculator
+ */
+@DisplayName("Caching Calculator Tests")
+class CachingCalculatorTest {
+
+    @Test
+    @DisplayName("Test cached results are identical and counted as hits")
+    void testHitsAndMisses() {
+        CachingCalculator calculator = new CachingCalculator(64);
+
+        assertEquals(1024.0, calculator.power(2, 10));
+        assertEquals(1024.0, calculator.power(2, 10));
+        assertEquals(Math.log(5), calculator.ln(5));
+        assertEquals(Math.log(5), calculator.ln(5));
+        assertEquals(2.0, calculator.log(100));
+        assertEquals(Math.exp(1.5), calculator.exp(1.5));
+
+        assertEquals(2, calculator.getCacheHits());
+        assertEquals(4, calculator.getCacheMisses());
+        assertEquals(0, calculator.getCacheEvictions());
+    }
+
+    @Test
+    @DisplayName("Test operations and signed zeros are distinct keys")
+    void testKeysAreExact() {
+        CachingCalculator calculator = new CachingCalculator(64);
+
+        assertEquals(Math.log(10), calculator.ln(10));
+        assertEquals(1.0, calculator.log(10));
+        assertEquals(Double.POSITIVE_INFINITY, calculator.power(0.0, -1));
+        assertEquals(Double.NEGATIVE_INFINITY, calculator.power(-0.0, -1));
+        assertEquals(0, calculator.getCacheHits());
+    }
+
+    @Test
+    @DisplayName("Test domain errors are rethrown and not cached")
+    void testErrorsNotCached() {
+        CachingCalculator calculator = new CachingCalculator(64);
+
+        assertThrows(IllegalArgumentException.class, () -> calculator.ln(-1));
+        assertThrows(IllegalArgumentException.class, () -> calculator.ln(-1));
+        assertEquals(0, calculator.getCacheHits());
+        assertEquals(2, calculator.getCacheMisses());
+    }
+
+    @Test
+    @DisplayName("Test capacity is bounded and least recently used entries are evicted")
+    void testEviction() {
+        CachingCalculator calculator = new CachingCalculator(64);
+        int capacity = calculator.getCacheCapacity();
+        assertEquals(64, capacity);
+
+        for (int i = 0; i < 10 * capacity; i++) {
+            calculator.exp(i);
+        }
+        assertEquals(10 * capacity, calculator.getCacheMisses());
+        assertEquals(9 * capacity, calculator.getCacheEvictions());
+
+        calculator.clearCache();
+        calculator.exp(0);
+        assertEquals(0, calculator.getCacheHits());
+    }
+
+    @Test
+    @DisplayName("Test concurrent use returns correct values")
+    void testConcurrentAccess() throws Exception {
+        CachingCalculator calculator = new CachingCalculator(256);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        double x = i % 500;
+                        assertEquals(Math.pow(x, 1.5), calculator.power(x, 1.5));
+                        assertEquals(Math.exp(x / 100), calculator.exp(x / 100));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(8 * 100_000, calculator.getCacheHits() + calculator.getCacheMisses());
+        assertTrue(calculator.getCacheHits() > 0);
+    }
+}
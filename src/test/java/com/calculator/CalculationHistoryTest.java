@@ -0,0 +1,177 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped calculation history
+ */
+@DisplayName("Calculation History Tests")
+class CalculationHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    private CalculationHistory open(int recordsPerSegment, int maxSegments) throws IOException {
+        return new CalculationHistory(directory, recordsPerSegment, maxSegments, clock::get);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Test entries are appended and replayed in order")
+    void testAppendAndReplay() throws IOException {
+        try (CalculationHistory history = open(100, 4)) {
+            assertEquals(0, history.lastSequence());
+            assertEquals(1, history.append(Operation.ADD, 2, 3, 5));
+            assertEquals(2, history.append(Operation.DIVIDE, CalculationStatus.DIVIDE_BY_ZERO, 1, 0, Double.NaN));
+            assertEquals(3, history.append(Operation.SQRT, 16, 0, 4));
+
+            List<HistoryEntry> entries = new ArrayList<>();
+            history.replay(entries::add);
+            assertEquals(3, entries.size());
+            HistoryEntry first = entries.get(0);
+            assertEquals(1, first.sequence());
+            assertEquals(1_000, first.timestamp());
+            assertEquals(Operation.ADD, first.operation());
+            assertEquals(5.0, first.result());
+            assertEquals("add(2, 3) = 5", first.toString());
+            assertEquals("divide(1, 0) = Error: Cannot divide by zero", entries.get(1).toString());
+            assertEquals("sqrt(16) = 4", entries.get(2).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test history survives reopening and continues the sequence")
+    void testReopen() throws IOException {
+        try (CalculationHistory history = open(100, 4)) {
+            history.append(Operation.POWER, 2, 10, 1024);
+            history.append(Operation.LN, 1, 0, 0);
+        }
+        try (CalculationHistory history = open(100, 4)) {
+            assertEquals(2, history.size());
+            assertEquals(3, history.append(Operation.EXP, 0, 0, 1));
+            assertEquals("power(2, 10) = 1024", history.recent(3).get(0).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a record without its commit marker is dropped on recovery")
+    void testTornRecord() throws IOException {
+        try (CalculationHistory history = open(100, 4)) {
+            history.append(Operation.ADD, 1, 1, 2);
+            history.append(Operation.ADD, 2, 2, 4);
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // clear the second record's sequence, as if the process died before writing it
+            ByteBuffer zero = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            channel.write(zero, CalculationHistory.HEADER_SIZE + CalculationHistory.RECORD_SIZE);
+        }
+        try (CalculationHistory history = open(100, 4)) {
+            assertEquals(1, history.size());
+            assertEquals(2, history.append(Operation.MULTIPLY, 3, 3, 9));
+            assertEquals(Operation.MULTIPLY, history.recent(1).get(0).operation());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a record with an out-of-range operation byte is treated as torn")
+    void testCorruptRecord() throws IOException {
+        try (CalculationHistory history = open(100, 4)) {
+            history.append(Operation.ADD, 1, 1, 2);
+            history.append(Operation.ADD, 2, 2, 4);
+            history.append(Operation.ADD, 3, 3, 6);
+        }
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0x7f}),
+                    CalculationHistory.HEADER_SIZE + CalculationHistory.RECORD_SIZE + 16);
+        }
+        try (CalculationHistory history = open(100, 4)) {
+            assertEquals(1, history.size());
+            assertEquals(1, history.recent(10).size());
+            assertEquals(2, history.append(Operation.MULTIPLY, 3, 3, 9));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a directory can only be open once at a time")
+    void testExclusiveDirectory() throws IOException {
+        try (CalculationHistory history = open(100, 4)) {
+            history.append(Operation.ADD, 1, 1, 2);
+            IOException busy = assertThrows(IOException.class, () -> open(100, 4));
+            assertTrue(busy.getMessage().contains("in use"));
+        }
+        try (CalculationHistory history = open(100, 4)) {
+            assertEquals(2, history.append(Operation.ADD, 2, 2, 4));
+        }
+    }
+
+    @Test
+    @DisplayName("Test segments roll and the oldest are deleted")
+    void testSegmentRolling() throws IOException {
+        try (CalculationHistory history = open(10, 3)) {
+            for (int i = 1; i <= 45; i++) {
+                history.append(Operation.ADD, i, 0, i);
+            }
+            assertEquals(25, history.size());
+            assertEquals(21, history.firstSequence());
+            assertEquals(45, history.lastSequence());
+            assertEquals(21.0, history.range(1, 21).get(0).a());
+        }
+        assertEquals(3, segments().size());
+        try (CalculationHistory history = open(10, 3)) {
+            assertEquals(21, history.firstSequence());
+            assertEquals(46, history.append(Operation.ADD, 46, 0, 46));
+        }
+    }
+
+    @Test
+    @DisplayName("Test range queries by sequence and time")
+    void testRanges() throws IOException {
+        try (CalculationHistory history = open(8, 10)) {
+            for (int i = 1; i <= 30; i++) {
+                clock.set(i * 100L);
+                history.append(Operation.MULTIPLY, i, 2, i * 2);
+            }
+            List<HistoryEntry> bySequence = history.range(7, 12);
+            assertEquals(6, bySequence.size());
+            assertEquals(7, bySequence.get(0).sequence());
+            assertEquals(12, bySequence.get(5).sequence());
+
+            List<HistoryEntry> byTime = history.rangeByTime(750, 1_600);
+            assertEquals(8, byTime.get(0).sequence());
+            assertEquals(16, byTime.get(byTime.size() - 1).sequence());
+            assertTrue(history.rangeByTime(5_000, 6_000).isEmpty());
+
+            clock.set(0);
+            history.append(Operation.ADD, 0, 0, 0);
+            assertEquals(3_000, history.recent(1).get(0).timestamp(), "timestamps never go backwards");
+            assertEquals(5, history.recent(5).size());
+            assertEquals(31, history.recent(5).get(4).sequence());
+        }
+    }
+}
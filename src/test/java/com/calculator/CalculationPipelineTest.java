@@ -0,0 +1,215 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.DoubleStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming calculation pipeline
+ */
+@DisplayName("Calculation Pipeline Tests")
+class CalculationPipelineTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private static double[] await(CompletableFuture<double[]> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Test chained stages match a sequential computation")
+    void testStages() throws Exception {
+        int count = 100_000;
+        double[] input = DoubleStream.iterate(1, x -> x + 1).limit(count).toArray();
+        double[] results = await(CalculationPipeline.of(input)
+                .map(Operation.SQRT)
+                .map(Operation.POWER, 3)
+                .filter(x -> x > 1000)
+                .window(100, CalculationPipeline.Aggregate.SUM)
+                .toArray());
+
+        Calculator calculator = new Calculator();
+        double[] kept = DoubleStream.of(input)
+                .map(x -> calculator.power(calculator.sqrt(x), 3))
+                .filter(x -> x > 1000)
+                .toArray();
+        assertEquals((kept.length + 99) / 100, results.length);
+        for (int w = 0; w < results.length; w++) {
+            double sum = 0;
+            for (int i = w * 100; i < Math.min(kept.length, (w + 1) * 100); i++) {
+                sum += kept[i];
+            }
+            assertEquals(sum, results[w], Math.abs(sum) * 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel stages keep the input order")
+    void testParallelOrder() throws Exception {
+        double[] results = await(CalculationPipeline.from(DoubleStream.iterate(0, x -> x + 1).limit(50_000).iterator(), 100)
+                .map(x -> {
+                    if (ThreadLocalRandom.current().nextInt(1000) == 0) {
+                        Thread.yield();
+                    }
+                    return x * 2;
+                }).parallel(4)
+                .map(Operation.ADD, 1).parallel(3)
+                .toArray());
+        assertEquals(50_000, results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(2.0 * i + 1, results[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel operation stages match the sequential result")
+    void testParallelOperations() throws Exception {
+        double[] input = DoubleStream.iterate(-500, x -> x + 0.25).limit(40_000).toArray();
+        double[] sequential = await(CalculationPipeline.of(input)
+                .map(Operation.LN)
+                .map(Operation.POWER, 1.5)
+                .toArray());
+        double[] parallel = await(CalculationPipeline.from(DoubleStream.of(input).iterator(), 16)
+                .map(Operation.LN).parallel(4)
+                .map(Operation.POWER, 1.5).parallel(4)
+                .toArray());
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Test the configured calculator evaluates stages added before it")
+    void testWithCalculator() throws Exception {
+        AtomicLong roots = new AtomicLong();
+        Calculator counting = new Calculator() {
+            @Override
+            public double sqrt(double a) {
+                roots.incrementAndGet();
+                return -super.sqrt(a);
+            }
+        };
+        double[] results = await(CalculationPipeline.of(4, 9, 16)
+                .map(Operation.SQRT)
+                .window(3, CalculationPipeline.Aggregate.STANDARD_DEVIATION)
+                .withCalculator(counting)
+                .toArray());
+        assertEquals(1, results.length);
+        // three roots in the map stage, one more for the window's standard deviation
+        assertEquals(4, roots.get());
+        assertTrue(results[0] < 0);
+    }
+
+    @Test
+    @DisplayName("Test windows aggregate across chunks and flush the last partial window")
+    void testWindows() throws Exception {
+        double[] input = {1, 2, 3, 4, 5, 6, 7};
+        CalculationPipeline.Aggregate mean = CalculationPipeline.Aggregate.MEAN;
+        assertArrayEquals(new double[] {2, 5, 7},
+                await(CalculationPipeline.from(DoubleStream.of(input).iterator(), 2).window(3, mean).toArray()));
+        assertArrayEquals(new double[] {3, 3, 1},
+                await(CalculationPipeline.of(input).window(3, CalculationPipeline.Aggregate.COUNT).toArray()));
+        assertArrayEquals(new double[] {7},
+                await(CalculationPipeline.of(input).window(10, CalculationPipeline.Aggregate.MAX).toArray()));
+        assertArrayEquals(new double[0], await(CalculationPipeline.of().window(3, mean).toArray()));
+    }
+
+    @Test
+    @DisplayName("Test text sources, domain errors and failures")
+    void testSourcesAndErrors() throws Exception {
+        String text = "1\n# comment\n\n  4 \nnot a number\n-9\n9\n";
+        double[] roots = await(CalculationPipeline.from(new StringReader(text)).map(Operation.SQRT).toArray());
+        assertEquals(5, roots.length);
+        assertEquals(1.0, roots[0]);
+        assertEquals(2.0, roots[1]);
+        assertTrue(Double.isNaN(roots[2]));
+        assertTrue(Double.isNaN(roots[3]));
+        assertEquals(3.0, roots[4]);
+
+        CompletableFuture<double[]> failing = CalculationPipeline.of(1, 2, 3)
+                .map(x -> {
+                    throw new IllegalStateException("sensor offline");
+                })
+                .toArray();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> await(failing));
+        assertEquals("sensor offline", failure.getCause().getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> CalculationPipeline.of(1).map(Operation.ADD));
+        assertThrows(IllegalArgumentException.class, () -> CalculationPipeline.of(1).map(Operation.SQRT, 2).map(Operation.POWER));
+        assertThrows(IllegalStateException.class,
+                () -> CalculationPipeline.of(1).window(2, CalculationPipeline.Aggregate.SUM).parallel(2));
+        assertThrows(IllegalStateException.class, () -> CalculationPipeline.of(1).parallel(2));
+        CalculationPipeline once = CalculationPipeline.of(1);
+        once.toArray();
+        assertThrows(IllegalStateException.class, once::toArray);
+    }
+
+    @Test
+    @DisplayName("Test a slow consumer holds back an endless source")
+    void testBackpressure() throws Exception {
+        AtomicLong generated = new AtomicLong();
+        int chunkSize = 64;
+        int bufferChunks = 4;
+        CountDownLatch stopped = new CountDownLatch(1);
+        long[] consumed = new long[1];
+        CalculationPipeline.from(DoubleStream.generate(generated::incrementAndGet).iterator(), chunkSize)
+                .withBufferSize(bufferChunks)
+                .map(Operation.LN)
+                .map(Operation.EXP).parallel(2)
+                .subscribe(new Flow.Subscriber<double[]>() {
+                    private Flow.Subscription subscription;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(double[] chunk) {
+                        consumed[0] += chunk.length;
+                        if (consumed[0] >= 20_000) {
+                            subscription.cancel();
+                            stopped.countDown();
+                            return;
+                        }
+                        if (consumed[0] % 1024 == 0) {
+                            try {
+                                Thread.sleep(1);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        stopped.countDown();
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        stopped.countDown();
+                    }
+                });
+        assertTrue(stopped.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // per stage: the subscriber's buffer, the chunks in flight, and one blocked in submit
+        long bound = 2L * (bufferChunks + 2 + 1) * chunkSize + chunkSize;
+        long ahead = generated.get() - consumed[0];
+        assertTrue(ahead <= bound, ahead + " values generated ahead of the consumer");
+        long settled = generated.get();
+        Thread.sleep(200);
+        assertEquals(settled, generated.get(), "the source kept producing after cancellation");
+    }
+}
@@ -0,0 +1,163 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for operation metrics and latency histograms
+ */
+@DisplayName("Calculator Metrics Tests")
+class CalculatorMetricsTest {
+
+    @Test
+    @DisplayName("Test calls and errors are counted per operation")
+    void testCounts() {
+        CalculatorMetrics metrics = new CalculatorMetrics(true);
+        InstrumentedCalculator calculator = new InstrumentedCalculator(metrics);
+
+        assertEquals(5.0, calculator.add(2, 3));
+        assertEquals(4.0, calculator.sqrt(16));
+        assertEquals(120, calculator.factorial(5));
+        assertThrows(ArithmeticException.class, () -> calculator.divide(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> calculator.ln(-1));
+
+        assertEquals(1, metrics.getCount(Operation.ADD));
+        assertEquals(1, metrics.getCount(Operation.DIVIDE));
+        assertEquals(1, metrics.getErrors(Operation.DIVIDE));
+        assertEquals(1, metrics.getErrors(Operation.LN));
+        assertEquals(0, metrics.getErrors(Operation.SQRT));
+        assertEquals(5, metrics.getTotalOperations());
+        assertEquals(2, metrics.getTotalErrors());
+        assertEquals(1L, metrics.getOperationCounts().get("factorial"));
+    }
+
+    @Test
+    @DisplayName("Test nothing is recorded while disabled")
+    void testDisabled() {
+        CalculatorMetrics metrics = new CalculatorMetrics(false);
+        InstrumentedCalculator calculator = new InstrumentedCalculator(metrics);
+
+        calculator.multiply(2, 3);
+        assertThrows(ArithmeticException.class, () -> calculator.divide(1, 0));
+        assertEquals(0, metrics.getTotalOperations());
+        assertEquals(0, metrics.getTotalErrors());
+
+        metrics.setEnabled(true);
+        calculator.multiply(2, 3);
+        assertEquals(1, metrics.getCount(Operation.MULTIPLY));
+
+        metrics.reset();
+        assertEquals(0, metrics.getTotalOperations());
+    }
+
+    @Test
+    @DisplayName("Test histogram buckets bound recorded values within about 6%")
+    void testHistogramBuckets() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            long upper = LatencyHistogram.upperBound(index);
+            assertTrue(upper >= value, "upper bound for " + value);
+            assertTrue(upper - value <= Math.max(1, value / 16), "bucket width for " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBound(index - 1) < value, "lower bound for " + value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test histogram percentiles")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500.0, histogram.mean());
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(500_000, histogram.percentile(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.percentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    @DisplayName("Test concurrent recording loses no counts")
+    void testConcurrentRecording() throws Exception {
+        CalculatorMetrics metrics = new CalculatorMetrics(true);
+        InstrumentedCalculator calculator = new InstrumentedCalculator(metrics);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        calculator.power(2, i % 10);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(80_000, metrics.getCount(Operation.POWER));
+    }
+
+    @Test
+    @DisplayName("Test report and MBean registration")
+    void testReportAndMBean() throws Exception {
+        CalculatorMetrics metrics = new CalculatorMetrics(true);
+        new InstrumentedCalculator(metrics).exp(1);
+
+        String report = metrics.getReport();
+        assertTrue(report.startsWith("operation"));
+        assertTrue(report.contains("\nexp "));
+        assertTrue(report.contains("enabled: true"));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CalculatorMetrics.OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        metrics.registerMBean();
+        try {
+            assertEquals(1L, server.getAttribute(name, "TotalOperations"));
+            server.setAttribute(name, new Attribute("Enabled", false));
+            assertFalse(metrics.isEnabled());
+        } finally {
+            server.unregisterMBean(name);
+            // hand the name back to the process-wide instance
+            CalculatorMetrics.global().registerMBean();
+        }
+    }
+
+    @Test
+    @DisplayName("Test the global instance can be enabled through JMX while disabled")
+    void testGlobalMBean() throws Exception {
+        CalculatorMetrics global = CalculatorMetrics.global();
+        assertFalse(global.isEnabled());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(CalculatorMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        server.setAttribute(name, new Attribute("Enabled", true));
+        try {
+            assertTrue(global.isEnabled());
+        } finally {
+            global.setEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.calculator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HTTP calculation service
+ */
+@DisplayName("Calculator Server Tests")
+class CalculatorServerTest {
+
+    private CalculatorServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new CalculatorServer(0);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "/api/add?a=2&b=3; 5.0",
+        "/api/subtract?a=2&b=3; -1.0",
+        "/api/multiply?a=2.5&b=4; 10.0",
+        "/api/divide?a=7&b=2; 3.5",
+        "/api/sqrt?a=16; 4.0",
+        "/api/power?a=2&b=10; 1024.0",
+        "/api/factorial?a=20; 2432902008176640000",
+        "/api/ln?a=1; 0.0",
+        "/api/log?a=1000; 3.0",
+        "/api/exp?a=0; 1.0"
+    })
+    @DisplayName("Test every operation is exposed")
+    void testOperations(String path, String expected) throws Exception {
+        HttpResponse<String> response = get(path);
+        assertEquals(200, response.statusCode());
+        assertEquals(expected, response.body());
+    }
+
+    @Test
+    @DisplayName("Test domain and input errors return 400")
+    void testErrors() throws Exception {
+        HttpResponse<String> divide = get("/api/divide?a=1&b=0");
+        assertEquals(400, divide.statusCode());
+        assertTrue(divide.body().contains("Cannot divide by zero"));
+
+        assertEquals(400, get("/api/sqrt?a=-4").statusCode());
+        assertEquals(400, get("/api/sqrt").statusCode());
+        assertEquals(400, get("/api/add?a=1&b=x").statusCode());
+        assertEquals(400, get("/api/modulo?a=1&b=2").statusCode());
+    }
+
+    @Test
+    @DisplayName("Test batch endpoint answers one line per input line")
+    void testBatch() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/api/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString("sqrt,16\npower,2,10\n\nln,-1\nadd,1\nfactorial,5\n"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        String[] lines = response.body().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("4.0", lines[0]);
+        assertEquals("1024.0", lines[1]);
+        assertTrue(lines[2].startsWith("Error: Logarithm undefined"));
+        assertTrue(lines[3].startsWith("Error: add expects 2"));
+        assertEquals("120", lines[4]);
+    }
+
+    @Test
+    @DisplayName("Test health endpoint and method checks")
+    void testHealthAndMethods() throws Exception {
+        assertEquals("OK", get("/health").body());
+        assertEquals(405, get("/api/batch").statusCode());
+    }
+
+    @Test
+    @DisplayName("Test metrics endpoint serves the plain-text report")
+    void testMetrics() throws Exception {
+        HttpResponse<String> response = get("/metrics");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("operation"));
+        assertTrue(response.body().contains("\npower "));
+    }
+}
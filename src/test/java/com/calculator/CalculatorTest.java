@@ -7,6 +7,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -113,6 +121,79 @@ class CalculatorTest {
         assertEquals(6227020800L, calculator.factorial(13));
     }
     
+    @Test
+    @DisplayName("Test factorial beyond the long range throws instead of overflowing")
+    void testFactorialLongOverflow() {
+        assertEquals(2432902008176640000L, calculator.factorial(20));
+        assertThrows(ArithmeticException.class, () -> calculator.factorial(21));
+    }
+    
+    @Test
+    @DisplayName("Test big factorial matches the naive product")
+    void testBigFactorial() {
+        for (int n : new int[] {0, 1, 20, 21, 63, 64, 65, 500, 1024, 1025, 3000}) {
+            BigInteger expected = BigInteger.ONE;
+            for (int i = 2; i <= n; i++) {
+                expected = expected.multiply(BigInteger.valueOf(i));
+            }
+            assertEquals(expected, calculator.bigFactorial(n), "n = " + n);
+        }
+    }
+    
+    @Test
+    @DisplayName("Test parallel big factorial agrees with the sequential product tree")
+    void testBigFactorialParallel() {
+        int n = Factorials.PARALLEL_THRESHOLD + 123;
+        BigInteger sequential = Factorials.product(2, n);
+        assertEquals(sequential, calculator.bigFactorial(n));
+        assertThrows(IllegalArgumentException.class, () -> calculator.bigFactorial(-1));
+    }
+    
+    @Test
+    @DisplayName("Test interrupting a big factorial stops its product tree")
+    void testBigFactorialCancelled() throws InterruptedException {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class,
+                    () -> calculator.bigFactorial(Factorials.PARALLEL_THRESHOLD - 1));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        // far too large to finish during the test
+        Throwable[] failure = new Throwable[1];
+        Thread worker = new Thread(() -> {
+            try {
+                calculator.bigFactorial(20_000_000);
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        });
+        worker.start();
+        Thread.sleep(200);
+        worker.interrupt();
+        worker.join(10_000);
+        assertFalse(worker.isAlive(), "the factorial ignored the interrupt");
+        assertInstanceOf(CancellationException.class, failure[0]);
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS), "the product tree kept running");
+    }
+    
+    @Test
+    @DisplayName("Test log-gamma factorial approximation")
+    void testApproximateFactorial() {
+        assertEquals(Math.log(3628800), calculator.lnFactorial(10), 0.0000000001);
+        double exactLn = 0;
+        for (int i = 2; i <= 1000; i++) {
+            exactLn += Math.log(i);
+        }
+        assertEquals(exactLn, calculator.lnFactorial(1000), 0.000001);
+        assertEquals(5.109094217170944E19, calculator.approximateFactorial(21), 1e6);
+        assertEquals(120.0, calculator.approximateFactorial(5), 0.0001);
+        assertEquals(Double.POSITIVE_INFINITY, calculator.approximateFactorial(200));
+        assertThrows(IllegalArgumentException.class, () -> calculator.lnFactorial(-3));
+    }
+    
     // ===== NATURAL LOGARITHM TESTS =====
     
     @Test
@@ -227,6 +308,62 @@ class CalculatorTest {
         assertEquals(1024.0, calculator.power(2, 10), 0.0001);
         assertEquals(1000000.0, calculator.power(10, 6), 0.0001);
     }
+
+    @Test
+    @DisplayName("Test integral exponents are correctly rounded by squaring")
+    void testPowerBySquaring() {
+        Random random = new Random(7);
+        MathContext context = new MathContext(40);
+        for (int i = 0; i < 2000; i++) {
+            double base = 0.5 + random.nextDouble() * 1.5;
+            int exponent = random.nextInt(2 * Powers.SQUARING_LIMIT + 1) - Powers.SQUARING_LIMIT;
+            BigDecimal exact = exponent >= 0
+                    ? new BigDecimal(base).pow(exponent, context)
+                    : BigDecimal.ONE.divide(new BigDecimal(base).pow(-exponent, context), context);
+            assertEquals(exact.doubleValue(), calculator.power(base, exponent), base + "^" + exponent);
+        }
+        // results that are not normal doubles fall back to Math.pow
+        assertEquals(Double.POSITIVE_INFINITY, calculator.power(1e200, 2));
+        assertEquals(Math.pow(1e-160, 2), calculator.power(1e-160, 2));
+        assertEquals(Double.NEGATIVE_INFINITY, calculator.power(-0.0, -3));
+        assertEquals(-0.0, calculator.power(-0.0, 3));
+        assertTrue(Double.isNaN(calculator.power(Double.NaN, 2)));
+        assertEquals(1.0, calculator.power(Double.NaN, 0));
+    }
+
+    @Test
+    @DisplayName("Test exact long and BigInteger powers")
+    void testPowerExact() {
+        assertEquals(1024, calculator.powerExact(2, 10));
+        assertEquals(-27, calculator.powerExact(-3, 3));
+        assertEquals(1, calculator.powerExact(0, 0));
+        assertEquals(Long.MIN_VALUE, calculator.powerExact(-2, 63));
+        assertEquals(4_052_555_153_018_976_267L, calculator.powerExact(3, 39));
+        assertThrows(ArithmeticException.class, () -> calculator.powerExact(2, 63));
+        assertThrows(ArithmeticException.class, () -> calculator.powerExact(3, 40));
+        assertThrows(IllegalArgumentException.class, () -> calculator.powerExact(2, -1));
+
+        assertEquals(BigInteger.ONE.shiftLeft(100), calculator.bigPower(2, 100));
+        assertEquals(BigInteger.valueOf(-3).pow(41), calculator.bigPower(-3, 41));
+        assertThrows(IllegalArgumentException.class, () -> calculator.bigPower(2, -1));
+    }
+
+    @Test
+    @DisplayName("Test modular power for small and large moduli")
+    void testModPow() {
+        assertEquals(1, calculator.modPow(3, 200, 50));
+        assertEquals(343, calculator.modPow(7, 123, 1000));
+        assertEquals(1, calculator.modPow(2, 1_000_000_006, 1_000_000_007));
+        assertEquals(0, calculator.modPow(5, 0, 1));
+        assertEquals(1, calculator.modPow(5, 0, 7));
+        assertEquals(6, calculator.modPow(-1, 3, 7));
+
+        long mersenne = (1L << 61) - 1;
+        assertEquals(BigInteger.valueOf(37).modPow(BigInteger.valueOf(123_456_789), BigInteger.valueOf(mersenne))
+                .longValue(), calculator.modPow(37, 123_456_789, mersenne));
+        assertThrows(IllegalArgumentException.class, () -> calculator.modPow(2, 3, 0));
+        assertThrows(IllegalArgumentException.class, () -> calculator.modPow(2, -3, 5));
+    }
     
     @Test
     @DisplayName("Test power identity cases")
@@ -293,4 +430,181 @@ class CalculatorTest {
         assertEquals(Math.E, calculator.exp(1), 0.0000000001);
         assertEquals(Math.E * Math.E, calculator.exp(2), 0.0000000001);
     }
+
+    // ===== BULK OPERATION TESTS =====
+
+    @Test
+    @DisplayName("Test bulk arithmetic matches scalar operations")
+    void testBulkArithmetic() {
+        double[] a = {1, 2.5, -3, 10};
+        double[] b = {4, 0.5, 3, -2};
+        double[] out = new double[4];
+
+        calculator.add(a, b, out);
+        assertArrayEquals(new double[] {5, 3, 0, 8}, out, 0.0001);
+        calculator.subtract(a, b, out);
+        assertArrayEquals(new double[] {-3, 2, -6, 12}, out, 0.0001);
+        calculator.multiply(a, b, out);
+        assertArrayEquals(new double[] {4, 1.25, -9, -20}, out, 0.0001);
+        calculator.power(a, b, out);
+        assertArrayEquals(new double[] {1, Math.sqrt(2.5), -27, 0.01}, out, 0.0001);
+    }
+
+    @Test
+    @DisplayName("Test bulk range variant only touches the requested slice")
+    void testBulkRange() {
+        double[] a = {1, 2, 3, 4, 5};
+        double[] b = {10, 20, 30, 40, 50};
+        double[] out = new double[6];
+
+        calculator.add(a, 1, b, 2, out, 3, 2);
+        assertArrayEquals(new double[] {0, 0, 0, 32, 43, 0}, out, 0.0001);
+        assertThrows(IndexOutOfBoundsException.class, () -> calculator.add(a, 4, b, 0, out, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Test bulk division reports divide by zero through the error mask")
+    void testBulkDivideErrorMask() {
+        double[] a = {10, 5, 7};
+        double[] b = {2, 0, -7};
+        double[] out = new double[3];
+        boolean[] errors = new boolean[3];
+
+        assertEquals(1, calculator.divide(a, b, out, errors));
+        assertEquals(5.0, out[0], 0.0001);
+        assertTrue(Double.isNaN(out[1]));
+        assertEquals(-1.0, out[2], 0.0001);
+        assertArrayEquals(new boolean[] {false, true, false}, errors);
+    }
+
+    @Test
+    @DisplayName("Test bulk sqrt, ln and log report domain errors without throwing")
+    void testBulkDomainErrors() {
+        double[] in = {16, -4, 0, 100};
+        double[] out = new double[4];
+        boolean[] errors = new boolean[4];
+
+        assertEquals(1, calculator.sqrt(in, out, errors));
+        assertArrayEquals(new boolean[] {false, true, false, false}, errors);
+        assertEquals(4.0, out[0], 0.0001);
+        assertTrue(Double.isNaN(out[1]));
+
+        assertEquals(2, calculator.ln(in, out, errors));
+        assertArrayEquals(new boolean[] {false, true, true, false}, errors);
+        assertTrue(Double.isNaN(out[2]));
+        assertEquals(Math.log(100), out[3], 0.0000000001);
+
+        assertEquals(2, calculator.log(in, out, null));
+        assertEquals(2.0, out[3], 0.0000000001);
+    }
+
+    @Test
+    @DisplayName("Test bulk operations with the output aliasing an input")
+    void testBulkInPlace() {
+        boolean[] errors = new boolean[3];
+
+        double[] x = {4, -4, 9};
+        assertEquals(1, calculator.sqrt(x, x, errors));
+        assertArrayEquals(new boolean[] {false, true, false}, errors);
+        assertEquals(2.0, x[0], 0.0);
+        assertTrue(Double.isNaN(x[1]));
+        assertEquals(3.0, x[2], 0.0);
+
+        double[] y = {1, -2, 3};
+        assertEquals(1, calculator.ln(y, y, errors));
+        assertArrayEquals(new boolean[] {false, true, false}, errors);
+        assertEquals(0.0, y[0], 0.0);
+        assertTrue(Double.isNaN(y[1]));
+        assertEquals(Math.log(3), y[2], 0.0000000001);
+
+        double[] z = {100, 0, 0.1};
+        assertEquals(1, calculator.log(z, z, errors));
+        assertArrayEquals(new boolean[] {false, true, false}, errors);
+        assertEquals(2.0, z[0], 0.0000000001);
+        assertTrue(Double.isNaN(z[1]));
+        assertEquals(-1.0, z[2], 0.0000000001);
+
+        double[] p = {6, 5, -8};
+        double[] q = {0, 2, 4};
+        assertEquals(1, calculator.divide(p, q, q, errors));
+        assertArrayEquals(new boolean[] {true, false, false}, errors);
+        assertTrue(Double.isNaN(q[0]));
+        assertEquals(2.5, q[1], 0.0);
+        assertEquals(-2.0, q[2], 0.0);
+
+        assertEquals(0, calculator.divide(p, q, p, null));
+        assertTrue(Double.isNaN(p[0]));
+        assertEquals(2.0, p[1], 0.0);
+        assertEquals(4.0, p[2], 0.0);
+    }
+
+    @Test
+    @DisplayName("Test bulk exponential")
+    void testBulkExp() {
+        double[] in = {0, 1, 2};
+        double[] out = new double[3];
+        calculator.exp(in, out);
+        assertArrayEquals(new double[] {1, Math.E, Math.E * Math.E}, out, 0.0000000001);
+    }
+
+    // ===== EXCEPTION-FREE TESTS =====
+
+    @Test
+    @DisplayName("Test try variants return values with OK status")
+    void testTryVariantsSucceed() {
+        CalculationResult result = new CalculationResult();
+        assertEquals(CalculationStatus.OK, calculator.tryDivide(10, 4, result));
+        assertEquals(2.5, result.value());
+        assertEquals(CalculationStatus.OK, calculator.trySqrt(16, result));
+        assertEquals(4.0, result.value());
+        assertEquals(CalculationStatus.OK, calculator.tryFactorial(20, result));
+        assertEquals(2432902008176640000L, (long) result.value());
+        assertEquals(CalculationStatus.OK, calculator.tryLog(1000, result));
+        assertEquals(3.0, result.getOrThrow(), 0.0000000001);
+        assertEquals(CalculationStatus.OK, calculator.tryPower(2, 10, result));
+        assertEquals(1024.0, result.value());
+    }
+
+    @Test
+    @DisplayName("Test try variants report domain errors as statuses matching the exceptions")
+    void testTryVariantsFail() {
+        CalculationResult result = new CalculationResult();
+        assertEquals(CalculationStatus.DIVIDE_BY_ZERO, calculator.tryDivide(1, 0, result));
+        assertTrue(Double.isNaN(result.value()));
+        assertFalse(result.isOk());
+        assertEquals(CalculationStatus.NEGATIVE_SQRT, calculator.trySqrt(-4, result));
+        assertEquals(CalculationStatus.NON_POSITIVE_LOG, calculator.tryLn(0, result));
+        assertEquals(CalculationStatus.NON_POSITIVE_LOG, calculator.tryLog(-1, result));
+        assertEquals(CalculationStatus.NEGATIVE_FACTORIAL, calculator.tryFactorial(-1, result));
+        assertEquals(CalculationStatus.FACTORIAL_OVERFLOW, calculator.tryFactorial(21, result));
+
+        ArithmeticException overflow = assertThrows(ArithmeticException.class, result::getOrThrow);
+        assertEquals(assertThrows(ArithmeticException.class, () -> calculator.factorial(21)).getMessage(),
+                overflow.getMessage());
+        calculator.tryDivide(1, 0, result);
+        assertEquals("Cannot divide by zero", assertThrows(ArithmeticException.class, result::getOrThrow).getMessage());
+        calculator.trySqrt(-1, result);
+        assertThrows(IllegalArgumentException.class, result::getOrThrow);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "divide, 1, 0", "sqrt, -4, 0", "ln, 0, 0", "log, -2, 0",
+        "factorial, -1, 0", "factorial, 2.5, 0", "factorial, 25, 0",
+        "add, 1, 2", "power, 2, 0.5", "factorial, 6, 0"
+    })
+    @DisplayName("Test Operation.tryApply agrees with Operation.apply")
+    void testTryApplyMatchesApply(String token, double a, double b) {
+        Operation operation = Operation.fromToken(token);
+        CalculationResult result = new CalculationResult();
+        CalculationStatus status = operation.tryApply(calculator, a, b, result);
+        try {
+            double expected = operation.apply(calculator, a, b);
+            assertEquals(CalculationStatus.OK, status);
+            assertEquals(expected, result.value());
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            assertEquals(e.getMessage(), status.message());
+            assertEquals(e.getClass(), status.toException().getClass());
+        }
+    }
 }
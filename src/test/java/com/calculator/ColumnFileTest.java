@@ -0,0 +1,159 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the memory-mapped columnar file format and column-to-column batch operations
+ */
+@DisplayName("Column File Tests")
+class ColumnFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Test written columns read back after reopening, in the documented layout")
+    void testRoundTrip() throws IOException {
+        Path path = directory.resolve("data.col");
+        try (ColumnFile file = ColumnFile.create(path, 3, ColumnFile.Column.doubles("x"), ColumnFile.Column.longs("id"))) {
+            file.doubles(0, 0, 3).put(new double[] {1.5, -2, 3.25});
+            file.longs(1, 0, 3).put(new long[] {10, 20, 30});
+        }
+
+        byte[] bytes = Files.readAllBytes(path);
+        assertEquals(16 + 2 * 16 + 2 * 3 * 8, bytes.length);
+        ByteBuffer raw = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("CCOL", new String(bytes, 0, 4, "US-ASCII"));
+        assertEquals(1, raw.getShort(4));
+        assertEquals(2, raw.getShort(6));
+        assertEquals(3, raw.getLong(8));
+        assertEquals(1.5, raw.getDouble(48));
+        assertEquals(30, raw.getLong(48 + 3 * 8 + 2 * 8));
+
+        try (ColumnFile file = ColumnFile.open(path, false)) {
+            assertEquals(3, file.getRowCount());
+            assertEquals(2, file.getColumnCount());
+            assertEquals("id", file.getColumnName(1));
+            assertEquals(ColumnFile.Type.LONG, file.getColumnType(file.columnIndex("id")));
+            DoubleBuffer x = file.doubles(0, 1, 2);
+            assertEquals(-2.0, x.get(0));
+            assertEquals(3.25, x.get(1));
+            LongBuffer ids = file.longs(1, 0, 3);
+            assertEquals(20, ids.get(1));
+            assertThrows(IllegalArgumentException.class, () -> file.longs(0, 0, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> file.doubles(0, 2, 2));
+            assertThrows(IllegalArgumentException.class, () -> file.columnIndex("missing"));
+            assertThrows(ReadOnlyBufferException.class, () -> file.doubles(0, 0, 1).put(0, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test operations apply column to column across several windows")
+    void testApply() throws IOException {
+        int rows = 1000;
+        try (ColumnFile input = ColumnFile.create(directory.resolve("in.col"), rows,
+                     ColumnFile.Column.doubles("a"), ColumnFile.Column.doubles("b"));
+             ColumnFile output = ColumnFile.create(directory.resolve("out.col"), rows,
+                     ColumnFile.Column.doubles("result"))) {
+            DoubleBuffer a = input.doubles(0, 0, rows);
+            DoubleBuffer b = input.doubles(1, 0, rows);
+            for (int i = 0; i < rows; i++) {
+                a.put(i, i - 10);
+                b.put(i, i % 7);
+            }
+
+            Calculator calculator = new Calculator();
+            assertEquals(10, ColumnFile.apply(calculator, Operation.SQRT, input, "a", null, output, "result", 64));
+            DoubleBuffer result = output.doubles(0, 0, rows);
+            assertTrue(Double.isNaN(result.get(0)));
+            assertEquals(3.0, result.get(19));
+
+            long zeroDivisors = (rows + 6) / 7;
+            assertEquals(zeroDivisors, ColumnFile.apply(calculator, Operation.DIVIDE, input, "a", "b", output, "result", 100));
+            assertEquals(calculator.divide(989, 999 % 7), result.get(999));
+            assertTrue(Double.isNaN(result.get(7)));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> ColumnFile.apply(calculator, Operation.ADD, input, "a", null, output, "result"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test the columnar batch mode writes a result file")
+    void testRunColumns() throws IOException {
+        Path in = directory.resolve("in.col");
+        Path out = directory.resolve("out.col");
+        try (ColumnFile input = ColumnFile.create(in, 3, ColumnFile.Column.doubles("a"), ColumnFile.Column.doubles("b"))) {
+            input.doubles(0, 0, 3).put(new double[] {2, 3, 4});
+            input.doubles(1, 0, 3).put(new double[] {10, 2, 0.5});
+        }
+        assertEquals(0, CalculatorCLI.runColumns("power", in.toString(), out.toString()));
+        try (ColumnFile output = ColumnFile.open(out, false)) {
+            DoubleBuffer result = output.doubles(output.columnIndex("result"), 0, 3);
+            assertEquals(1024.0, result.get(0));
+            assertEquals(9.0, result.get(1));
+            assertEquals(2.0, result.get(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Test the columnar batch mode rejects bad arguments without touching files")
+    void testRunColumnsArguments() throws IOException {
+        Path in = directory.resolve("in.col");
+        try (ColumnFile input = ColumnFile.create(in, 3, ColumnFile.Column.doubles("a"))) {
+            input.doubles(0, 0, 3).put(new double[] {4, 9, 16});
+        }
+        byte[] original = Files.readAllBytes(in);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CalculatorCLI.runColumns("sqrt", in.toString(), in.toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> CalculatorCLI.runColumns("sqrt", in.toString(), directory.resolve(".").resolve("in.col").toString()));
+        assertArrayEquals(original, Files.readAllBytes(in));
+
+        Path out = directory.resolve("out.col");
+        assertThrows(IllegalArgumentException.class, () -> CalculatorCLI.runColumns("nope", in.toString(), out.toString()));
+        assertThrows(IllegalArgumentException.class, () -> CalculatorCLI.runColumns("add", in.toString(), out.toString()));
+        assertFalse(Files.exists(out));
+    }
+
+    @Test
+    @DisplayName("Test foreign and truncated files are rejected")
+    void testInvalidFiles() throws IOException {
+        Path text = directory.resolve("text.col");
+        Files.write(text, "a,b\n1,2\n3,4\n5,6\n".getBytes("US-ASCII"));
+        IOException notColumns = assertThrows(IOException.class, () -> ColumnFile.open(text, false));
+        assertTrue(notColumns.getMessage().startsWith("Not a column file"));
+
+        Path truncated = directory.resolve("truncated.col");
+        ColumnFile.create(truncated, 100, ColumnFile.Column.doubles("a")).close();
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> ColumnFile.open(truncated, false));
+
+        Path overflowing = directory.resolve("overflowing.col");
+        ColumnFile.create(overflowing, 4, ColumnFile.Column.doubles("a"), ColumnFile.Column.doubles("b")).close();
+        bytes = Files.readAllBytes(overflowing);
+        // a row count whose data size wraps around to a negative long
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(8, Long.MAX_VALUE / 4);
+        Files.write(overflowing, bytes);
+        IOException corrupt = assertThrows(IOException.class, () -> ColumnFile.open(overflowing, false));
+        assertTrue(corrupt.getMessage().startsWith("Corrupt column file header"));
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnFile.Column.doubles("a name that is too long"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the column statistics accumulator
+ */
+@DisplayName("Column Statistics Tests")
+class ColumnStatisticsTest {
+
+    @Test
+    @DisplayName("Test basic statistics of a small column")
+    void testBasicStatistics() {
+        ColumnStatistics statistics = ColumnStatistics.of(new double[] {2, 4, 4, 4, 5, 5, 7, 9});
+        assertEquals(8, statistics.getCount());
+        assertEquals(40.0, statistics.getSum());
+        assertEquals(5.0, statistics.getMean());
+        assertEquals(4.0, statistics.getVariance(), 1e-12);
+        assertEquals(32.0 / 7, statistics.getSampleVariance(), 1e-12);
+        assertEquals(2.0, statistics.getStandardDeviation(), 1e-12);
+        assertEquals(2.0, statistics.getMin());
+        assertEquals(9.0, statistics.getMax());
+        assertEquals(Math.pow(2.0 * 4 * 4 * 4 * 5 * 5 * 7 * 9, 1.0 / 8), statistics.getGeometricMean(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Test empty columns and non-positive values")
+    void testEdgeCases() {
+        ColumnStatistics empty = new ColumnStatistics();
+        assertEquals(0, empty.getCount());
+        assertEquals(0.0, empty.getSum());
+        assertTrue(Double.isNaN(empty.getMean()));
+        assertTrue(Double.isNaN(empty.getVariance()));
+        assertTrue(Double.isNaN(empty.getMin()));
+        assertTrue(Double.isNaN(empty.getGeometricMean()));
+
+        ColumnStatistics withZero = ColumnStatistics.of(new double[] {3, 0, 1});
+        assertEquals(4.0, withZero.getSum());
+        assertTrue(Double.isNaN(withZero.getGeometricMean()));
+        assertTrue(Double.isNaN(ColumnStatistics.of(new double[] {5}).getSampleVariance()));
+    }
+
+    @Test
+    @DisplayName("Test geometric mean over extreme magnitudes matches per-value accumulation")
+    void testGeometricMeanRange() {
+        double[] values = new double[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? 1e300 : 1e-300;
+        }
+        values[7] = Double.MIN_VALUE;
+        values[9] = Double.MAX_VALUE;
+        double logSum = 0;
+        for (double value : values) {
+            logSum += Math.log(value);
+        }
+        double expected = Math.exp(logSum / values.length);
+        assertEquals(expected, ColumnStatistics.of(values).getGeometricMean(), 1e-12 * expected);
+
+        ColumnStatistics oneByOne = new ColumnStatistics();
+        for (double value : values) {
+            oneByOne.accept(value);
+        }
+        assertEquals(oneByOne.getGeometricMean(), ColumnStatistics.of(values).getGeometricMean(), 1e-12 * expected);
+
+        values[999] = Double.POSITIVE_INFINITY;
+        assertEquals(Double.POSITIVE_INFINITY, ColumnStatistics.of(values).getGeometricMean());
+    }
+
+    @Test
+    @DisplayName("Test compensated summation keeps small terms")
+    void testCompensatedSum() {
+        assertEquals(2.0, ColumnStatistics.of(new double[] {1, 1e100, 1, -1e100}).getSum());
+
+        double[] tenths = new double[1_000_000];
+        Arrays.fill(tenths, 0.1);
+        double naive = 0;
+        for (double value : tenths) {
+            naive += value;
+        }
+        assertNotEquals(100_000.0, naive);
+        assertEquals(100_000.0, ColumnStatistics.of(tenths).getSum());
+    }
+
+    @Test
+    @DisplayName("Test variance is stable for large offsets")
+    void testVarianceStability() {
+        double[] column = {1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16};
+        assertEquals(22.5, ColumnStatistics.of(column).getVariance(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Test parallel reduction matches sequential accumulation")
+    void testParallel() {
+        Random random = new Random(17);
+        double[] column = new double[300_001];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = random.nextGaussian() * 50 + 1000;
+        }
+        ColumnStatistics sequential = ColumnStatistics.of(column);
+        ColumnStatistics parallel = ColumnStatistics.parallel(column);
+        assertEquals(sequential.getCount(), parallel.getCount());
+        assertEquals(sequential.getSum(), parallel.getSum(), Math.ulp(sequential.getSum()) * 2);
+        assertEquals(sequential.getMean(), parallel.getMean(), 1e-9);
+        assertEquals(sequential.getVariance(), parallel.getVariance(), sequential.getVariance() * 1e-12);
+        assertEquals(sequential.getMin(), parallel.getMin());
+        assertEquals(sequential.getMax(), parallel.getMax());
+        assertEquals(sequential.getGeometricMean(), parallel.getGeometricMean(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Test combining partial states equals one pass")
+    void testCombine() {
+        double[] column = {1.5, 2.5, 10, 0.25, 7, 3};
+        ColumnStatistics left = new ColumnStatistics();
+        left.accept(column, 0, 2);
+        ColumnStatistics right = new ColumnStatistics();
+        right.accept(column, 2, 4);
+        ColumnStatistics merged = left.combine(right).combine(new ColumnStatistics());
+        ColumnStatistics whole = ColumnStatistics.of(column);
+        assertEquals(whole.getSum(), merged.getSum());
+        assertEquals(whole.getVariance(), merged.getVariance(), 1e-12);
+        assertEquals(whole.getGeometricMean(), merged.getGeometricMean(), 1e-12);
+        assertEquals(0.25, merged.getMin());
+        assertEquals(10.0, new ColumnStatistics().combine(merged).getMax());
+    }
+
+    @Test
+    @DisplayName("Test heap and direct buffers are read without moving their position")
+    void testBuffers() {
+        double[] values = new double[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        DoubleBuffer direct = ByteBuffer.allocateDirect(values.length * Double.BYTES).asDoubleBuffer();
+        direct.put(values).flip();
+        direct.position(10);
+
+        ColumnStatistics statistics = new ColumnStatistics();
+        statistics.accept(direct);
+        assertEquals(10, direct.position());
+        assertEquals(values.length - 10, statistics.getCount());
+        assertEquals(11.0, statistics.getMin());
+
+        ColumnStatistics parallel = ColumnStatistics.parallel(direct, new Calculator());
+        assertEquals(statistics.getSum(), parallel.getSum());
+        assertEquals(statistics.getSum(), ColumnStatistics.parallel(DoubleBuffer.wrap(values, 10, values.length - 10),
+                new Calculator()).getSum());
+    }
+}
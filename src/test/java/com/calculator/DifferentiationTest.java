@@ -0,0 +1,128 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for symbolic derivatives, reverse-mode gradient tapes and forward-mode dual numbers
+ */
+@DisplayName("Differentiation Tests")
+class DifferentiationTest {
+
+    private static final double DELTA = 0.000000001;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "x + y", "x - 2*y", "x * y", "x / y", "-x * y", "x^3 - y^2", "x^y", "2^x + y^0.5",
+        "sqrt(x * y)", "ln(x) + log(y)", "exp(x / y)", "x * exp(-y) / sqrt(x + y)", "3! * x^2 * ln(y)"
+    })
+    @DisplayName("Test symbolic, tape and finite-difference derivatives agree")
+    void testDerivativesAgree(String text) {
+        Expression expression = Expression.parse(text);
+        CompiledExpression function = expression.compile("x", "y");
+        CompiledExpression dx = expression.derivative("x").compile("x", "y");
+        CompiledExpression dy = expression.derivative("y").compile("x", "y");
+        GradientTape tape = expression.gradient("x", "y");
+        double[] point = new double[2];
+        double[] gradient = new double[2];
+        for (double x = 0.5; x < 4; x += 0.75) {
+            for (double y = 0.25; y < 3; y += 0.5) {
+                point[0] = x;
+                point[1] = y;
+                double value = tape.evaluate(point, gradient);
+                assertEquals(function.evaluate(point), value, DELTA);
+                assertEquals(dx.evaluate(point), gradient[0], DELTA * Math.max(1, Math.abs(gradient[0])));
+                assertEquals(dy.evaluate(point), gradient[1], DELTA * Math.max(1, Math.abs(gradient[1])));
+                assertEquals(centralDifference(function, point, 0), gradient[0], 0.00001 * Math.max(1, Math.abs(gradient[0])));
+                assertEquals(centralDifference(function, point, 1), gradient[1], 0.00001 * Math.max(1, Math.abs(gradient[1])));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test dual numbers match the analytic derivative")
+    void testDualNumbers() {
+        DualCalculator dual = new DualCalculator();
+        for (double value = 0.5; value < 5; value += 0.5) {
+            // f(x) = x^2 sqrt(x) / ln(x + 1) + exp(-x) - log(x)
+            Dual x = Dual.variable(value);
+            Dual f = dual.subtract(
+                    dual.add(
+                            dual.divide(dual.multiply(dual.power(x, Dual.constant(2)), dual.sqrt(x)),
+                                    dual.ln(dual.add(x, Dual.constant(1)))),
+                            dual.exp(dual.negate(x))),
+                    dual.log(x));
+            double l = Math.log(value + 1);
+            double g = Math.pow(value, 2.5);
+            double expected = (2.5 * Math.pow(value, 1.5) * l - g / (value + 1)) / (l * l)
+                    - Math.exp(-value) - 1 / (value * Math.log(10));
+            assertEquals(g / l + Math.exp(-value) - Math.log10(value), f.value(), DELTA);
+            assertEquals(expected, f.derivative(), DELTA);
+        }
+
+        Dual power = dual.power(Dual.constant(2), Dual.variable(3));
+        assertEquals(8.0, power.value());
+        assertEquals(8 * Math.log(2), power.derivative(), DELTA);
+        assertEquals(Dual.constant(120), dual.factorial(Dual.constant(5)));
+    }
+
+    @Test
+    @DisplayName("Test power derivatives survive an overflowing or underflowing power")
+    void testPowerDerivativeRange() {
+        double[] gradient = new double[1];
+        assertEquals(Double.POSITIVE_INFINITY, Expression.parse("x^2").gradient("x").evaluate(new double[] {1e200}, gradient));
+        assertEquals(2e200, gradient[0], 2e200 * 1e-15);
+        assertEquals(0.0, Expression.parse("x^1.5").gradient("x").evaluate(new double[] {1e-300}, gradient));
+        assertEquals(1.5e-150, gradient[0], 1.5e-150 * 1e-15);
+
+        DualCalculator dual = new DualCalculator();
+        assertEquals(2e200, dual.power(Dual.variable(1e200), Dual.constant(2)).derivative(), 2e200 * 1e-15);
+        assertEquals(1.5e-150, dual.power(Dual.variable(1e-300), Dual.constant(1.5)).derivative(), 1.5e-150 * 1e-15);
+        assertEquals(Dual.constant(0), dual.sqrt(Dual.constant(0)));
+    }
+
+    @Test
+    @DisplayName("Test derivatives of varying factorials are rejected and domain errors propagate")
+    void testErrors() {
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse("x!").derivative("x"));
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse("(x + 1)!").gradient());
+        assertThrows(IllegalArgumentException.class, () -> new DualCalculator().factorial(Dual.variable(3)));
+        assertEquals("0.0", Expression.parse("y!").derivative("x").toString());
+
+        GradientTape tape = Expression.parse("sqrt(x) / y").gradient("x", "y");
+        double[] gradient = new double[2];
+        assertThrows(IllegalArgumentException.class, () -> tape.evaluate(new double[] {-1, 1}, gradient));
+        assertThrows(ArithmeticException.class, () -> tape.evaluate(new double[] {1, 0}, gradient));
+        assertThrows(IllegalArgumentException.class, () -> tape.evaluate(new double[] {1}, new double[1]));
+        assertThrows(ArithmeticException.class, () -> new DualCalculator().divide(Dual.variable(1), Dual.constant(0)));
+    }
+
+    @Test
+    @DisplayName("Test derivatives are simplified and tapes are reusable")
+    void testSimplificationAndReuse() {
+        assertEquals("multiply(3.0, power(x, 2.0))", Expression.parse("x^3").derivative("x").toString());
+        assertEquals("1.0", Expression.parse("x + 2 * 3").derivative("x").toString());
+        assertEquals("0.0", Expression.parse("y * ln(2)").derivative("x").toString());
+
+        GradientTape tape = Expression.parse("x * x * x").gradient();
+        assertEquals(1, tape.getVariableCount());
+        double[] gradient = new double[1];
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i * i * i, tape.evaluate(new double[] {i}, gradient), DELTA);
+            assertEquals(3 * i * i, gradient[0], DELTA);
+        }
+    }
+
+    private static double centralDifference(CompiledExpression function, double[] point, int variable) {
+        double[] shifted = point.clone();
+        double h = 0.000001 * Math.max(1, Math.abs(point[variable]));
+        shifted[variable] = point[variable] + h;
+        double above = function.evaluate(shifted);
+        shifted[variable] = point[variable] - h;
+        return (above - function.evaluate(shifted)) / (2 * h);
+    }
+}
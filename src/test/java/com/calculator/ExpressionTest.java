@@ -0,0 +1,102 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for expression parsing and compiled evaluation
+ */
+@DisplayName("Expression Tests")
+class ExpressionTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "1 + 2 * 3; 7",
+        "(1 + 2) * 3; 9",
+        "2^3^2; 512",
+        "-2^2; -4",
+        "10 - 4 - 3; 3",
+        "8 / 4 / 2; 1",
+        "5!; 120",
+        "3!!; 720",
+        "√16 + sqrt(9); 7",
+        "log(1000) + ln(e); 4",
+        "exp(0) * 2 ÷ 4 × 3; 1.5",
+        "1.5e3 + 2E-1; 1500.2"
+    })
+    @DisplayName("Test evaluation of constant expressions")
+    void testConstantExpressions(String text, double expected) {
+        assertEquals(expected, Expression.parse(text).evaluate(), 0.0000000001);
+    }
+
+    @Test
+    @DisplayName("Test the motivating example")
+    void testMixedExpression() {
+        double expected = Math.pow(2, 3) + Math.log(5) / Math.sqrt(7);
+        assertEquals(expected, Expression.parse("2^3 + ln(5)/sqrt(7)").evaluate(), 0.0000000001);
+    }
+
+    @Test
+    @DisplayName("Test compiled expression with variables")
+    void testVariables() {
+        Expression expression = Expression.parse("x^2 + y * ln(x) - pi");
+        assertEquals(List.of("x", "y"), expression.variables());
+
+        CompiledExpression compiled = expression.compile();
+        double[] bindings = new double[2];
+        for (int i = 1; i <= 100; i++) {
+            bindings[0] = i;
+            bindings[1] = i / 2.0;
+            assertEquals(i * i + (i / 2.0) * Math.log(i) - Math.PI, compiled.evaluate(bindings), 0.0000001);
+        }
+    }
+
+    @Test
+    @DisplayName("Test explicit variable order")
+    void testExplicitVariableOrder() {
+        CompiledExpression compiled = Expression.parse("a - b").compile("b", "a");
+        assertEquals(7.0, compiled.evaluate(new double[] {3, 10}), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Test unbound and duplicate variables are rejected")
+    void testVariableBindingErrors() {
+        Expression expression = Expression.parse("x + y");
+        assertThrows(IllegalArgumentException.class, () -> expression.compile("x"));
+        assertThrows(IllegalArgumentException.class, () -> expression.compile("x", "y", "x"));
+        assertThrows(IllegalArgumentException.class, expression::evaluate);
+    }
+
+    @Test
+    @DisplayName("Test domain errors surface at evaluation time")
+    void testDomainErrors() {
+        CompiledExpression divide = Expression.parse("1 / x").compile();
+        assertEquals(0.5, divide.evaluate(new double[] {2}), 0.0001);
+        assertThrows(ArithmeticException.class, () -> divide.evaluate(new double[] {0}));
+
+        assertThrows(ArithmeticException.class, () -> Expression.parse("1 / (2 - 2)").evaluate());
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse("sqrt(-1)").evaluate());
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse("ln(0)").evaluate());
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse("2.5!").evaluate());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "1 +",
+        "(1 + 2",
+        "1 2",
+        "sqrt 4",
+        "2 $ 3",
+        "''"
+    })
+    @DisplayName("Test malformed expressions are rejected")
+    void testSyntaxErrors(String text) {
+        assertThrows(IllegalArgumentException.class, () -> Expression.parse(text));
+    }
+}
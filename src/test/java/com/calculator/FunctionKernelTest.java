@@ -0,0 +1,142 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the function kernels, measuring the fast tier's error against 40-digit reference values
+ */
+@DisplayName("Function Kernel Tests")
+class FunctionKernelTest {
+
+    private static final int SAMPLES = 10_000;
+
+    private final BigDecimalCalculator reference = new BigDecimalCalculator(new MathContext(40));
+    private final Random random = new Random(42);
+
+    /** Error of {@code actual} in ulps of the correctly rounded {@code exact}. */
+    private static double ulps(double actual, BigDecimal exact) {
+        return new BigDecimal(actual).subtract(exact).abs().doubleValue() / Math.ulp(exact.doubleValue());
+    }
+
+    /** A double drawn uniformly over the bit patterns of all finite positive values. */
+    private double anyPositive() {
+        double x;
+        do {
+            x = Double.longBitsToDouble(random.nextLong() & 0x7FEF_FFFF_FFFF_FFFFL);
+        } while (x == 0);
+        return x;
+    }
+
+    @Test
+    @DisplayName("Test fast exp stays within its bound from underflow to overflow")
+    void testFastExpBound() {
+        double worst = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            // results down to the smallest normal; subnormal results have a coarser ulp
+            double x = -708 + random.nextDouble() * (709.78 + 708);
+            worst = Math.max(worst, ulps(FunctionKernel.FAST.exp(x), reference.exp(new BigDecimal(x))));
+        }
+        assertTrue(worst <= ApproximateMath.EXP_ULPS, "exp error " + worst + " ulps");
+        assertEquals(1.0, FunctionKernel.FAST.exp(0));
+        assertEquals(Math.exp(-740), FunctionKernel.FAST.exp(-740), Math.ulp(Math.exp(-740)));
+    }
+
+    @Test
+    @DisplayName("Test fast ln and log10 stay within their bounds over all positive doubles")
+    void testFastLogarithmBounds() {
+        BigDecimal ln10 = reference.ln(BigDecimal.TEN);
+        double worstLn = 0;
+        double worstLog10 = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            // half over every binade, half near 1 where the result is smallest
+            double x = i % 2 == 0 ? anyPositive() : 0.5 + random.nextDouble() * 1.5;
+            BigDecimal ln = reference.ln(new BigDecimal(x));
+            worstLn = Math.max(worstLn, ulps(FunctionKernel.FAST.ln(x), ln));
+            worstLog10 = Math.max(worstLog10,
+                    ulps(FunctionKernel.FAST.log10(x), ln.divide(ln10, reference.getMathContext())));
+        }
+        assertTrue(worstLn <= ApproximateMath.LN_ULPS, "ln error " + worstLn + " ulps");
+        assertTrue(worstLog10 <= ApproximateMath.LOG10_ULPS, "log10 error " + worstLog10 + " ulps");
+        assertEquals(0.0, FunctionKernel.FAST.ln(1));
+        assertEquals(Math.log(Double.MIN_VALUE), FunctionKernel.FAST.ln(Double.MIN_VALUE), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Test fast power error grows only with the magnitude of y * ln x")
+    void testFastPowerBound() {
+        for (int i = 0; i < SAMPLES / 4; i++) {
+            double x = Math.nextUp(random.nextDouble() * 100);
+            double y = (random.nextDouble() - 0.5) * 300;
+            BigDecimal t = new BigDecimal(y).multiply(reference.ln(new BigDecimal(x)), reference.getMathContext());
+            if (Math.abs(t.doubleValue()) > 708) {
+                continue;
+            }
+            double error = ulps(FunctionKernel.FAST.pow(x, y), reference.exp(t));
+            assertTrue(error <= 2 + 3 * Math.abs(t.doubleValue()), "pow(" + x + ", " + y + ") error " + error);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FunctionKernel.class)
+    @DisplayName("Test every kernel follows Math for special values")
+    void testSpecialValues(FunctionKernel kernel) {
+        double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0, -0.0, -1.0, 1.0};
+        for (double x : specials) {
+            assertEquals(Math.sqrt(x), kernel.sqrt(x), "sqrt(" + x + ")");
+            assertEquals(Math.log(x), kernel.ln(x), "ln(" + x + ")");
+            assertEquals(Math.log10(x), kernel.log10(x), "log10(" + x + ")");
+            if (Math.abs(x) != 1) {
+                assertEquals(Math.exp(x), kernel.exp(x), "exp(" + x + ")");
+            }
+            for (double y : specials) {
+                assertEquals(Math.pow(x, y), kernel.pow(x, y), "pow(" + x + ", " + y + ")");
+            }
+        }
+        assertEquals(Double.POSITIVE_INFINITY, kernel.exp(710));
+        assertEquals(0.0, kernel.exp(-746));
+        assertEquals(-8.0, kernel.pow(-2, 3));
+    }
+
+    @Test
+    @DisplayName("Test strict and default kernels match StrictMath and Math exactly")
+    void testReferenceKernels() {
+        for (int i = 0; i < 1000; i++) {
+            double x = anyPositive();
+            double y = random.nextDouble() * 4 - 2;
+            assertEquals(StrictMath.log(x), FunctionKernel.STRICT.ln(x));
+            assertEquals(StrictMath.pow(x, y), FunctionKernel.STRICT.pow(x, y));
+            assertEquals(Math.log10(x), FunctionKernel.DEFAULT.log10(x));
+            assertEquals(Math.exp(y), FunctionKernel.DEFAULT.exp(y));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a calculator uses its kernel and keeps its domain checks")
+    void testCalculatorKernel() {
+        Calculator fast = new Calculator(FunctionKernel.FAST);
+        assertEquals(FunctionKernel.FAST, fast.getKernel());
+        assertEquals(FunctionKernel.DEFAULT, new Calculator().getKernel());
+        assertEquals(FunctionKernel.FAST.exp(1.5), fast.exp(1.5));
+        assertEquals(Math.exp(1.5), fast.exp(1.5), 1e-15);
+        assertEquals(1024.0, fast.power(2, 10), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> fast.ln(0));
+        assertThrows(NullPointerException.class, () -> new Calculator(null));
+
+        double[] in = {Math.E, 0, -1};
+        double[] out = new double[3];
+        boolean[] errors = new boolean[3];
+        assertEquals(2, fast.ln(in, out, errors));
+        assertEquals(1.0, out[0], 1e-15);
+        assertTrue(Double.isNaN(out[1]) && Double.isNaN(out[2]));
+        assertArrayEquals(new boolean[] {false, true, true}, errors);
+    }
+}
@@ -0,0 +1,126 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for interpolated function tables and the calculator that uses them
+ */
+@DisplayName("Function Table Tests")
+class FunctionTableTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @CsvSource({
+        "EXP, -5, 5, 1000, LINEAR",
+        "EXP, -5, 5, 1000, CUBIC",
+        "EXP, -700, 700, 4096, CUBIC",
+        "LN, 0.5, 2, 64, CUBIC",
+        "LN, 1, 1000000, 100000, LINEAR",
+        "LOG, 0.001, 1000, 100000, CUBIC",
+        "SQRT, 1, 100, 500, LINEAR",
+        "SQRT, 0.25, 4, 256, CUBIC"
+    })
+    @DisplayName("Test the reported maximum error bounds the measured error")
+    void testErrorBound(Operation function, double lower, double upper, int intervals,
+                        FunctionTable.Interpolation interpolation) {
+        FunctionTable table = FunctionTable.build(function, lower, upper, intervals, interpolation);
+        Calculator calculator = new Calculator();
+        Random random = new Random(intervals);
+        double measured = 0;
+        for (int i = 0; i <= SAMPLES; i++) {
+            double x = i < 2 ? (i == 0 ? lower : upper) : lower + random.nextDouble() * (upper - lower);
+            measured = Math.max(measured, Math.abs(table.evaluate(x) - function.apply(calculator, x, 0)));
+        }
+        assertTrue(measured <= table.getMaxError(), measured + " > " + table.getMaxError());
+    }
+
+    @Test
+    @DisplayName("Test cubic tables are far more accurate than linear ones of the same size")
+    void testAccuracy() {
+        FunctionTable linear = FunctionTable.build(Operation.EXP, 0, 1, 1024, FunctionTable.Interpolation.LINEAR);
+        FunctionTable cubic = FunctionTable.build(Operation.EXP, 0, 1, 1024, FunctionTable.Interpolation.CUBIC);
+        assertTrue(linear.getMaxError() < 4e-7);
+        assertTrue(cubic.getMaxError() < 2e-14);
+        assertEquals(Math.exp(0.3), cubic.evaluate(0.3), cubic.getMaxError());
+    }
+
+    @Test
+    @DisplayName("Test arguments outside the table fall back to the calculator")
+    void testFallback() {
+        FunctionTable table = FunctionTable.build(Operation.LN, 1, 2, 16, FunctionTable.Interpolation.LINEAR);
+        Calculator calculator = new Calculator();
+        assertEquals(calculator.ln(10), table.evaluate(10));
+        assertEquals(calculator.ln(0.5), table.evaluate(0.5));
+        assertTrue(Double.isNaN(table.evaluate(Double.NaN)));
+        assertThrows(IllegalArgumentException.class, () -> table.evaluate(-1));
+
+        double[] out = new double[3];
+        table.evaluate(new double[] {1.5, 4, -1}, out);
+        assertEquals(Math.log(1.5), out[0], table.getMaxError());
+        assertEquals(calculator.ln(4), out[1]);
+        assertTrue(Double.isNaN(out[2]));
+
+        TabulatedCalculator tabulated = new TabulatedCalculator(table,
+                FunctionTable.build(Operation.SQRT, 1, 4, 8, FunctionTable.Interpolation.CUBIC));
+        assertEquals(table.evaluate(1.25), tabulated.ln(1.25));
+        assertEquals(calculator.ln(3), tabulated.ln(3));
+        assertEquals(calculator.exp(1.25), tabulated.exp(1.25));
+        assertEquals(Math.sqrt(2), tabulated.sqrt(2), 1e-5);
+        assertThrows(IllegalArgumentException.class, () -> tabulated.sqrt(-4));
+        assertThrows(IllegalArgumentException.class, () -> new TabulatedCalculator(table, table));
+    }
+
+    @Test
+    @DisplayName("Test a saved table is memory-mapped back unchanged")
+    void testSaveAndLoad() throws IOException {
+        FunctionTable table = FunctionTable.build(Operation.LOG, 1, 1000, 5000, FunctionTable.Interpolation.CUBIC);
+        Path path = directory.resolve("log.tab");
+        table.save(path);
+        assertEquals(FunctionTable.HEADER_SIZE + 5000 * 4 * 8, Files.size(path));
+
+        FunctionTable loaded = FunctionTable.load(path);
+        assertEquals(Operation.LOG, loaded.getFunction());
+        assertEquals(FunctionTable.Interpolation.CUBIC, loaded.getInterpolation());
+        assertEquals(1.0, loaded.getLower());
+        assertEquals(1000.0, loaded.getUpper());
+        assertEquals(5000, loaded.getIntervals());
+        assertEquals(table.getMaxError(), loaded.getMaxError());
+        for (double x = 0.5; x < 1100; x += 0.37) {
+            assertEquals(table.evaluate(x), loaded.evaluate(x));
+        }
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> FunctionTable.load(path));
+        Files.write(path, "not a table, but long enough to have a header".getBytes("US-ASCII"));
+        assertThrows(IOException.class, () -> FunctionTable.load(path));
+    }
+
+    @Test
+    @DisplayName("Test invalid tables are rejected")
+    void testInvalidTables() {
+        FunctionTable.Interpolation linear = FunctionTable.Interpolation.LINEAR;
+        assertThrows(IllegalArgumentException.class, () -> FunctionTable.build(Operation.POWER, 0, 1, 10, linear));
+        assertThrows(IllegalArgumentException.class, () -> FunctionTable.build(Operation.LN, 0, 1, 10, linear));
+        assertThrows(IllegalArgumentException.class, () -> FunctionTable.build(Operation.EXP, 1, 1, 10, linear));
+        assertThrows(IllegalArgumentException.class, () -> FunctionTable.build(Operation.EXP, 0, 1, 0, linear));
+        assertThrows(IllegalArgumentException.class,
+                () -> FunctionTable.build(Operation.EXP, 0, Double.POSITIVE_INFINITY, 10, linear));
+    }
+}
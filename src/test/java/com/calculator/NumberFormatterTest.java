@@ -0,0 +1,108 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that NumberFormatter prints the shortest decimal that parses back to the same double
+ */
+@DisplayName("Number Formatter Tests")
+class NumberFormatterTest {
+
+    /**
+     * Checks that {@code value} round trips, that no decimal with one digit less would, and
+     * that among decimals as short that round trip the closest to the value was chosen. Like
+     * {@code Double.toString}, at least two digits are considered, so the smallest subnormal
+     * is 4.9E-324 rather than 5E-324.
+     */
+    private static void assertShortest(double value) {
+        String text = NumberFormatter.formatDouble(value);
+        assertEquals(Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(Double.parseDouble(text)),
+                () -> text + " does not parse back to " + value);
+        assertTrue(text.length() <= Double.toString(value).length(), () -> text + " is longer than " + value);
+        if (value == 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        BigDecimal exact = new BigDecimal(value);
+        BigDecimal printed = new BigDecimal(text);
+        int digits = Math.max(2, printed.stripTrailingZeros().precision());
+        BigDecimal closest = exact.round(new MathContext(digits, RoundingMode.HALF_EVEN));
+        // below a power of two the gap is half as wide, so the closest may not round trip
+        if (closest.doubleValue() == value) {
+            assertEquals(0, closest.compareTo(printed),
+                    () -> text + " is not the closest " + digits + "-digit decimal to " + exact);
+        }
+        if (digits > 2) {
+            for (RoundingMode mode : new RoundingMode[] {RoundingMode.FLOOR, RoundingMode.CEILING}) {
+                double shorter = exact.round(new MathContext(digits - 1, mode)).doubleValue();
+                assertNotEquals(value, shorter, () -> text + " has a shorter form");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test the layout of Double.toString")
+    void testLayout() {
+        assertEquals("0.0", NumberFormatter.formatDouble(0.0));
+        assertEquals("-0.0", NumberFormatter.formatDouble(-0.0));
+        assertEquals("3.0", NumberFormatter.formatDouble(3));
+        assertEquals("-2.5", NumberFormatter.formatDouble(-2.5));
+        assertEquals("0.1", NumberFormatter.formatDouble(0.1));
+        assertEquals("0.30000000000000004", NumberFormatter.formatDouble(0.1 + 0.2));
+        assertEquals("100.0", NumberFormatter.formatDouble(100));
+        assertEquals("1234567.0", NumberFormatter.formatDouble(1234567));
+        assertEquals("1.0E7", NumberFormatter.formatDouble(1e7));
+        assertEquals("1.2345678E7", NumberFormatter.formatDouble(12345678));
+        assertEquals("0.001", NumberFormatter.formatDouble(0.001));
+        assertEquals("1.0E-4", NumberFormatter.formatDouble(1e-4));
+        assertEquals("1.25E-4", NumberFormatter.formatDouble(1.25e-4));
+        assertEquals("1.0E20", NumberFormatter.formatDouble(1e20));
+        assertEquals("9.007199254740992E15", NumberFormatter.formatDouble(9007199254740992.0));
+        assertEquals("1.7976931348623157E308", NumberFormatter.formatDouble(Double.MAX_VALUE));
+        assertEquals("2.2250738585072014E-308", NumberFormatter.formatDouble(Double.MIN_NORMAL));
+        assertEquals("4.9E-324", NumberFormatter.formatDouble(Double.MIN_VALUE));
+        assertEquals("NaN", NumberFormatter.formatDouble(Double.NaN));
+        assertEquals("-Infinity", NumberFormatter.formatDouble(Double.NEGATIVE_INFINITY));
+        // Double.toString here prints 2.0000000000000002E23
+        assertEquals("2.0E23", NumberFormatter.formatDouble(2e23));
+        assertEquals("x = 1.5", NumberFormatter.formatDouble(1.5, new StringBuilder("x = ")).toString());
+    }
+
+    @Test
+    @DisplayName("Test powers of two, integers and subnormals")
+    void testBoundaries() {
+        for (int e = -1074; e <= 1023; e++) {
+            double power = Math.scalb(1.0, e);
+            assertShortest(power);
+            assertShortest(Math.nextUp(power));
+            assertShortest(Math.nextDown(power));
+        }
+        for (long i = 1; i < 1_000_000; i = i * 3 + 1) {
+            assertShortest(i);
+            assertShortest(-i / 7.0);
+        }
+        for (long bits = 1; bits < 5000; bits++) {
+            assertShortest(Double.longBitsToDouble(bits));
+        }
+    }
+
+    @Test
+    @DisplayName("Test random doubles")
+    void testRandomDoubles() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value)) {
+                assertShortest(value);
+            }
+            assertShortest(random.nextDouble() * 1000);
+        }
+    }
+}
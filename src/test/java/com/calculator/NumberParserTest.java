@@ -0,0 +1,99 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that NumberParser agrees bit for bit with the JDK parsers
+ */
+@DisplayName("Number Parser Tests")
+class NumberParserTest {
+
+    private static void assertSameAsJdk(String text) {
+        long expected = Double.doubleToRawLongBits(Double.parseDouble(text));
+        long actual = Double.doubleToRawLongBits(NumberParser.parseDouble(text));
+        assertEquals(expected, actual, () -> "Parsing " + text + " gave " + Double.longBitsToDouble(actual));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "-0", "+0.0", "1", "-1", "3.14", ".5", "5.", "  42  ", "0001.2500", "1e10", "1E-10", "-2.5e+3",
+        "123456789012345678", "9007199254740993", "18446744073709551615", "0.1", "0.2", "0.3",
+        "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1e309",
+        "2.2250738585072014e-308", "2.2250738585072011e-308", "4.9e-324", "2.4703282292062327e-324",
+        "2.4703282292062328e-324", "1e-400", "123.456e-300", "7.2057594037927933e16",
+        "9007199254740992.9999999999999999999", "1.00000000000000011102230246251565404236316680908203125",
+        "1.00000000000000011102230246251565404236316680908203124", "0.000000000000000000000000000001234",
+        "12345678901234567890123456789e-20", "NaN", "-Infinity", "0x1.8p1", "1.5d", "2f"
+    })
+    @DisplayName("Test edge cases match Double.parseDouble")
+    void testEdgeCases(String text) {
+        assertSameAsJdk(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "-", ".", "e5", "1e", "1e+", "1.2.3", "abc", "1,5", "--1"})
+    @DisplayName("Test malformed doubles are rejected like Double.parseDouble")
+    void testMalformedDoubles(String text) {
+        assertThrows(NumberFormatException.class, () -> Double.parseDouble(text));
+        assertThrows(NumberFormatException.class, () -> NumberParser.parseDouble(text));
+    }
+
+    @Test
+    @DisplayName("Test round trip of random doubles")
+    void testRandomRoundTrip() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value)) {
+                assertSameAsJdk(Double.toString(value));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test random decimal strings of varying length and exponent")
+    void testRandomDecimalStrings() {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.setLength(0);
+            int digits = 1 + random.nextInt(25);
+            for (int d = 0; d < digits; d++) {
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                text.insert(random.nextInt(digits + 1), '.');
+            }
+            text.append('e').append(random.nextInt(700) - 350);
+            assertSameAsJdk(text.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parsing a sub-range of a larger sequence")
+    void testRange() {
+        StringBuilder line = new StringBuilder("power,2.5,-10");
+        assertEquals(2.5, NumberParser.parseDouble(line, 6, 9));
+        assertEquals(-10, NumberParser.parseLong(line, 10, 13));
+    }
+
+    @Test
+    @DisplayName("Test integer parsing matches Long.parseLong and Integer.parseInt")
+    void testIntegers() {
+        for (String text : new String[] {"0", "-0", "+7", "123", "-9223372036854775808", "9223372036854775807"}) {
+            assertEquals(Long.parseLong(text), NumberParser.parseLong(text));
+        }
+        for (String text : new String[] {"", "-", "9223372036854775808", "-9223372036854775809", "1.0", "1e3"}) {
+            assertThrows(NumberFormatException.class, () -> NumberParser.parseLong(text));
+        }
+        assertEquals(Integer.MIN_VALUE, NumberParser.parseInt("-2147483648"));
+        assertThrows(NumberFormatException.class, () -> NumberParser.parseInt("2147483648"));
+    }
+}
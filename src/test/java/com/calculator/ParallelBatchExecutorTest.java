@@ -0,0 +1,132 @@
+package com.calculator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for parallel batch evaluation
+ */
+@DisplayName("Parallel Batch Executor Tests")
+class ParallelBatchExecutorTest {
+
+    private ForkJoinPool pool;
+    private ParallelBatchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        executor = new ParallelBatchExecutor(new Calculator(), pool, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test mixed batch matches sequential evaluation in input order")
+    void testMixedBatchOrder() {
+        Random random = new Random(3);
+        Operation[] operations = Operation.values();
+        int size = 10_000;
+        Operation[] ops = new Operation[size];
+        double[] a = new double[size];
+        double[] b = new double[size];
+        for (int i = 0; i < size; i++) {
+            ops[i] = operations[random.nextInt(operations.length)];
+            a[i] = ops[i] == Operation.FACTORIAL ? random.nextInt(25) - 2 : random.nextDouble() * 20 - 5;
+            b[i] = random.nextInt(10) == 0 ? 0 : random.nextDouble() * 4;
+        }
+        double[] results = new double[size];
+        String[] errors = new String[size];
+
+        int failures = executor.execute(ops, a, b, results, errors);
+
+        Calculator calculator = new Calculator();
+        int expectedFailures = 0;
+        for (int i = 0; i < size; i++) {
+            try {
+                double expected = ops[i].apply(calculator, a[i], b[i]);
+                assertEquals(expected, results[i], 0.0, "element " + i);
+                assertNull(errors[i]);
+            } catch (RuntimeException e) {
+                expectedFailures++;
+                assertTrue(Double.isNaN(results[i]));
+                assertEquals(e.getMessage(), errors[i]);
+            }
+        }
+        assertEquals(expectedFailures, failures);
+        assertTrue(failures > 0);
+    }
+
+    @Test
+    @DisplayName("Test single-operation column form")
+    void testSingleOperation() {
+        double[] a = {16, -1, 81, 0};
+        double[] results = new double[4];
+        String[] errors = new String[4];
+
+        assertEquals(1, executor.execute(Operation.SQRT, a, null, results, errors));
+        assertArrayEquals(new double[] {4, Double.NaN, 9, 0}, results, 0.0);
+        assertEquals("Cannot calculate square root of negative number", errors[1]);
+
+        assertEquals(4, executor.execute(Operation.ADD, a, null, results, null));
+    }
+
+    @Test
+    @DisplayName("Test list batches split by spliterator match the array form")
+    void testListBatch() {
+        Random random = new Random(9);
+        Operation[] operations = Operation.values();
+        int size = 10_000;
+        Operation[] ops = new Operation[size];
+        double[] a = new double[size];
+        double[] b = new double[size];
+        List<ParallelBatchExecutor.Request> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ops[i] = operations[random.nextInt(operations.length)];
+            a[i] = ops[i] == Operation.FACTORIAL ? random.nextInt(25) - 2 : random.nextDouble() * 20 - 5;
+            b[i] = random.nextInt(10) == 0 ? 0 : random.nextDouble() * 4;
+            requests.add(new ParallelBatchExecutor.Request(ops[i], a[i], b[i]));
+        }
+        double[] expected = new double[size];
+        String[] expectedErrors = new String[size];
+        int expectedFailures = executor.execute(ops, a, b, expected, expectedErrors);
+
+        for (List<ParallelBatchExecutor.Request> list : List.of(requests, new LinkedList<>(requests))) {
+            double[] results = new double[size];
+            String[] errors = new String[size];
+            assertEquals(expectedFailures, executor.execute(list, results, errors));
+            assertArrayEquals(expected, results, 0.0);
+            assertArrayEquals(expectedErrors, errors);
+        }
+
+        double[] results = new double[2];
+        List<ParallelBatchExecutor.Request> unary = List.of(
+                new ParallelBatchExecutor.Request(Operation.SQRT, 9),
+                new ParallelBatchExecutor.Request(Operation.ADD, 1));
+        assertEquals(1, executor.execute(unary, results, null));
+        assertEquals(3.0, results[0]);
+        assertTrue(Double.isNaN(results[1]));
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(unary, new double[3], null));
+    }
+
+    @Test
+    @DisplayName("Test mismatched array lengths are rejected")
+    void testLengthMismatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(Operation.ADD, new double[3], new double[2], new double[3], null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelBatchExecutor(new Calculator(), pool, 0));
+    }
+}
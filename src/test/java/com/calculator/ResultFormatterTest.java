@@ -0,0 +1,126 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for result formatting
+ */
+@DisplayName("Result Formatter Tests")
+class ResultFormatterTest {
+
+    /**
+     * The String.format based formatting the GUI used before ResultFormatter.
+     */
+    private static String legacyFormat(double result) {
+        if (result == (long) result) {
+            return String.format("%d", (long) result);
+        } else {
+            return String.format("%.10f", result).replaceAll("0*$", "").replaceAll("\\.$", "");
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0",
+        "-0.0, 0",
+        "120, 120",
+        "-42, -42",
+        "0.5, 0.5",
+        "2.302585092994046, 2.302585093",
+        "0.1, 0.1",
+        "0.30000000000000004, 0.3",
+        "-1.23456789012345, -1.2345678901",
+        "0.00000000005, 5E-11",
+        "2303407.149712222, 2303407.149712222",
+        "0.99999999999, 1",
+        "1234567890123456, 1234567890123456",
+        "1.5e20, 1.5E20",
+        "1e16, 1E16",
+        "-2.5e-12, -2.5E-12",
+        "6.02214076e23, 6.02214076E23",
+        "4.9e-324, 4.9406564584E-324",
+        "1.7976931348623157e308, 1.7976931349E308",
+        "NaN, NaN",
+        "Infinity, Infinity",
+        "-Infinity, -Infinity"
+    })
+    @DisplayName("Test display formatting")
+    void testDisplayFormat(double value, String expected) {
+        assertEquals(expected, ResultFormatter.DISPLAY.format(value));
+    }
+
+    @Test
+    @DisplayName("Test fixed notation rounds the exact binary value half up")
+    void testMatchesExactRounding() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(24) - 8);
+            // below 1e-10 the formatter switches to scientific notation, and from 1e6 up the
+            // sixteen significant digit cap cuts into the ten fraction digits
+            if (Math.abs(value) >= 1e-10 && Math.abs(value) < 1e6) {
+                String expected = new BigDecimal(value).setScale(10, RoundingMode.HALF_UP)
+                        .stripTrailingZeros().toPlainString();
+                assertEquals(expected, ResultFormatter.DISPLAY.format(value), "value " + value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test typical results match the legacy String.format output")
+    void testMatchesLegacyFormatting() {
+        for (double value : new double[] {0, 4, -8, 1024, 0.5, -0.75, Math.PI, Math.E, Math.log(10), Math.sqrt(2),
+                1.0 / 3, 2.0 / 3, 0.1 + 0.2, 123456.789, Math.exp(10)}) {
+            assertEquals(legacyFormat(value), ResultFormatter.DISPLAY.format(value), "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Test precision and forced scientific notation")
+    void testConfiguration() {
+        assertEquals("3.14", new ResultFormatter(2).format(Math.PI));
+        assertEquals("3", new ResultFormatter(0).format(Math.PI));
+        assertEquals("0.3", new ResultFormatter(17).format(0.1 + 0.2));
+        assertEquals("1.23E3", new ResultFormatter(2, true).format(1234.5));
+        assertEquals("-1E-3", new ResultFormatter(4, true).format(-0.001));
+        assertEquals("1E1", new ResultFormatter(2, true).format(9.999));
+        assertThrows(IllegalArgumentException.class, () -> new ResultFormatter(18));
+    }
+
+    @Test
+    @DisplayName("Test formatting appends to the supplied builder")
+    void testAppendsToBuilder() {
+        StringBuilder out = new StringBuilder("x = ");
+        ResultFormatter.DISPLAY.format(2.5, out).append(", n! = ");
+        ResultFormatter.DISPLAY.format(120L, out);
+        assertEquals("x = 2.5, n! = 120", out.toString());
+    }
+
+    @Test
+    @DisplayName("Test big integers switch to scientific notation at 1e16")
+    void testBigIntegers() {
+        Calculator calculator = new Calculator();
+        assertEquals("120", ResultFormatter.DISPLAY.format(BigInteger.valueOf(120), new StringBuilder()).toString());
+        assertEquals("9999999999999999", ResultFormatter.DISPLAY.format(BigInteger.TEN.pow(16).subtract(BigInteger.ONE),
+                new StringBuilder()).toString());
+        assertEquals("2.4329020082E18", ResultFormatter.DISPLAY.format(calculator.bigFactorial(20),
+                new StringBuilder()).toString());
+        assertEquals("9.3326215444E157", ResultFormatter.DISPLAY.format(calculator.bigFactorial(100),
+                new StringBuilder()).toString());
+        assertEquals("1E16", ResultFormatter.DISPLAY.format(BigInteger.TEN.pow(16), new StringBuilder()).toString());
+        assertEquals("-1.5E20", ResultFormatter.DISPLAY.format(BigInteger.valueOf(-15).multiply(BigInteger.TEN.pow(19)),
+                new StringBuilder()).toString());
+        assertEquals("1.2E2", new ResultFormatter(1, true).format(BigInteger.valueOf(120), new StringBuilder()).toString());
+        assertEquals(ResultFormatter.DISPLAY.format(1e300),
+                ResultFormatter.DISPLAY.format(BigInteger.TEN.pow(300), new StringBuilder()).toString());
+    }
+}
@@ -0,0 +1,172 @@
+package com.calculator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for immutable session states and concurrent sessions
+ */
+@DisplayName("Session Engine Tests")
+class SessionEngineTest {
+
+    private static final int THREADS = 8;
+
+    private final Calculator calculator = new Calculator();
+
+    private SessionState press(String... keys) {
+        SessionState state = SessionState.INITIAL;
+        for (String key : keys) {
+            state = state.press(key, calculator);
+        }
+        return state;
+    }
+
+    @Test
+    @DisplayName("Test key sequences follow the GUI's state machine")
+    void testKeySequences() {
+        assertEquals("15", press("1", "2", "+", "3", "=").input());
+        assertEquals("20", press("2", "+", "3", "×", "4", "=").input());
+        assertEquals("5", press("2", "+", "9", "√", "=").input());
+        assertEquals("8", press("2", "x^y", "3", "=").input());
+        assertEquals("120", press("5", "n!").input());
+        assertEquals("-1.5", press("1", ".", ".", "5", "±").input());
+        assertEquals("4", press("4", "2", "←").input());
+        assertEquals("0", press("4", "←").input());
+        assertEquals("7", press("9", "-", "5", "CE", "2", "=").input());
+
+        SessionState pending = press("6", "÷", "4");
+        assertEquals(Operation.DIVIDE, pending.pending());
+        assertEquals(6.0, pending.operand());
+        assertEquals(3, pending.presses());
+        assertEquals("1.5", pending.press("=", calculator).input());
+        // snapshots never change once made
+        assertEquals("4", pending.input());
+        assertEquals(Operation.DIVIDE, pending.pending());
+        assertEquals("0", SessionState.INITIAL.input());
+        assertEquals(0, SessionState.INITIAL.presses());
+
+        assertThrows(IllegalArgumentException.class, () -> press("?"));
+    }
+
+    @Test
+    @DisplayName("Test failed calculations clear the session and report the error")
+    void testErrors() {
+        SessionState divided = press("3", "+", "1", "÷", "0", "=");
+        assertEquals("Cannot divide by zero", divided.error());
+        assertEquals("0", divided.input());
+        assertNull(divided.pending());
+        assertNull(divided.press("1", calculator).error());
+        assertNotNull(press("0", "ln").error());
+        assertNotNull(press("2", "1", "n!").error());
+    }
+
+    @Test
+    @DisplayName("Test sessions are independent and closable")
+    void testSessions() {
+        SessionEngine engine = new SessionEngine();
+        long first = engine.open();
+        long second = engine.open();
+        engine.press(first, "4");
+        engine.press(second, "9");
+        assertEquals("2", engine.press(first, "√").input());
+        assertEquals("9", engine.state(second).input());
+        assertEquals(2, engine.size());
+        assertEquals("9", engine.close(second).input());
+        assertNull(engine.close(second));
+        assertThrows(IllegalArgumentException.class, () -> engine.press(second, "1"));
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    @DisplayName("Test concurrent presses to shared sessions are never lost")
+    void testNoLostUpdates() throws Exception {
+        SessionEngine engine = new SessionEngine();
+        int sessionCount = 1000;
+        long[] ids = new long[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            ids[i] = engine.open();
+            engine.press(ids[i], "7");
+        }
+        int pressesPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    // every thread toggles the sign of randomly chosen, shared sessions
+                    Random random = new Random(seed);
+                    int[] counts = new int[sessionCount];
+                    for (int i = 0; i < pressesPerThread; i++) {
+                        int session = random.nextInt(sessionCount);
+                        engine.press(ids[session], "±");
+                        counts[session]++;
+                    }
+                    return counts;
+                }));
+            }
+            int[] expected = new int[sessionCount];
+            for (Future<int[]> future : futures) {
+                int[] counts = future.get();
+                for (int i = 0; i < sessionCount; i++) {
+                    expected[i] += counts[i];
+                }
+            }
+            for (int i = 0; i < sessionCount; i++) {
+                SessionState state = engine.state(ids[i]);
+                assertEquals(expected[i] + 1, state.presses());
+                assertEquals(expected[i] % 2 == 0 ? "7" : "-7", state.input());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test thousands of sessions calculate concurrently without interference")
+    void testConcurrentSessions() throws Exception {
+        SessionEngine engine = new SessionEngine();
+        int sessionsPerThread = 500;
+        int additions = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    long[] ids = new long[sessionsPerThread];
+                    for (int i = 0; i < sessionsPerThread; i++) {
+                        ids[i] = engine.open();
+                    }
+                    // interleave the sessions so each one's presses are spread out in time
+                    for (int n = 0; n < additions; n++) {
+                        for (long id : ids) {
+                            engine.press(id, "+");
+                            engine.press(id, "1");
+                            engine.press(id, "=");
+                        }
+                    }
+                    return ids;
+                });
+            }
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                for (long id : future.get()) {
+                    assertEquals(String.valueOf(additions), engine.state(id).input());
+                    assertEquals(3 * additions, engine.state(id).presses());
+                }
+            }
+            assertEquals(THREADS * sessionsPerThread, engine.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}